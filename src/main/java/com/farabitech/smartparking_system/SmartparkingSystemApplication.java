@@ -1,6 +1,7 @@
 package com.farabitech.smartparking_system;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.modulith.Modulithic;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,9 +11,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @Modulithic(sharedModules = {"common"})
 public class SmartparkingSystemApplication {
 
+    /** Startup steps kept for the actuator {@code startup} endpoint. */
+    private static final int STARTUP_STEPS = 4096;
+
 	public static void main(String[] args) {
         log.info("Launching SmartParking System...");
-		SpringApplication.run(SmartparkingSystemApplication.class, args);
+        SpringApplication application = new SpringApplication(SmartparkingSystemApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
         log.info("SmartParking System is now running!");
 	}
 
@@ -23,12 +23,12 @@ public class AllocationEventListener {
     @WithSpan(value = "AllocationEventListener#handleVehicleEntry", kind = SpanKind.CONSUMER)
     public void handleVehicleEntry(VehicleEnteredEvent event) {
 
-        log.info("Received VehicleEnteredEvent: vehicleNumber={} entryTime={}",
+        log.debug("Received VehicleEnteredEvent: vehicleNumber={} entryTime={}",
                 event.vehicleNumber(), event.entryTime());
 
         slotAllocationService.handleVehicleEntry(event);
 
-        log.info("Processed VehicleEnteredEvent for vehicleNumber={}", event.vehicleNumber());
+        log.debug("Processed VehicleEnteredEvent for vehicleNumber={}", event.vehicleNumber());
 
     }
 
@@ -36,12 +36,12 @@ public class AllocationEventListener {
     @WithSpan(value = "AllocationEventListener#handleVehicleExit", kind = SpanKind.CONSUMER)
     public void handleVehicleExit(VehicleExitedEvent event) {
 
-        log.info("Received VehicleExitedEvent: vehicleNumber={} exitTime={}",
+        log.debug("Received VehicleExitedEvent: vehicleNumber={} exitTime={}",
                 event.vehicleNumber(), event.exitTime());
 
         slotAllocationService.handleVehicleExit(event);
 
-        log.info("Processed VehicleExitedEvent for vehicleNumber={}", event.vehicleNumber());
+        log.debug("Processed VehicleExitedEvent for vehicleNumber={}", event.vehicleNumber());
 
     }
 
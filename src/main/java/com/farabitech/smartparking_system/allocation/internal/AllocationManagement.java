@@ -1,9 +1,72 @@
 package com.farabitech.smartparking_system.allocation.internal;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutImportDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotAvailabilityDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotStateDTO;
+import com.farabitech.smartparking_system.allocation.internal.service.FacilityShards;
+import com.farabitech.smartparking_system.allocation.internal.layout.FacilityLayoutLoader;
+import com.farabitech.smartparking_system.allocation.internal.layout.FacilityLayoutParser;
+import com.farabitech.smartparking_system.allocation.internal.service.OccupancyTracker;
+import com.farabitech.smartparking_system.allocation.internal.service.ReservationService;
 
 @Slf4j
 @Service
-public class AllocationManagement {
+public class AllocationManagement implements AllocationSPI {
+
+    private final OccupancyTracker occupancyTracker;
+    private final FacilityShards shards;
+    private final FacilityLayoutParser layoutParser;
+    private final FacilityLayoutLoader layoutLoader;
+    private final ReservationService reservationService;
+
+    public AllocationManagement(OccupancyTracker occupancyTracker, FacilityShards shards,
+                                FacilityLayoutParser layoutParser, FacilityLayoutLoader layoutLoader,
+                                ReservationService reservationService) {
+        this.occupancyTracker = occupancyTracker;
+        this.shards = shards;
+        this.layoutParser = layoutParser;
+        this.layoutLoader = layoutLoader;
+        this.reservationService = reservationService;
+    }
+
+    @Override
+    public OccupancyDTO getOccupancy() {
+        return occupancyTracker.snapshot();
+    }
+
+    @Override
+    public List<SlotStateDTO> getSlotStates() {
+        return shards.shards().stream()
+                .flatMap(shard -> shard.index().slots().stream()
+                        .map(slot -> new SlotStateDTO(shard.facilityId(), slot.slotCode(), slot.zone(), slot.occupied())))
+                .toList();
+    }
+
+    @Override
+    public LayoutImportDTO importLayout(String layout, LayoutFormat format) {
+        return layoutLoader.apply(layoutParser.parse(layout, format));
+    }
+
+    @Override
+    public ReservationDTO reserve(String facilityId, String vehicleNumber, LocalDateTime from, LocalDateTime to) {
+        return reservationService.reserve(facilityId, vehicleNumber, from, to);
+    }
+
+    @Override
+    public ReservationDTO cancelReservation(Long id) {
+        return reservationService.cancel(id);
+    }
+
+    @Override
+    public SlotAvailabilityDTO getAvailableSlots(String facilityId, LocalDateTime from, LocalDateTime to) {
+        return reservationService.availableSlots(facilityId, from, to);
+    }
 }
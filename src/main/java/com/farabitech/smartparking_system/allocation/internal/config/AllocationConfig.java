@@ -0,0 +1,11 @@
+package com.farabitech.smartparking_system.allocation.internal.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({AllocationProperties.class, ReservationProperties.class})
+class AllocationConfig {
+}
@@ -0,0 +1,38 @@
+package com.farabitech.smartparking_system.allocation.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuning of the in-memory slot allocator, bound from {@code smartparking.allocation.*}.
+ *
+ * @param mode           {@code sequential} fills zones in order, {@code striped} spreads concurrent entries
+ *                       across stripes so they do not all race for the head of the same free list,
+ *                       {@code nearest-gate} gives each entry the free slot nearest to its gate
+ * @param stripesPerZone number of free lists each zone is split into in {@code striped} mode
+ * @param initialSlots   number of slots seeded into each facility that has none at startup
+ * @param facilities     facilities this node allocates for, each owned by its own single-writer shard;
+ *                       facilities found in the slot table are served as well
+ * @param layout         facility layout ({@code .csv}, otherwise YAML) applied at startup instead of seeding
+ *                       {@code initialSlots}; see {@code LayoutFormat}
+ * @param gates          per facility, the slot code nearest to each entry gate, for {@code nearest-gate} mode;
+ *                       entries through other gates are allocated in slot table order
+ */
+@ConfigurationProperties("smartparking.allocation")
+public record AllocationProperties(@DefaultValue("sequential") AllocationMode mode,
+                                   @DefaultValue("4") int stripesPerZone,
+                                   @DefaultValue("3") int initialSlots,
+                                   @DefaultValue("main") List<String> facilities,
+                                   Resource layout,
+                                   @DefaultValue Map<String, Map<String, String>> gates) {
+
+    public enum AllocationMode {
+        SEQUENTIAL,
+        STRIPED,
+        NEAREST_GATE
+    }
+}
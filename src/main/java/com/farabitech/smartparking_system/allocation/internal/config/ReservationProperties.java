@@ -0,0 +1,20 @@
+package com.farabitech.smartparking_system.allocation.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Advance reservations, bound from {@code smartparking.allocation.reservations.*}.
+ *
+ * @param maxDuration   longest reservation accepted
+ * @param holdAhead     how long before a reservation starts its slot is kept out of regular allocation, and
+ *                      the reserved vehicle is already given it on entry
+ * @param pruneInterval how often ended reservations are dropped from the calendars and marked expired
+ */
+@ConfigurationProperties("smartparking.allocation.reservations")
+public record ReservationProperties(@DefaultValue("24h") Duration maxDuration,
+                                    @DefaultValue("15m") Duration holdAhead,
+                                    @DefaultValue("5m") Duration pruneInterval) {
+}
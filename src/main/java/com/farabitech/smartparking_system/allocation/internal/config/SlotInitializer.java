@@ -1,23 +1,67 @@
 package com.farabitech.smartparking_system.allocation.internal.config;
 
-import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.internal.layout.FacilityLayout;
+import com.farabitech.smartparking_system.allocation.internal.layout.FacilityLayoutLoader;
+import com.farabitech.smartparking_system.allocation.internal.layout.FacilityLayoutParser;
 import com.farabitech.smartparking_system.allocation.internal.repository.SlotRepository;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.farabitech.smartparking_system.common.facility.Facilities;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Configuration
 @RequiredArgsConstructor
 class SlotInitializer {
 
+    private static final int SLOTS_PER_ZONE = 100;
+
     private final SlotRepository repo;
+    private final FacilityLayoutParser layoutParser;
+    private final FacilityLayoutLoader layoutLoader;
+    private final AllocationProperties properties;
 
     @PostConstruct
-    void init() {
-        if (repo.count() == 0) {
-            repo.save(new Slot(null, "A1", true, null));
-            repo.save(new Slot(null, "A2", true, null));
-            repo.save(new Slot(null, "A3", true, null));
+    void init() throws IOException {
+        repo.assignUnsetFacility(Facilities.DEFAULT);
+
+        Resource layout = properties.layout();
+        if (layout != null) {
+            LayoutFormat format = layout.getFilename() != null && layout.getFilename().endsWith(".csv")
+                    ? LayoutFormat.CSV : LayoutFormat.YAML;
+            layoutLoader.apply(layoutParser.parse(layout.getContentAsString(StandardCharsets.UTF_8), format));
+            return;
+        }
+
+        FacilityLayout.Builder seed = FacilityLayout.builder();
+        boolean seeding = false;
+        for (String facilityId : properties.facilities()) {
+            if (repo.countByFacilityId(facilityId) == 0 && properties.initialSlots() > 0) {
+                for (int i = 0; i < properties.initialSlots(); i++) {
+                    seed.slot(facilityId, slotCode(i));
+                }
+                seeding = true;
+            }
+        }
+        if (seeding) {
+            layoutLoader.apply(seed.build());
+        } else {
+            layoutLoader.reload();
+        }
+    }
+
+    /**
+     * A1..A100, B1..B100, ..., Z100, AA1, ...
+     */
+    static String slotCode(int index) {
+        StringBuilder zone = new StringBuilder();
+        for (int z = index / SLOTS_PER_ZONE; z >= 0; z = z / 26 - 1) {
+            zone.insert(0, (char) ('A' + z % 26));
         }
+        return zone.toString() + (index % SLOTS_PER_ZONE + 1);
     }
 }
@@ -0,0 +1,70 @@
+package com.farabitech.smartparking_system.allocation.internal.layout;
+
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidLayoutException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Slot codes per facility, in layout order. Built with {@link Builder}, which rejects a slot code
+ * listed twice in the same facility.
+ */
+public record FacilityLayout(Map<String, List<String>> slotCodes) {
+
+    public FacilityLayout {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        slotCodes.forEach((facilityId, codes) -> copy.put(facilityId, List.copyOf(codes)));
+        slotCodes = Collections.unmodifiableMap(copy);
+    }
+
+    public int size() {
+        return slotCodes.values().stream().mapToInt(List::size).sum();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, List<String>> slotCodes = new LinkedHashMap<>();
+        private final Map<String, Set<String>> seen = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder slot(String facilityId, String slotCode) {
+            if (facilityId == null || facilityId.isBlank()) {
+                throw new InvalidLayoutException("Slot " + slotCode + " has no facility");
+            }
+            if (slotCode == null || slotCode.isBlank()) {
+                throw new InvalidLayoutException("Facility " + facilityId + " has a slot without a code");
+            }
+            if (!seen.computeIfAbsent(facilityId, id -> new HashSet<>()).add(slotCode)) {
+                throw new InvalidLayoutException("Slot " + slotCode + " is listed twice in facility " + facilityId);
+            }
+            slotCodes.computeIfAbsent(facilityId, id -> new ArrayList<>()).add(slotCode);
+            return this;
+        }
+
+        /**
+         * Declares a facility even if it ends up with no slots, which empties it on import.
+         */
+        public Builder facility(String facilityId) {
+            if (facilityId == null || facilityId.isBlank()) {
+                throw new InvalidLayoutException("Facility without an id");
+            }
+            slotCodes.computeIfAbsent(facilityId, id -> new ArrayList<>());
+            return this;
+        }
+
+        public FacilityLayout build() {
+            return new FacilityLayout(slotCodes);
+        }
+    }
+}
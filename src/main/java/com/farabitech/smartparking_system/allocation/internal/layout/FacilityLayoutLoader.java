@@ -0,0 +1,100 @@
+package com.farabitech.smartparking_system.allocation.internal.layout;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.internal.repository.SlotBatchRepository;
+import com.farabitech.smartparking_system.allocation.internal.repository.SlotBatchRepository.SlotRow;
+import com.farabitech.smartparking_system.allocation.internal.repository.SlotRepository;
+import com.farabitech.smartparking_system.allocation.internal.service.FacilityShards;
+import com.farabitech.smartparking_system.allocation.internal.service.OccupancyTracker;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutImportDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a {@link FacilityLayout} to the slot table as a diff: for each facility in the layout, slot codes
+ * it does not have yet are inserted and free slots it no longer lists are deleted, all with JDBC batches in
+ * one transaction. Slots that stay are not touched, so re-importing an unchanged layout writes nothing.
+ * <p>
+ * Once committed, the facility shards and occupancy counters are rebuilt from the table.
+ */
+@Slf4j
+@Service
+public class FacilityLayoutLoader {
+
+    private final SlotBatchRepository batchRepository;
+    private final SlotRepository slotRepository;
+    private final FacilityShards shards;
+    private final OccupancyTracker occupancyTracker;
+    private final TransactionTemplate transactions;
+
+    public FacilityLayoutLoader(SlotBatchRepository batchRepository, SlotRepository slotRepository,
+                                FacilityShards shards, OccupancyTracker occupancyTracker,
+                                TransactionTemplate transactions) {
+        this.batchRepository = batchRepository;
+        this.slotRepository = slotRepository;
+        this.shards = shards;
+        this.occupancyTracker = occupancyTracker;
+        this.transactions = transactions;
+    }
+
+    public synchronized LayoutImportDTO apply(FacilityLayout layout) {
+        long began = System.nanoTime();
+        Changes changes = transactions.execute(status -> write(layout));
+        reload();
+
+        Duration took = Duration.ofNanos(System.nanoTime() - began);
+        int written = changes.inserted() + changes.removed();
+        long rowsPerSecond = took.isZero() ? written : Math.round(written / (took.toNanos() / 1e9));
+        LayoutImportDTO result = new LayoutImportDTO(List.copyOf(layout.slotCodes().keySet()), layout.size(),
+                changes.inserted(), changes.removed(), changes.retained(), took.toMillis(), rowsPerSecond);
+
+        log.info("Facility layout applied: facilities={} slots={} inserted={} removed={} retained={} took={}ms rowsPerSecond={}",
+                result.facilities(), result.slots(), result.inserted(), result.removed(), result.retained(),
+                result.durationMillis(), result.rowsPerSecond());
+        return result;
+    }
+
+    /**
+     * Rebuilds the in-memory allocation state from the slot table.
+     */
+    public void reload() {
+        List<Slot> slots = slotRepository.findAll();
+        shards.rebuild(slots);
+        occupancyTracker.rebuild(slots);
+    }
+
+    private Changes write(FacilityLayout layout) {
+        int inserted = 0;
+        int removed = 0;
+        int retained = 0;
+        for (Map.Entry<String, List<String>> facility : layout.slotCodes().entrySet()) {
+            Map<String, SlotRow> existing = new HashMap<>();
+            batchRepository.findByFacility(facility.getKey()).forEach(row -> existing.put(row.slotCode(), row));
+
+            List<String> missing = new ArrayList<>();
+            for (String slotCode : facility.getValue()) {
+                if (existing.remove(slotCode) == null) {
+                    missing.add(slotCode);
+                }
+            }
+            // whatever is left in existing is no longer in the layout
+            List<Long> obsolete = existing.values().stream().filter(SlotRow::available).map(SlotRow::id).toList();
+            int deleted = batchRepository.deleteFree(obsolete);
+
+            inserted += batchRepository.insertFree(facility.getKey(), missing);
+            removed += deleted;
+            retained += existing.size() - deleted;
+        }
+        return new Changes(inserted, removed, retained);
+    }
+
+    private record Changes(int inserted, int removed, int retained) {
+    }
+}
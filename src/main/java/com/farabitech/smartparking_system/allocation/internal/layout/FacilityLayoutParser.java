@@ -0,0 +1,128 @@
+package com.farabitech.smartparking_system.allocation.internal.layout;
+
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidLayoutException;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the layout formats described on {@link LayoutFormat}.
+ */
+@Component
+public class FacilityLayoutParser {
+
+    private static final String CSV_HEADER = "facility,level,zone,slot";
+
+    private final ObjectMapper objectMapper;
+
+    public FacilityLayoutParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public FacilityLayout parse(String layout, LayoutFormat format) {
+        if (layout == null || layout.isBlank()) {
+            throw new InvalidLayoutException("Layout is empty");
+        }
+        return switch (format) {
+            case CSV -> parseCsv(layout);
+            case YAML -> parseYaml(layout);
+        };
+    }
+
+    private FacilityLayout parseCsv(String layout) {
+        FacilityLayout.Builder builder = FacilityLayout.builder();
+        String[] lines = layout.split("\\R");
+        boolean header = false;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (!header) {
+                if (!line.replace(" ", "").equalsIgnoreCase(CSV_HEADER)) {
+                    throw new InvalidLayoutException("Line " + (i + 1) + ": expected header " + CSV_HEADER);
+                }
+                header = true;
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != 4) {
+                throw new InvalidLayoutException("Line " + (i + 1) + ": expected 4 columns, found " + columns.length);
+            }
+            String slot = columns[3].strip();
+            if (slot.isEmpty()) {
+                throw new InvalidLayoutException("Line " + (i + 1) + ": slot is required");
+            }
+            builder.slot(columns[0].strip(), slotCode(columns[1], columns[2], slot));
+        }
+        return builder.build();
+    }
+
+    private FacilityLayout parseYaml(String layout) {
+        LayoutFile file;
+        try {
+            Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(layout);
+            file = objectMapper.convertValue(document, LayoutFile.class);
+        } catch (YAMLException | IllegalArgumentException e) {
+            throw new InvalidLayoutException("Layout is not valid YAML: " + e.getMessage(), e);
+        }
+        if (file == null || file.facilities() == null) {
+            throw new InvalidLayoutException("Layout has no facilities");
+        }
+
+        FacilityLayout.Builder builder = FacilityLayout.builder();
+        for (FacilityEntry facility : file.facilities()) {
+            builder.facility(facility.id());
+            Stream.concat(
+                    nullToEmpty(facility.zones()).stream().map(zone -> new LevelEntry(null, List.of(zone))),
+                    nullToEmpty(facility.levels()).stream()
+            ).forEach(level -> nullToEmpty(level.zones()).forEach(zone -> {
+                if (zone.slots() < 0) {
+                    throw new InvalidLayoutException("Zone " + zone.name() + " of facility " + facility.id() +
+                            " has a negative slot count");
+                }
+                int width = Math.max(3, String.valueOf(zone.slots()).length());
+                for (int number = 1; number <= zone.slots(); number++) {
+                    builder.slot(facility.id(), slotCode(level.name(), zone.name(), pad(number, width)));
+                }
+            }));
+        }
+        return builder.build();
+    }
+
+    private static String slotCode(String level, String zone, String slot) {
+        return Stream.of(level, zone, slot)
+                .filter(part -> part != null && !part.isBlank())
+                .map(String::strip)
+                .collect(Collectors.joining("-"));
+    }
+
+    private static String pad(int number, int width) {
+        String digits = String.valueOf(number);
+        return "0".repeat(width - digits.length()) + digits;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    record LayoutFile(List<FacilityEntry> facilities) {
+    }
+
+    record FacilityEntry(String id, List<LevelEntry> levels, List<ZoneEntry> zones) {
+    }
+
+    record LevelEntry(String name, List<ZoneEntry> zones) {
+    }
+
+    record ZoneEntry(String name, int slots) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.farabitech.smartparking_system.allocation.internal.model;
+
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus;
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_reservation_status_ends", columnList = "status, endsAt"))
+public class Reservation {
+    @Id
+    @PooledSequenceId(name = "reservation_seq")
+    private Long id;
+    private String facilityId;
+    private Long slotId;
+    private String slotCode;
+    private String vehicleNumber;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+}
@@ -1,8 +1,12 @@
 package com.farabitech.smartparking_system.allocation.internal.model;
 
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,11 +15,23 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_slot_facility", columnList = "facilityId"))
 public class Slot {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @PooledSequenceId(name = "slot_seq")
     private Long id;
     private String slotCode;//A1,B1,C1 etc.
     private boolean available;
     private String vehicleNumber; // optional (for tracking allocation)
+    private String facilityId;
+    @Version
+    private long version;
+
+    public Slot(Long id, String slotCode, boolean available, String vehicleNumber) {
+        this(id, slotCode, available, vehicleNumber, Facilities.DEFAULT);
+    }
+
+    public Slot(Long id, String slotCode, boolean available, String vehicleNumber, String facilityId) {
+        this(id, slotCode, available, vehicleNumber, facilityId, 0L);
+    }
 }
@@ -0,0 +1,45 @@
+package com.farabitech.smartparking_system.allocation.internal.repository;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Reservation;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    List<Reservation> findByStatusInAndEndsAtAfter(Collection<ReservationStatus> statuses, LocalDateTime time);
+
+    /**
+     * Marks the booking of the slot starting at {@code startsAt} as claimed, if it is still booked.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Reservation r " +
+            "set r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.CLAIMED " +
+            "where r.slotId = :slotId and r.startsAt = :startsAt " +
+            "and r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.BOOKED")
+    int claim(@Param("slotId") Long slotId, @Param("startsAt") LocalDateTime startsAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Reservation r " +
+            "set r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.CANCELLED " +
+            "where r.id = :id " +
+            "and r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.BOOKED")
+    int cancel(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Reservation r " +
+            "set r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.EXPIRED " +
+            "where r.endsAt <= :time " +
+            "and r.status = com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus.BOOKED")
+    int expireEndedBefore(@Param("time") LocalDateTime time);
+}
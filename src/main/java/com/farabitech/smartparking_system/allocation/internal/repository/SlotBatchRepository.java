@@ -0,0 +1,82 @@
+package com.farabitech.smartparking_system.allocation.internal.repository;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for bulk slot changes, bypassing the persistence context: tens of thousands of
+ * managed {@link Slot} entities would cost more in dirty checking than the inserts themselves.
+ * <p>
+ * Ids still come from Hibernate's own generator for {@link Slot}, so they share its pooled sequence
+ * blocks with rows inserted through JPA. Must be called inside a transaction.
+ */
+@Repository
+public class SlotBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SlotBatchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<SlotRow> findByFacility(String facilityId) {
+        return jdbc.query("select id, slotCode, available from Slot where facilityId = ?",
+                (resultSet, row) -> new SlotRow(resultSet.getLong(1), resultSet.getString(2), resultSet.getBoolean(3)),
+                facilityId);
+    }
+
+    public int insertFree(String facilityId, List<String> slotCodes) {
+        if (slotCodes.isEmpty()) {
+            return 0;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Slot.class).getGenerator();
+
+        List<Object[]> rows = new ArrayList<>(slotCodes.size());
+        for (String slotCode : slotCodes) {
+            Object id = generator.generate(session, null, null, EventType.INSERT);
+            rows.add(new Object[]{id, slotCode, facilityId});
+        }
+        jdbc.batchUpdate("insert into Slot (id, slotCode, available, vehicleNumber, facilityId, version) " +
+                        "values (?, ?, true, null, ?, 0)", rows, BATCH_SIZE,
+                (statement, row) -> {
+                    statement.setObject(1, row[0]);
+                    statement.setString(2, (String) row[1]);
+                    statement.setString(3, (String) row[2]);
+                });
+        return rows.size();
+    }
+
+    /**
+     * Deletes the slots that are still free; returns how many were.
+     */
+    public int deleteFree(List<Long> ids) {
+        int deleted = 0;
+        for (int[] counts : jdbc.batchUpdate("delete from Slot where id = ? and available = true", ids, BATCH_SIZE,
+                (statement, id) -> statement.setLong(1, id))) {
+            for (int count : counts) {
+                // drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                deleted += count < 0 ? 1 : count;
+            }
+        }
+        return deleted;
+    }
+
+    public record SlotRow(long id, String slotCode, boolean available) {
+    }
+}
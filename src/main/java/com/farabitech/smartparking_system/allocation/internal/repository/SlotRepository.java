@@ -2,6 +2,10 @@ package com.farabitech.smartparking_system.allocation.internal.repository;
 
 import com.farabitech.smartparking_system.allocation.internal.model.Slot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,29 @@ public interface SlotRepository extends JpaRepository<Slot,Long> {
     Optional<Slot> findFirstByAvailableTrue();
 
     Optional<Slot> findByVehicleNumber(String vehicleNumber);
+
+    long countByFacilityId(String facilityId);
+
+    /**
+     * Moves slots written before facilities existed into the given facility.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Slot s set s.facilityId = :facilityId where s.facilityId is null")
+    int assignUnsetFacility(@Param("facilityId") String facilityId);
+
+    /**
+     * Compare-and-set on the row: only succeeds (returns 1) while the slot is still free.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Slot s set s.available = false, s.vehicleNumber = :vehicleNumber, s.version = s.version + 1 " +
+            "where s.id = :id and s.available = true")
+    int claim(@Param("id") Long id, @Param("vehicleNumber") String vehicleNumber);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Slot s set s.available = true, s.vehicleNumber = null, s.version = s.version + 1 " +
+            "where s.id = :id and s.vehicleNumber = :vehicleNumber")
+    int free(@Param("id") Long id, @Param("vehicleNumber") String vehicleNumber);
 }
@@ -0,0 +1,118 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The allocation state of one facility and the single thread that owns it.
+ * <p>
+ * Every change to the shard's {@link SlotIndex} and {@link ReservationCalendar} runs on its writer thread, so the entries and exits of a
+ * facility are applied one after another without locks, and facilities never wait on each other. Callers
+ * hand work over with {@link #call(Function)} and wait for the result, or with {@link #execute(Consumer)}
+ * for follow-ups nobody waits on, such as releasing a slot once its exit committed. Database writes stay
+ * on the caller's thread; the writer only ever touches memory.
+ * <p>
+ * Reads that can live with a slightly stale view, like the slot list behind the live feed's snapshot,
+ * go to {@link #index()} directly.
+ */
+@Slf4j
+public final class FacilityShard {
+
+    private final String facilityId;
+    private final SlotIndex index;
+    private final ReservationCalendar reservations = new ReservationCalendar();
+    private final ThreadPoolExecutor writer;
+    private volatile Thread writerThread;
+
+    FacilityShard(String facilityId, SlotIndex index) {
+        this.facilityId = facilityId;
+        this.index = index;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), this::newWriter);
+    }
+
+    public String facilityId() {
+        return facilityId;
+    }
+
+    public SlotIndex index() {
+        return index;
+    }
+
+    /**
+     * The facility's reservations. Not thread-safe: only use it inside {@link #call(Function)} or
+     * {@link #execute(Consumer)}.
+     */
+    public ReservationCalendar reservations() {
+        return reservations;
+    }
+
+    /**
+     * Runs the operation on the writer thread and returns its result; exceptions are rethrown as they were
+     * thrown. Called from the writer itself, it runs inline.
+     */
+    public <T> T call(Function<SlotIndex, T> operation) {
+        if (Thread.currentThread() == writerThread) {
+            return operation.apply(index);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> operation.apply(index), writer).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the operation behind everything already submitted and returns without waiting.
+     */
+    public void execute(Consumer<SlotIndex> operation) {
+        writer.execute(() -> {
+            try {
+                operation.accept(index);
+            } catch (RuntimeException e) {
+                log.error("Allocation task failed: facilityId={}", facilityId, e);
+            }
+        });
+    }
+
+    void rebuild(Collection<Slot> slots) {
+        call(slotIndex -> {
+            slotIndex.rebuild(slots);
+            return null;
+        });
+    }
+
+    int queued() {
+        return writer.getQueue().size();
+    }
+
+    void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Allocation writer did not drain in time: facilityId={} queued={}", facilityId, queued());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Thread newWriter(Runnable task) {
+        Thread thread = new Thread(task, "allocation-" + facilityId);
+        thread.setDaemon(true);
+        writerThread = thread;
+        return thread;
+    }
+}
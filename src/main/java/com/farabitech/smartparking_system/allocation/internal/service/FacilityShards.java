@@ -0,0 +1,80 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.UnknownFacilityException;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * One {@link FacilityShard} per facility: the configured ones, plus any facility that shows up in the
+ * slot table. Events are routed by their facility id, a missing id meaning {@link Facilities#DEFAULT}.
+ */
+@Slf4j
+@Component
+public class FacilityShards implements DisposableBean {
+
+    private final AllocationProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, FacilityShard> shards = new ConcurrentSkipListMap<>();
+
+    public FacilityShards(AllocationProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        properties.facilities().forEach(facilityId -> create(Facilities.orDefault(facilityId)));
+    }
+
+    public FacilityShard shard(String facilityId) {
+        FacilityShard shard = shards.get(Facilities.orDefault(facilityId));
+        if (shard == null) {
+            throw new UnknownFacilityException(facilityId);
+        }
+        return shard;
+    }
+
+    public Collection<FacilityShard> shards() {
+        return shards.values();
+    }
+
+    public synchronized void rebuild(Collection<Slot> slots) {
+        Map<String, List<Slot>> byFacility = slots.stream()
+                .collect(Collectors.groupingBy(slot -> Facilities.orDefault(slot.getFacilityId()),
+                        TreeMap::new, Collectors.toList()));
+        byFacility.keySet().forEach(this::create);
+        for (FacilityShard shard : shards.values()) {
+            shard.rebuild(byFacility.getOrDefault(shard.facilityId(), List.of()));
+        }
+        log.info("Facility shards rebuilt: facilities={}", shards.keySet());
+    }
+
+    @Override
+    public void destroy() {
+        shards.values().forEach(FacilityShard::shutdown);
+    }
+
+    private FacilityShard create(String facilityId) {
+        return shards.computeIfAbsent(facilityId, id -> {
+            FacilityShard shard = new FacilityShard(id, new SlotIndex(SlotAllocationStrategy.of(properties, id)));
+            Gauge.builder("allocation.shard.queued", shard, FacilityShard::queued)
+                    .tag("facility", id)
+                    .description("Allocation tasks waiting for the facility's writer thread")
+                    .register(registry);
+            Gauge.builder("allocation.reservations.booked", shard, booked -> booked.reservations().size())
+                    .tag("facility", id)
+                    .description("Upcoming and ongoing reservations kept in the facility's calendar")
+                    .register(registry);
+            return shard;
+        });
+    }
+}
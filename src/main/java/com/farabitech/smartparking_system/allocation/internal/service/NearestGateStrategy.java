@@ -0,0 +1,206 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.service.SlotIndex.IndexedSlot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Hands out the free slot nearest to the gate a vehicle enters through.
+ * <p>
+ * Every gate is placed at a slot code (its anchor), and each slot gets a distance rank from it derived
+ * from the slot codes: level first, then zone, then slot number ({@code L1-A-001} is nearer to
+ * {@code L1-A-003} than to {@code L1-B-001}, which is nearer than {@code L2-A-001}). Ranks are computed once
+ * per rebuild. Each gate keeps its own priority queue of free slots ordered by rank, so polling and
+ * offering are O(log n) without any sorting in the database.
+ * <p>
+ * A free slot sits in the queue of every gate. When one gate's entry takes it, it is not searched for in
+ * the other queues: it stays there and is dropped once it reaches their head (lazy deletion). A slot is
+ * never queued twice in the same queue, so offering a released slot only adds it where it is missing.
+ * Entries without a known gate take slots in slot table order.
+ * <p>
+ * The queues are guarded by one lock; in a {@link FacilityShard} only the writer thread takes it.
+ */
+final class NearestGateStrategy implements SlotAllocationStrategy {
+
+    /** Per coordinate difference; larger differences count as this much. */
+    private static final long COORDINATE_RANGE = 10_000;
+    private static final int MAX_COORDINATES = 4;
+
+    private final Map<String, String> anchors;
+    private IndexedSlot[] slots = new IndexedSlot[0];
+    private Map<String, GateQueue> gates = Map.of();
+    private GateQueue inOrder = new GateQueue(new long[0]);
+
+    /**
+     * @param anchors gate id to the slot code nearest that gate
+     */
+    NearestGateStrategy(Map<String, String> anchors) {
+        this.anchors = Map.copyOf(anchors);
+    }
+
+    @Override
+    public synchronized void rebuild(List<IndexedSlot> slots) {
+        IndexedSlot[] rebuilt = slots.toArray(new IndexedSlot[0]);
+        long[][] coordinates = new long[rebuilt.length][];
+        long[] order = new long[rebuilt.length];
+        for (IndexedSlot slot : rebuilt) {
+            coordinates[slot.position()] = coordinates(slot.slotCode());
+            order[slot.position()] = slot.position();
+        }
+
+        Map<String, GateQueue> queues = new HashMap<>();
+        anchors.forEach((gateId, anchor) -> {
+            long[] anchorCoordinates = coordinates(anchor);
+            long[] ranks = new long[rebuilt.length];
+            for (int i = 0; i < rebuilt.length; i++) {
+                ranks[i] = distance(anchorCoordinates, coordinates[i]);
+            }
+            queues.put(gateId, new GateQueue(ranks));
+        });
+
+        this.slots = rebuilt;
+        this.gates = queues;
+        this.inOrder = new GateQueue(order);
+        for (IndexedSlot slot : rebuilt) {
+            if (!slot.occupied()) {
+                offerToAll(slot);
+            }
+        }
+    }
+
+    @Override
+    public synchronized IndexedSlot poll(String vehicleNumber, String gateId) {
+        GateQueue queue = gateId == null ? inOrder : gates.getOrDefault(gateId, inOrder);
+        return queue.poll();
+    }
+
+    @Override
+    public synchronized void offer(IndexedSlot slot) {
+        int position = slot.position();
+        if (position < slots.length && slots[position] == slot) {
+            offerToAll(slot);
+        }
+    }
+
+    @Override
+    public void remove(IndexedSlot slot) {
+        // occupied now, so every queue drops it when it comes up
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "nearest-gate(gates=" + gates.keySet() + ")";
+    }
+
+    private void offerToAll(IndexedSlot slot) {
+        inOrder.offer(slot);
+        for (GateQueue queue : gates.values()) {
+            queue.offer(slot);
+        }
+    }
+
+    /**
+     * Coordinates of a slot code, most significant first: one per {@code '-'} separated part, or zone and
+     * number for short codes ({@code L2-B-017 -> [2, 2, 17]}, {@code A12 -> [1, 12]}). A part with digits
+     * counts by its number, a part of letters by its position in the alphabet.
+     */
+    static long[] coordinates(String slotCode) {
+        List<String> parts = new ArrayList<>(MAX_COORDINATES);
+        if (slotCode == null || slotCode.isEmpty()) {
+            return new long[0];
+        }
+        if (slotCode.indexOf('-') > 0) {
+            for (String part : slotCode.split("-")) {
+                parts.add(part);
+            }
+        } else {
+            String zone = SlotIndex.zoneOf(slotCode);
+            parts.add(zone);
+            if (zone.length() < slotCode.length()) {
+                parts.add(slotCode.substring(zone.length()));
+            }
+        }
+
+        long[] coordinates = new long[Math.min(parts.size(), MAX_COORDINATES)];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = coordinate(parts.get(i));
+        }
+        return coordinates;
+    }
+
+    /**
+     * Orders slots by their difference from the anchor in the most significant coordinate, then the next one,
+     * and so on. A coordinate one of them lacks counts as far away.
+     */
+    static long distance(long[] anchor, long[] slot) {
+        int length = Math.max(anchor.length, slot.length);
+        long distance = 0;
+        for (int i = 0; i < MAX_COORDINATES; i++) {
+            long difference = 0;
+            if (i < length) {
+                difference = i < anchor.length && i < slot.length
+                        ? Math.min(Math.abs(anchor[i] - slot[i]), COORDINATE_RANGE - 1)
+                        : COORDINATE_RANGE - 1;
+            }
+            distance = distance * COORDINATE_RANGE + difference;
+        }
+        return distance;
+    }
+
+    private static long coordinate(String part) {
+        long digits = 0;
+        boolean hasDigits = false;
+        long letters = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (Character.isDigit(c)) {
+                digits = Math.min(digits * 10 + (c - '0'), COORDINATE_RANGE);
+                hasDigits = true;
+            } else if (Character.isLetter(c)) {
+                letters = Math.min(letters * 26 + (Character.toUpperCase(c) - 'A' + 1), COORDINATE_RANGE);
+            }
+        }
+        return hasDigits ? digits : letters;
+    }
+
+    /**
+     * Free slots by rank, nearest first, ties in slot table order.
+     */
+    private static final class GateQueue {
+
+        private final long[] ranks;
+        private final boolean[] queued;
+        private final PriorityQueue<IndexedSlot> free;
+
+        private GateQueue(long[] ranks) {
+            this.ranks = ranks;
+            this.queued = new boolean[ranks.length];
+            this.free = new PriorityQueue<>(Math.max(1, ranks.length), (a, b) -> {
+                int byRank = Long.compare(ranks[a.position()], ranks[b.position()]);
+                return byRank != 0 ? byRank : Integer.compare(a.position(), b.position());
+            });
+        }
+
+        private IndexedSlot poll() {
+            IndexedSlot slot;
+            while ((slot = free.poll()) != null) {
+                queued[slot.position()] = false;
+                if (!slot.occupied()) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+
+        private void offer(IndexedSlot slot) {
+            if (!queued[slot.position()]) {
+                queued[slot.position()] = true;
+                free.offer(slot);
+            }
+        }
+    }
+}
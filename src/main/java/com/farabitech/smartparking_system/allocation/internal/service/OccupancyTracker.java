@@ -0,0 +1,154 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live slot occupancy per facility and zone, so "how full is the facility" never needs a count query.
+ * <p>
+ * Seeded from the {@link Slot} table at startup and moved by the allocation service once an entry or
+ * exit commits. Each zone keeps striped {@link LongAdder} counters, so concurrent gates update them
+ * without contending on a single cache line; readers sum them, which is cheap at the handful of zones
+ * a facility has. A snapshot is not atomic across zones, but every zone is consistent on its own
+ * within the updates in flight.
+ */
+@Slf4j
+@Component
+public class OccupancyTracker {
+
+    private final MeterRegistry registry;
+    private final Map<String, FacilityCounters> facilities = new ConcurrentHashMap<>();
+
+    public OccupancyTracker(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public synchronized void rebuild(Collection<Slot> slots) {
+        facilities.values().forEach(facility -> facility.zones.values().forEach(ZoneCounters::reset));
+        for (Slot slot : slots) {
+            ZoneCounters counters = zone(slot.getFacilityId(), SlotIndex.zoneOf(slot.getSlotCode()));
+            counters.total.increment();
+            if (!slot.isAvailable()) {
+                counters.occupied.increment();
+            }
+        }
+        OccupancyDTO snapshot = snapshot();
+        log.info("Occupancy rebuilt: slots={} occupied={} facilities={}",
+                snapshot.totalSlots(), snapshot.occupiedSlots(), snapshot.facilities().keySet());
+    }
+
+    public void occupied(String facilityId, String zone) {
+        zone(facilityId, zone).occupied.increment();
+    }
+
+    public void freed(String facilityId, String zone) {
+        zone(facilityId, zone).occupied.decrement();
+    }
+
+    public OccupancyDTO snapshot() {
+        Map<String, OccupancyDTO.FacilityOccupancy> byFacility = new TreeMap<>();
+        long total = 0;
+        long occupied = 0;
+        for (Map.Entry<String, FacilityCounters> facility : facilities.entrySet()) {
+            Map<String, OccupancyDTO.ZoneOccupancy> byZone = new TreeMap<>();
+            long facilityTotal = 0;
+            long facilityOccupied = 0;
+            for (Map.Entry<String, ZoneCounters> entry : facility.getValue().zones.entrySet()) {
+                long zoneTotal = entry.getValue().total.sum();
+                long zoneOccupied = entry.getValue().occupied.sum();
+                byZone.put(entry.getKey(), new OccupancyDTO.ZoneOccupancy(zoneTotal, zoneOccupied, zoneTotal - zoneOccupied));
+                facilityTotal += zoneTotal;
+                facilityOccupied += zoneOccupied;
+            }
+            byFacility.put(facility.getKey(), new OccupancyDTO.FacilityOccupancy(
+                    facilityTotal, facilityOccupied, facilityTotal - facilityOccupied, byZone));
+            total += facilityTotal;
+            occupied += facilityOccupied;
+        }
+        return new OccupancyDTO(total, occupied, total - occupied, byFacility);
+    }
+
+    private ZoneCounters zone(String facilityId, String zone) {
+        String facility = Facilities.orDefault(facilityId);
+        FacilityCounters counters = facilities.get(facility);
+        if (counters == null) {
+            counters = facilities.computeIfAbsent(facility, this::register);
+        }
+        ZoneCounters zoneCounters = counters.zones.get(zone);
+        return zoneCounters != null ? zoneCounters : counters.zones.computeIfAbsent(zone, z -> register(facility, z));
+    }
+
+    private FacilityCounters register(String facility) {
+        FacilityCounters counters = new FacilityCounters();
+        for (State state : State.values()) {
+            Gauge.builder("allocation.occupancy.facility", counters, c -> c.value(state))
+                    .tag("facility", facility)
+                    .tag("state", state.name().toLowerCase())
+                    .description("Slots per facility and state")
+                    .register(registry);
+        }
+        return counters;
+    }
+
+    private ZoneCounters register(String facility, String zone) {
+        ZoneCounters counters = new ZoneCounters();
+        for (State state : State.values()) {
+            Gauge.builder("allocation.occupancy.slots", counters, c -> c.value(state))
+                    .tag("facility", facility)
+                    .tag("zone", zone)
+                    .tag("state", state.name().toLowerCase())
+                    .description("Slots per zone and state")
+                    .register(registry);
+        }
+        return counters;
+    }
+
+    private enum State {
+        TOTAL,
+        OCCUPIED,
+        FREE
+    }
+
+    private static final class FacilityCounters {
+
+        private final Map<String, ZoneCounters> zones = new ConcurrentHashMap<>();
+
+        private long value(State state) {
+            long sum = 0;
+            for (ZoneCounters counters : zones.values()) {
+                sum += counters.value(state);
+            }
+            return sum;
+        }
+    }
+
+    private static final class ZoneCounters {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder occupied = new LongAdder();
+
+        private long value(State state) {
+            return switch (state) {
+                case TOTAL -> total.sum();
+                case OCCUPIED -> occupied.sum();
+                case FREE -> total.sum() - occupied.sum();
+            };
+        }
+
+        private void reset() {
+            total.reset();
+            occupied.reset();
+        }
+    }
+}
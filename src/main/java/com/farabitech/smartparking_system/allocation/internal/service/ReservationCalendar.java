@@ -0,0 +1,201 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.service.SlotIndex.IndexedSlot;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidReservationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The reservations of one facility, indexed for the questions allocation asks: is this slot held for a
+ * booking right now, and which slots have no booking between {@code from} and {@code to}.
+ * <p>
+ * Every slot has its own calendar of bookings ordered by start. The bookings of a slot never overlap, so
+ * the only one that can collide with a window is the last one starting before the window ends: one
+ * {@code floorEntry} per lookup. All bookings of the facility are also kept in one set ordered by start.
+ * No booking is longer than the longest one added, so the bookings overlapping {@code [from, to)} all start
+ * in {@code [from - longest, to)}, and finding them is a range view of that set: O(log n + k) for the k
+ * bookings starting in the range instead of a scan of every booking.
+ * <p>
+ * Like the {@link SlotIndex}, a calendar belongs to a {@link FacilityShard} and is only touched on its
+ * writer thread.
+ */
+public class ReservationCalendar {
+
+    private static final Comparator<Booking> BY_START = Comparator.comparing(Booking::from)
+            .thenComparing(Booking::slotId);
+
+    private final Map<Long, NavigableMap<LocalDateTime, Booking>> bySlot = new HashMap<>();
+    private final NavigableSet<Booking> byStart = new TreeSet<>(BY_START);
+    private final Map<String, List<Booking>> byVehicle = new HashMap<>();
+    // only ever grows, which keeps the range conservative once a long booking is gone
+    private Duration longest = Duration.ZERO;
+
+    /**
+     * Books the first slot, in slot table order, that has no booking overlapping the window.
+     *
+     * @throws InvalidReservationException if the vehicle already has a booking overlapping the window
+     */
+    public Optional<Booking> book(List<IndexedSlot> slots, String vehicleNumber, LocalDateTime from, LocalDateTime to) {
+        for (Booking booking : byVehicle.getOrDefault(vehicleNumber, List.of())) {
+            if (booking.overlaps(from, to)) {
+                throw new InvalidReservationException("Vehicle " + vehicleNumber
+                        + " already has a reservation from " + booking.from() + " to " + booking.to());
+            }
+        }
+        Set<Long> booked = bookedSlots(from, to);
+        for (IndexedSlot slot : slots) {
+            if (!booked.contains(slot.id())) {
+                Booking booking = new Booking(slot.id(), slot.slotCode(), vehicleNumber, from, to);
+                add(booking);
+                return Optional.of(booking);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a booking made earlier, such as one loaded from the reservation table. Returns {@code false},
+     * leaving the calendar as it was, if it overlaps another booking of the same slot.
+     */
+    public boolean add(Booking booking) {
+        NavigableMap<LocalDateTime, Booking> calendar = bySlot.computeIfAbsent(booking.slotId(), id -> new TreeMap<>());
+        Map.Entry<LocalDateTime, Booking> previous = calendar.lowerEntry(booking.to());
+        if (previous != null && previous.getValue().to().isAfter(booking.from())) {
+            return false;
+        }
+        calendar.put(booking.from(), booking);
+        byStart.add(booking);
+        byVehicle.computeIfAbsent(booking.vehicleNumber(), vehicle -> new ArrayList<>(1)).add(booking);
+        Duration duration = Duration.between(booking.from(), booking.to());
+        if (duration.compareTo(longest) > 0) {
+            longest = duration;
+        }
+        return true;
+    }
+
+    public boolean remove(Booking booking) {
+        NavigableMap<LocalDateTime, Booking> calendar = bySlot.get(booking.slotId());
+        if (calendar == null || !booking.equals(calendar.get(booking.from()))) {
+            return false;
+        }
+        calendar.remove(booking.from());
+        if (calendar.isEmpty()) {
+            bySlot.remove(booking.slotId());
+        }
+        byStart.remove(booking);
+        List<Booking> vehicleBookings = byVehicle.get(booking.vehicleNumber());
+        vehicleBookings.remove(booking);
+        if (vehicleBookings.isEmpty()) {
+            byVehicle.remove(booking.vehicleNumber());
+        }
+        return true;
+    }
+
+    /**
+     * The slots, out of {@code slots}, that no booking overlaps between {@code from} and {@code to}.
+     */
+    public List<IndexedSlot> availableSlots(List<IndexedSlot> slots, LocalDateTime from, LocalDateTime to) {
+        Set<Long> booked = bookedSlots(from, to);
+        if (booked.isEmpty()) {
+            return slots;
+        }
+        List<IndexedSlot> available = new ArrayList<>(Math.max(0, slots.size() - booked.size()));
+        for (IndexedSlot slot : slots) {
+            if (!booked.contains(slot.id())) {
+                available.add(slot);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * The vehicle's booking that is in force at {@code time}, counting from {@code early} before it starts.
+     */
+    public Optional<Booking> bookingOf(String vehicleNumber, LocalDateTime time, Duration early) {
+        for (Booking booking : byVehicle.getOrDefault(vehicleNumber, List.of())) {
+            if (!booking.from().minus(early).isAfter(time) && booking.to().isAfter(time)) {
+                return Optional.of(booking);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the slot is kept for a booking at {@code time}: from {@code early} before the booking starts
+     * until it ends.
+     */
+    public boolean held(Long slotId, LocalDateTime time, Duration early) {
+        NavigableMap<LocalDateTime, Booking> calendar = bySlot.get(slotId);
+        if (calendar == null) {
+            return false;
+        }
+        Map.Entry<LocalDateTime, Booking> last = calendar.floorEntry(time.plus(early));
+        return last != null && last.getValue().to().isAfter(time);
+    }
+
+    /**
+     * Drops the bookings that ended at or before {@code time} and returns how many there were.
+     */
+    public int prune(LocalDateTime time) {
+        List<Booking> ended = new ArrayList<>();
+        // a booking that ended by then also started before it
+        for (Booking booking : byStart.headSet(probe(time), false)) {
+            if (!booking.to().isAfter(time)) {
+                ended.add(booking);
+            }
+        }
+        ended.forEach(this::remove);
+        return ended.size();
+    }
+
+    public int size() {
+        return byStart.size();
+    }
+
+    private Set<Long> bookedSlots(LocalDateTime from, LocalDateTime to) {
+        if (byStart.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> booked = new HashSet<>();
+        for (Booking booking : byStart.subSet(probe(from.minus(longest)), true, probe(to), false)) {
+            if (booking.to().isAfter(from)) {
+                booked.add(booking.slotId());
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Sorts before every booking starting at {@code time}.
+     */
+    private static Booking probe(LocalDateTime time) {
+        return new Booking(Long.MIN_VALUE, null, null, time, time);
+    }
+
+    /**
+     * A slot booked for a vehicle from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    public record Booking(Long slotId,
+                          String slotCode,
+                          String vehicleNumber,
+                          LocalDateTime from,
+                          LocalDateTime to) {
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return this.from.isBefore(to) && this.to.isAfter(from);
+        }
+    }
+}
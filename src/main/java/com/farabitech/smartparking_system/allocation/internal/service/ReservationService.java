@@ -0,0 +1,217 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.ReservationProperties;
+import com.farabitech.smartparking_system.allocation.internal.model.Reservation;
+import com.farabitech.smartparking_system.allocation.internal.repository.ReservationRepository;
+import com.farabitech.smartparking_system.allocation.internal.service.ReservationCalendar.Booking;
+import com.farabitech.smartparking_system.allocation.internal.service.SlotIndex.IndexedSlot;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidReservationException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.NoSlotAvailableException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.ReservationNotFoundException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.UnknownFacilityException;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotAvailabilityDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Advance reservations. The reservation table is the record; the {@link ReservationCalendar} of each
+ * facility shard is the index every decision is made on, loaded from the table at startup and kept in step
+ * with it the way the {@link SlotIndex} is kept in step with the slot table: changed right away on the
+ * writer thread, and changed back if the transaction rolls back.
+ * <p>
+ * A booking holds its slot from {@code holdAhead} before it starts until it ends, even once its vehicle
+ * has left again.
+ */
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final ReservationRepository repository;
+    private final FacilityShards shards;
+    private final ReservationProperties properties;
+
+    public ReservationService(ReservationRepository repository, FacilityShards shards, ReservationProperties properties) {
+        this.repository = repository;
+        this.shards = shards;
+        this.properties = properties;
+    }
+
+    @Transactional
+    public ReservationDTO reserve(String facilityId, String vehicleNumber, LocalDateTime from, LocalDateTime to) {
+        if (vehicleNumber == null || vehicleNumber.isBlank()) {
+            throw new InvalidReservationException("A reservation needs a vehicle number");
+        }
+        checkWindow(from, to);
+        if (Duration.between(from, to).compareTo(properties.maxDuration()) > 0) {
+            throw new InvalidReservationException("A reservation can last at most " + properties.maxDuration());
+        }
+        if (!to.isAfter(LocalDateTime.now())) {
+            throw new InvalidReservationException("A reservation cannot end in the past");
+        }
+
+        FacilityShard shard = shards.shard(facilityId);
+        Booking booking = shard.call(index -> shard.reservations().book(index.slots(), vehicleNumber, from, to))
+                .orElseThrow(() -> new NoSlotAvailableException("No slot of facility " + shard.facilityId()
+                        + " is free from " + from + " to " + to));
+
+        Reservation reservation = repository.save(new Reservation(null, shard.facilityId(), booking.slotId(),
+                booking.slotCode(), vehicleNumber, from, to, ReservationStatus.BOOKED));
+
+        // the booking is seen by other requests right away, so take it back if the insert is rolled back
+        afterCompletion(committed -> {
+            if (!committed) {
+                shard.execute(index -> shard.reservations().remove(booking));
+            }
+        });
+
+        log.info("Slot reserved: id={} slotCode={} vehicleNumber={} facilityId={} from={} to={}",
+                reservation.getId(), booking.slotCode(), vehicleNumber, shard.facilityId(), from, to);
+        return toDto(reservation, reservation.getStatus());
+    }
+
+    @Transactional
+    public ReservationDTO cancel(Long id) {
+        Reservation reservation = repository.findById(id).orElseThrow(() -> new ReservationNotFoundException(id));
+        if (repository.cancel(id) == 0) {
+            throw new InvalidReservationException("Reservation " + id + " is " + reservation.getStatus()
+                    + " and can no longer be cancelled");
+        }
+
+        FacilityShard shard = shards.shard(reservation.getFacilityId());
+        Booking booking = toBooking(reservation);
+        afterCompletion(committed -> {
+            if (committed) {
+                shard.execute(index -> shard.reservations().remove(booking));
+            }
+        });
+
+        log.info("Reservation cancelled: id={} slotCode={} vehicleNumber={} facilityId={}",
+                id, reservation.getSlotCode(), reservation.getVehicleNumber(), reservation.getFacilityId());
+        return toDto(reservation, ReservationStatus.CANCELLED);
+    }
+
+    public SlotAvailabilityDTO availableSlots(String facilityId, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        FacilityShard shard = shards.shard(facilityId);
+        List<String> slotCodes = shard.call(index -> shard.reservations().availableSlots(index.slots(), from, to)
+                .stream().map(IndexedSlot::slotCode).toList());
+        return new SlotAvailabilityDTO(shard.facilityId(), from, to, slotCodes);
+    }
+
+    /**
+     * The vehicle's booking that lets it into its reserved slot at {@code time}. Only call it on the shard's
+     * writer thread.
+     */
+    Optional<Booking> bookingOf(FacilityShard shard, String vehicleNumber, LocalDateTime time) {
+        return shard.reservations().bookingOf(vehicleNumber, time, properties.holdAhead());
+    }
+
+    /**
+     * Rejects the slots held for a booking at {@code time}, or {@code null} while the facility has no
+     * bookings. Only use it on the shard's writer thread.
+     */
+    Predicate<IndexedSlot> heldAt(FacilityShard shard, LocalDateTime time) {
+        ReservationCalendar calendar = shard.reservations();
+        if (calendar.size() == 0) {
+            return null;
+        }
+        return slot -> calendar.held(slot.id(), time, properties.holdAhead());
+    }
+
+    /**
+     * Records that the booked vehicle entered and was given its slot, as part of the entry's transaction.
+     */
+    void claimed(Booking booking) {
+        repository.claim(booking.slotId(), booking.from());
+    }
+
+    /**
+     * Loads every booking that has not ended into the calendars, claimed ones included: a claimed booking
+     * holds its slot until it ends just like a booked one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = 0;
+        List<Reservation> current = repository.findByStatusInAndEndsAtAfter(
+                List.of(ReservationStatus.BOOKED, ReservationStatus.CLAIMED), LocalDateTime.now());
+        for (Reservation reservation : current) {
+            FacilityShard shard;
+            try {
+                shard = shards.shard(reservation.getFacilityId());
+            } catch (UnknownFacilityException e) {
+                log.warn("Skipping reservation of a facility this node does not serve: id={} facilityId={}",
+                        reservation.getId(), reservation.getFacilityId());
+                continue;
+            }
+            Booking booking = toBooking(reservation);
+            if (shard.call(index -> shard.reservations().add(booking))) {
+                loaded++;
+            } else {
+                log.warn("Skipping reservation overlapping another one of its slot: id={} slotCode={} facilityId={}",
+                        reservation.getId(), reservation.getSlotCode(), reservation.getFacilityId());
+            }
+        }
+        log.info("Reservations loaded: reservations={}", loaded);
+    }
+
+    @Scheduled(initialDelayString = "${smartparking.allocation.reservations.prune-interval:5m}",
+            fixedDelayString = "${smartparking.allocation.reservations.prune-interval:5m}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = repository.expireEndedBefore(now);
+        for (FacilityShard shard : shards.shards()) {
+            shard.execute(index -> shard.reservations().prune(now));
+        }
+        if (expired > 0) {
+            log.info("Reservations expired: reservations={}", expired);
+        }
+    }
+
+    private static void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidReservationException("A reservation window needs a start before its end");
+        }
+    }
+
+    private static Booking toBooking(Reservation reservation) {
+        return new Booking(reservation.getSlotId(), reservation.getSlotCode(), reservation.getVehicleNumber(),
+                reservation.getStartsAt(), reservation.getEndsAt());
+    }
+
+    private static ReservationDTO toDto(Reservation reservation, ReservationStatus status) {
+        return new ReservationDTO(reservation.getId(), reservation.getFacilityId(), reservation.getSlotCode(),
+                reservation.getVehicleNumber(), reservation.getStartsAt(), reservation.getEndsAt(), status);
+    }
+
+    private static void afterCompletion(CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void completed(boolean committed);
+    }
+}
@@ -1,44 +1,155 @@
 package com.farabitech.smartparking_system.allocation.internal.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
+import com.farabitech.smartparking_system.allocation.spi.event.SlotStateChangedEvent;
 import com.farabitech.smartparking_system.allocation.internal.repository.SlotRepository;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Slf4j
 @Service
 public class SlotAllocationService {
 
+    private static final int MAX_CLAIM_ATTEMPTS = 8;
+
     private final SlotRepository slotRepository;
+    private final FacilityShards shards;
+    private final OccupancyTracker occupancyTracker;
+    private final ApplicationEventPublisher events;
+    private final ReservationService reservations;
 
-    public SlotAllocationService(SlotRepository slotRepository) {
+    public SlotAllocationService(SlotRepository slotRepository, FacilityShards shards,
+                                 OccupancyTracker occupancyTracker, ApplicationEventPublisher events,
+                                 ReservationService reservations) {
         this.slotRepository = slotRepository;
+        this.shards = shards;
+        this.occupancyTracker = occupancyTracker;
+        this.events = events;
+        this.reservations = reservations;
     }
 
+    /**
+     * Gives the vehicle a free slot, or its reserved one if it enters during its reservation. Slots held for
+     * other reservations are left alone.
+     */
     public void handleVehicleEntry(VehicleEnteredEvent event) {
+        FacilityShard shard = shards.shard(event.facilityId());
+        String vehicleNumber = event.vehicleNumber();
+        LocalDateTime entryTime = event.entryTime() != null ? event.entryTime() : LocalDateTime.now();
+
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<Allocation> allocated = shard.call(index -> {
+                if (index.allocationOf(vehicleNumber).isPresent()) {
+                    return Optional.empty();
+                }
+                ReservationCalendar.Booking booking = reservations.bookingOf(shard, vehicleNumber, entryTime).orElse(null);
+                if (booking != null) {
+                    Optional<SlotIndex.IndexedSlot> reserved = index.claim(booking.slotId(), vehicleNumber);
+                    if (reserved.isPresent()) {
+                        return Optional.of(new Allocation(reserved.get(), booking));
+                    }
+                    log.warn("Reserved slot {} is taken, allocating another one: vehicleNumber={} facilityId={}",
+                            booking.slotCode(), vehicleNumber, shard.facilityId());
+                }
+                return Optional.of(new Allocation(index.allocate(vehicleNumber, event.gateId(), reservations.heldAt(shard, entryTime))
+                        .orElseThrow(() -> new RuntimeException("🚫 No available slots in facility " + shard.facilityId() + "!")), null));
+            });
+            if (allocated.isEmpty()) {
+                log.warn("Vehicle already holds a slot, ignoring entry: vehicleNumber={} facilityId={}",
+                        vehicleNumber, shard.facilityId());
+                return;
+            }
+            SlotIndex.IndexedSlot slot = allocated.get().slot();
+
+            if (slotRepository.claim(slot.id(), vehicleNumber) == 0) {
+                // taken in the database behind the index's back, keep it out of circulation and try another one
+                log.warn("Slot {} already taken in the database, retrying allocation for vehicleNumber={} facilityId={}",
+                        slot.slotCode(), vehicleNumber, shard.facilityId());
+                // queued ahead of the next attempt's allocation on the same writer
+                shard.execute(index -> index.detach(vehicleNumber));
+                occupancyTracker.occupied(shard.facilityId(), slot.zone());
+                slotStateChanged(shard, slot, true);
+                continue;
+            }
 
-        Slot slot = slotRepository.findFirstByAvailableTrue()
-                .orElseThrow(() -> new RuntimeException("🚫 No available slots!"));
-        slot.setAvailable(false);
-        slot.setVehicleNumber(event.vehicleNumber());
-        slotRepository.save(slot);
+            if (allocated.get().booking() != null) {
+                reservations.claimed(allocated.get().booking());
+            }
 
-        System.out.println("🅿️ Allocated Slot " + slot.getSlotCode() + " to vehicle " + event.vehicleNumber());
+            // the claim is visible to other entries right away, so give it back if the write is rolled back
+            afterCompletion(committed -> {
+                if (committed) {
+                    occupancyTracker.occupied(shard.facilityId(), slot.zone());
+                    slotStateChanged(shard, slot, true);
+                } else {
+                    shard.execute(index -> index.release(vehicleNumber));
+                }
+            });
+
+            log.info(LogMarkers.HIGH_VOLUME, "Slot allocated: slotCode={} vehicleNumber={} facilityId={}",
+                    slot.slotCode(), vehicleNumber, shard.facilityId());
+            return;
+        }
+
+        throw new RuntimeException("🚫 Could not claim a slot for vehicle " + vehicleNumber);
     }
 
     public void handleVehicleExit(VehicleExitedEvent event) {
-        slotRepository.findByVehicleNumber(event.vehicleNumber())
-                .ifPresentOrElse(slot -> {
-                    slot.setAvailable(true); // free the slot
-                    slot.setVehicleNumber(null);
-                    slotRepository.save(slot);
-                    System.out.println("🅿️ Freed Slot " + slot.getSlotCode() + " from vehicle " + event.vehicleNumber());
-                }, () -> {
-                    throw new RuntimeException("🚫 No slot found for vehicle " + event.vehicleNumber());
+        FacilityShard shard = shards.shard(event.facilityId());
+        String vehicleNumber = event.vehicleNumber();
+        SlotIndex.IndexedSlot slot = shard.call(index -> index.allocationOf(vehicleNumber))
+                .orElseThrow(() -> new RuntimeException("🚫 No slot found for vehicle " + vehicleNumber));
+
+        slotRepository.free(slot.id(), vehicleNumber);
+
+        // only hand the slot out again once it is free in the database as well
+        afterCompletion(committed -> {
+            if (committed) {
+                shard.execute(index -> {
+                    if (index.release(vehicleNumber).isPresent()) {
+                        occupancyTracker.freed(shard.facilityId(), slot.zone());
+                        slotStateChanged(shard, slot, false);
+                    }
                 });
+            }
+        });
+
+        log.info(LogMarkers.HIGH_VOLUME, "Slot freed: slotCode={} vehicleNumber={} facilityId={}",
+                slot.slotCode(), vehicleNumber, shard.facilityId());
+    }
+
+    private void slotStateChanged(FacilityShard shard, SlotIndex.IndexedSlot slot, boolean occupied) {
+        events.publishEvent(new SlotStateChangedEvent(shard.facilityId(), slot.slotCode(), slot.zone(), occupied, Instant.now()));
+    }
+
+    private void afterCompletion(CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void completed(boolean committed);
     }
 
+    private record Allocation(SlotIndex.IndexedSlot slot, ReservationCalendar.Booking booking) {
+    }
 
 }
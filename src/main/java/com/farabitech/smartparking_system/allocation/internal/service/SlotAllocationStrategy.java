@@ -0,0 +1,57 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties;
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties.AllocationMode;
+import com.farabitech.smartparking_system.allocation.internal.service.SlotIndex.IndexedSlot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which free slot an entry gets, by keeping the free slots of one {@link SlotIndex} in the order it
+ * hands them out.
+ * <p>
+ * Entries are hints: the index claims a polled slot with a compare-and-set on its occupant and polls again
+ * if it is taken, so a strategy may return slots that were claimed some other way in the meantime. Free
+ * slots are offered back once, when they are released. Implementations must be safe to call from several
+ * threads.
+ */
+public interface SlotAllocationStrategy {
+
+    /**
+     * Starts over with the given slots, in slot table order. The unoccupied ones are free.
+     */
+    void rebuild(List<IndexedSlot> slots);
+
+    /**
+     * Takes the next free slot for a vehicle entering through {@code gateId}, or returns {@code null} when
+     * there is none left. The gate may be {@code null}.
+     */
+    IndexedSlot poll(String vehicleNumber, String gateId);
+
+    /**
+     * Returns a slot that became free.
+     */
+    void offer(IndexedSlot slot);
+
+    /**
+     * Forgets a free slot that was claimed without being polled.
+     */
+    void remove(IndexedSlot slot);
+
+    static SlotAllocationStrategy of(AllocationProperties properties, String facilityId) {
+        Map<String, String> gates = properties.gates() == null ? Map.of() : properties.gates().getOrDefault(facilityId, Map.of());
+        return of(properties.mode(), properties.stripesPerZone(), gates);
+    }
+
+    /**
+     * @param gates gate id to the slot code nearest that gate, used in {@link AllocationMode#NEAREST_GATE} mode
+     */
+    static SlotAllocationStrategy of(AllocationMode mode, int stripesPerZone, Map<String, String> gates) {
+        return switch (mode) {
+            case SEQUENTIAL -> new ZoneStripesStrategy(false, 1);
+            case STRIPED -> new ZoneStripesStrategy(true, stripesPerZone);
+            case NEAREST_GATE -> new NearestGateStrategy(gates);
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties.AllocationMode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * In-memory view of slot availability, rebuilt from the {@link Slot} table at startup.
+ * <p>
+ * Which free slot an entry gets is up to the {@link SlotAllocationStrategy}, which keeps the free slots
+ * in memory, so allocating and freeing a slot never query the database. Each slot is claimed with a
+ * compare-and-set on its occupant, which makes the strategy's free slots plain hints: a stale entry that
+ * loses the race is simply skipped.
+ * <p>
+ * In {@link AllocationMode#SEQUENTIAL} and {@link AllocationMode#STRIPED} mode free slots are kept per
+ * zone (the prefix of the slot code), see {@link ZoneStripesStrategy}; in {@link AllocationMode#NEAREST_GATE}
+ * mode per entry gate, nearest first, see {@link NearestGateStrategy}.
+ * <p>
+ * There is one index per facility, owned by its {@link FacilityShard}.
+ */
+@Slf4j
+public class SlotIndex {
+
+    /** Occupant of a slot that is taken in the database by someone this node does not know about. */
+    static final String UNKNOWN_OCCUPANT = "";
+
+    private final SlotAllocationStrategy strategy;
+    private final Map<String, IndexedSlot> byVehicle = new ConcurrentHashMap<>();
+    private volatile List<IndexedSlot> slots = List.of();
+    private volatile Map<Long, IndexedSlot> byId = Map.of();
+
+    public SlotIndex() {
+        this(AllocationMode.SEQUENTIAL, 1);
+    }
+
+    public SlotIndex(AllocationMode mode, int stripesPerZone) {
+        this(SlotAllocationStrategy.of(mode, stripesPerZone, Map.of()));
+    }
+
+    public SlotIndex(SlotAllocationStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public synchronized void rebuild(Collection<Slot> slots) {
+        List<IndexedSlot> indexed = new ArrayList<>(slots.size());
+        Map<Long, IndexedSlot> ids = new HashMap<>(slots.size() * 2);
+        byVehicle.clear();
+
+        for (Slot slot : slots) {
+            IndexedSlot indexedSlot = new IndexedSlot(slot.getId(), slot.getSlotCode(), zoneOf(slot.getSlotCode()), indexed.size());
+            indexed.add(indexedSlot);
+            ids.put(slot.getId(), indexedSlot);
+
+            if (slot.isAvailable()) {
+                continue;
+            }
+            if (slot.getVehicleNumber() != null) {
+                indexedSlot.occupant.set(slot.getVehicleNumber());
+                byVehicle.put(slot.getVehicleNumber(), indexedSlot);
+            } else {
+                indexedSlot.occupant.set(UNKNOWN_OCCUPANT);
+            }
+        }
+
+        strategy.rebuild(indexed);
+        this.slots = List.copyOf(indexed);
+        this.byId = ids;
+        log.info("Slot index rebuilt: slots={} occupied={} strategy={}", slots.size(), byVehicle.size(), strategy);
+    }
+
+    public Optional<IndexedSlot> allocate(String vehicleNumber) {
+        return allocate(vehicleNumber, null, null);
+    }
+
+    /**
+     * Allocates a free slot for a vehicle entering through {@code gateId} that the {@code skip} predicate
+     * does not reject, such as one held for a reservation. Skipped slots stay free and are offered back.
+     */
+    public Optional<IndexedSlot> allocate(String vehicleNumber, String gateId, Predicate<IndexedSlot> skip) {
+        if (skip == null) {
+            return allocateFree(vehicleNumber, gateId, null);
+        }
+        List<IndexedSlot> skipped = new ArrayList<>();
+        try {
+            return allocateFree(vehicleNumber, gateId, slot -> {
+                if (skip.test(slot)) {
+                    skipped.add(slot);
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            skipped.forEach(strategy::offer);
+        }
+    }
+
+    /**
+     * Claims the given slot for the vehicle if it is free, bypassing the strategy.
+     */
+    public Optional<IndexedSlot> claim(Long slotId, String vehicleNumber) {
+        IndexedSlot slot = byId.get(slotId);
+        if (slot == null || !slot.occupant.compareAndSet(null, vehicleNumber)) {
+            return Optional.empty();
+        }
+        if (byVehicle.putIfAbsent(vehicleNumber, slot) != null) {
+            slot.occupant.set(null);
+            return Optional.empty();
+        }
+        strategy.remove(slot);
+        return Optional.of(slot);
+    }
+
+    private Optional<IndexedSlot> allocateFree(String vehicleNumber, String gateId, Predicate<IndexedSlot> skip) {
+        IndexedSlot slot;
+        while ((slot = strategy.poll(vehicleNumber, gateId)) != null) {
+            if (skip != null && slot.occupant() == null && skip.test(slot)) {
+                continue;
+            }
+            if (slot.occupant.compareAndSet(null, vehicleNumber)) {
+                if (byVehicle.putIfAbsent(vehicleNumber, slot) != null) {
+                    // the same vehicle won a slot concurrently, hand this one back
+                    slot.occupant.set(null);
+                    strategy.offer(slot);
+                    return allocationOf(vehicleNumber);
+                }
+                return Optional.of(slot);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<IndexedSlot> release(String vehicleNumber) {
+        IndexedSlot slot = byVehicle.remove(vehicleNumber);
+        if (slot == null || !slot.replaceOccupant(vehicleNumber, null)) {
+            return Optional.empty();
+        }
+        strategy.offer(slot);
+        return Optional.of(slot);
+    }
+
+    /**
+     * Takes the vehicle's claim off the slot without returning the slot to a free list, for a slot
+     * that turned out to be taken in the database already. It stays out of circulation until the
+     * next {@link #rebuild(Collection)}.
+     */
+    public void detach(String vehicleNumber) {
+        IndexedSlot slot = byVehicle.remove(vehicleNumber);
+        if (slot != null) {
+            slot.replaceOccupant(vehicleNumber, UNKNOWN_OCCUPANT);
+        }
+    }
+
+    public Optional<IndexedSlot> allocationOf(String vehicleNumber) {
+        return Optional.ofNullable(byVehicle.get(vehicleNumber));
+    }
+
+    /**
+     * Every indexed slot, in slot table order. Occupancy is read live, so it may include claims whose
+     * transaction has not committed yet.
+     */
+    public List<IndexedSlot> slots() {
+        return slots;
+    }
+
+    /**
+     * Slots without an occupant, counted live.
+     */
+    public int freeSlots() {
+        int free = 0;
+        for (IndexedSlot slot : slots) {
+            if (!slot.occupied()) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Zone of a slot code: everything before the last {@code '-'} ({@code L2-B-017 -> L2-B}),
+     * or the leading letters for short codes ({@code A1 -> A}).
+     */
+    static String zoneOf(String slotCode) {
+        if (slotCode == null || slotCode.isEmpty()) {
+            return "";
+        }
+        int dash = slotCode.lastIndexOf('-');
+        if (dash > 0) {
+            return slotCode.substring(0, dash);
+        }
+        int end = 0;
+        while (end < slotCode.length() && !Character.isDigit(slotCode.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? slotCode : slotCode.substring(0, end);
+    }
+
+    public static final class IndexedSlot {
+
+        private final Long id;
+        private final String slotCode;
+        private final String zone;
+        private final int position;
+        private final AtomicReference<String> occupant = new AtomicReference<>();
+
+        private IndexedSlot(Long id, String slotCode, String zone, int position) {
+            this.id = id;
+            this.slotCode = slotCode;
+            this.zone = zone;
+            this.position = position;
+        }
+
+        public Long id() {
+            return id;
+        }
+
+        public String slotCode() {
+            return slotCode;
+        }
+
+        public String zone() {
+            return zone;
+        }
+
+        /**
+         * Position in slot table order as of the rebuild that created it.
+         */
+        int position() {
+            return position;
+        }
+
+        public String occupant() {
+            return occupant.get();
+        }
+
+        public boolean occupied() {
+            return occupant.get() != null;
+        }
+
+        /**
+         * Compare-and-set by vehicle number rather than by reference: the number of an exit is an equal
+         * string, not the instance the entry stored.
+         */
+        private boolean replaceOccupant(String vehicleNumber, String replacement) {
+            String current = occupant.get();
+            return vehicleNumber.equals(current) && occupant.compareAndSet(current, replacement);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.service.SlotIndex.IndexedSlot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Free slots in lock-free free lists (stripes), one or more per zone, so polling and offering a slot are
+ * O(1).
+ * <p>
+ * Unstriped, stripes are scanned in order, filling the facility zone by zone. Striped, every zone is split
+ * into several stripes and each entry starts at a stripe derived from its vehicle number, so a burst of
+ * concurrent entries spreads across stripes instead of contending on the head of one list.
+ */
+final class ZoneStripesStrategy implements SlotAllocationStrategy {
+
+    private final boolean striped;
+    private final int stripesPerZone;
+    private volatile Stripes current = new Stripes(new Stripe[0], new IndexedSlot[0], new Stripe[0]);
+
+    ZoneStripesStrategy(boolean striped, int stripesPerZone) {
+        this.striped = striped;
+        this.stripesPerZone = striped ? Math.max(1, stripesPerZone) : 1;
+    }
+
+    @Override
+    public void rebuild(List<IndexedSlot> slots) {
+        Map<String, List<Stripe>> zones = new LinkedHashMap<>();
+        Map<String, Integer> zoneSizes = new LinkedHashMap<>();
+        IndexedSlot[] bySlot = slots.toArray(new IndexedSlot[0]);
+        Stripe[] homes = new Stripe[bySlot.length];
+
+        for (IndexedSlot slot : bySlot) {
+            List<Stripe> zoneStripes = zones.computeIfAbsent(slot.zone(), this::newStripes);
+            int position = zoneSizes.merge(slot.zone(), 1, Integer::sum) - 1;
+            Stripe stripe = zoneStripes.get(position % zoneStripes.size());
+            homes[slot.position()] = stripe;
+            if (!slot.occupied()) {
+                stripe.free.offer(slot);
+            }
+        }
+
+        List<Stripe> rebuilt = new ArrayList<>();
+        zones.values().forEach(rebuilt::addAll);
+        current = new Stripes(rebuilt.toArray(new Stripe[0]), bySlot, homes);
+    }
+
+    @Override
+    public IndexedSlot poll(String vehicleNumber, String gateId) {
+        Stripe[] stripes = current.stripes;
+        int start = striped ? stripeFor(vehicleNumber, stripes.length) : 0;
+        for (int i = 0; i < stripes.length; i++) {
+            IndexedSlot slot = stripes[(start + i) % stripes.length].free.poll();
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void offer(IndexedSlot slot) {
+        Stripe home = current.home(slot);
+        if (home != null) {
+            home.free.offer(slot);
+        }
+    }
+
+    @Override
+    public void remove(IndexedSlot slot) {
+        Stripe home = current.home(slot);
+        if (home != null) {
+            home.free.remove(slot);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (striped ? "striped" : "sequential") + "(stripes=" + current.stripes.length + ")";
+    }
+
+    private List<Stripe> newStripes(String zone) {
+        List<Stripe> zoneStripes = new ArrayList<>(stripesPerZone);
+        for (int i = 0; i < stripesPerZone; i++) {
+            zoneStripes.add(new Stripe());
+        }
+        return zoneStripes;
+    }
+
+    private static int stripeFor(String vehicleNumber, int stripeCount) {
+        if (stripeCount == 0) {
+            return 0;
+        }
+        int h = vehicleNumber.hashCode() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), stripeCount);
+    }
+
+    /**
+     * The stripes of one rebuild, and the stripe each of its slots goes back to. Slots of an earlier rebuild
+     * have no home here and are dropped.
+     */
+    private record Stripes(Stripe[] stripes, IndexedSlot[] slots, Stripe[] homes) {
+
+        Stripe home(IndexedSlot slot) {
+            int position = slot.position();
+            return position < slots.length && slots[position] == slot ? homes[position] : null;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final Queue<IndexedSlot> free = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -1,7 +1,36 @@
 package com.farabitech.smartparking_system.allocation.spi;
 
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutImportDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotAvailabilityDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotStateDTO;
 import org.springframework.modulith.NamedInterface;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @NamedInterface
 public interface AllocationSPI {
+
+    OccupancyDTO getOccupancy();
+
+    List<SlotStateDTO> getSlotStates();
+
+    /**
+     * Brings the slots of every facility in the layout in line with it: missing slots are added and free
+     * slots the layout no longer has are removed. Facilities not in the layout are left alone.
+     */
+    LayoutImportDTO importLayout(String layout, LayoutFormat format);
+
+    /**
+     * Books a slot of the facility for the vehicle between {@code from} and {@code to}. When the vehicle
+     * enters during that window it is given the booked slot, which other entries do not get in the meantime.
+     */
+    ReservationDTO reserve(String facilityId, String vehicleNumber, LocalDateTime from, LocalDateTime to);
+
+    ReservationDTO cancelReservation(Long id);
+
+    SlotAvailabilityDTO getAvailableSlots(String facilityId, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,11 @@
+package com.farabitech.smartparking_system.allocation.spi.Exceptions;
+
+public class InvalidLayoutException extends RuntimeException {
+    public InvalidLayoutException(String message) {
+        super(message);
+    }
+
+    public InvalidLayoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
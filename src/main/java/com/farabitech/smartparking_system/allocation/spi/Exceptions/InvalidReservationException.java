@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.allocation.spi.Exceptions;
+
+public class InvalidReservationException extends RuntimeException {
+    public InvalidReservationException(String message) {
+        super(message);
+    }
+}
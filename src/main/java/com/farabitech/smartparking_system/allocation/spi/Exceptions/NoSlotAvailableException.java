@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.allocation.spi.Exceptions;
+
+public class NoSlotAvailableException extends RuntimeException {
+    public NoSlotAvailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.allocation.spi.Exceptions;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(Long id) {
+        super("Reservation " + id + " not found");
+    }
+}
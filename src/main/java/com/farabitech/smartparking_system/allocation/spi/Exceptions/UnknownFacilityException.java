@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.allocation.spi.Exceptions;
+
+public class UnknownFacilityException extends RuntimeException {
+    public UnknownFacilityException(String facilityId) {
+        super("Facility " + facilityId + " is not served by this node");
+    }
+}
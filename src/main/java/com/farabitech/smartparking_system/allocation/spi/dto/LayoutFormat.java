@@ -0,0 +1,16 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+/**
+ * Formats a facility layout can be imported from.
+ * <ul>
+ *     <li>{@code CSV}: a {@code facility,level,zone,slot} header, then one slot per line; the slot code is the
+ *     non-blank parts of level, zone and slot joined with {@code '-'} ({@code L1,A,001 -> L1-A-001})</li>
+ *     <li>{@code YAML}: {@code facilities} with an {@code id} and {@code levels} (each with a {@code name}) of
+ *     {@code zones}, each zone a {@code name} and a number of {@code slots}, numbered from 1
+ *     ({@code L1-A-001 .. L1-A-120}); {@code zones} may also sit directly under a facility</li>
+ * </ul>
+ */
+public enum LayoutFormat {
+    CSV,
+    YAML
+}
@@ -0,0 +1,16 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of applying a facility layout. Occupied slots missing from the layout are kept and counted
+ * as {@code retained}; importing them again once they are free removes them.
+ */
+public record LayoutImportDTO(List<String> facilities,
+                              int slots,
+                              int inserted,
+                              int removed,
+                              int retained,
+                              long durationMillis,
+                              long rowsPerSecond) {
+}
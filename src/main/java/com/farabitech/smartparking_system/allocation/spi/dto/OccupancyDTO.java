@@ -0,0 +1,24 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+import java.util.Map;
+
+/**
+ * Point-in-time slot occupancy over all facilities, of each facility and of each of its zones (the
+ * slot code prefix).
+ */
+public record OccupancyDTO(long totalSlots,
+                           long occupiedSlots,
+                           long freeSlots,
+                           Map<String, FacilityOccupancy> facilities) {
+
+    public record FacilityOccupancy(long totalSlots,
+                                    long occupiedSlots,
+                                    long freeSlots,
+                                    Map<String, ZoneOccupancy> zones) {
+    }
+
+    public record ZoneOccupancy(long totalSlots,
+                                long occupiedSlots,
+                                long freeSlots) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+import java.time.LocalDateTime;
+
+public record ReservationDTO(Long id,
+                             String facilityId,
+                             String slotCode,
+                             String vehicleNumber,
+                             LocalDateTime from,
+                             LocalDateTime to,
+                             ReservationStatus status) {
+}
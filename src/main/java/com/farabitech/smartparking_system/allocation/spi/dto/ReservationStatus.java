@@ -0,0 +1,10 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+public enum ReservationStatus {
+    BOOKED,
+    /** The vehicle entered during its reservation and was given the reserved slot. */
+    CLAIMED,
+    CANCELLED,
+    /** The reservation ended without the vehicle claiming it. */
+    EXPIRED
+}
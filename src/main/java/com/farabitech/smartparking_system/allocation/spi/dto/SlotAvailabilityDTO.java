@@ -0,0 +1,14 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Slots of a facility no reservation overlaps between {@code from} and {@code to}, in slot table order.
+ * Vehicles parked without a reservation are not taken into account.
+ */
+public record SlotAvailabilityDTO(String facilityId,
+                                  LocalDateTime from,
+                                  LocalDateTime to,
+                                  List<String> slotCodes) {
+}
@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.allocation.spi.dto;
+
+public record SlotStateDTO(String facilityId,
+                           String slotCode,
+                           String zone,
+                           boolean occupied) {
+}
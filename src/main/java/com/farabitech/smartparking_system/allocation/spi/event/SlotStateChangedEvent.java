@@ -0,0 +1,13 @@
+package com.farabitech.smartparking_system.allocation.spi.event;
+
+import java.time.Instant;
+
+/**
+ * A slot was taken or freed. Published once the change is committed, to in-process listeners only.
+ */
+public record SlotStateChangedEvent(String facilityId,
+                                    String slotCode,
+                                    String zone,
+                                    boolean occupied,
+                                    Instant changedAt) {
+}
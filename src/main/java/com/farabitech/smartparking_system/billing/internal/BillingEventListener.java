@@ -7,33 +7,43 @@ import io.opentelemetry.instrumentation.annotations.WithSpan;
 import org.springframework.modulith.events.ApplicationModuleListener;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
 import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.tariff.TariffEngine;
+import com.farabitech.smartparking_system.billing.internal.rollup.RevenueRollupService;
+import com.farabitech.smartparking_system.billing.internal.service.RevenueSummaryService;
 import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
-
-import java.time.Duration;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
 
 @Slf4j
 @Service
 public class BillingEventListener {
 
-
-    //TODO implement calculation in service
     private final BillingRecordRepository billingRecordRepository;
-
-    public BillingEventListener(BillingRecordRepository billingRecordRepository) {
+    private final RevenueSummaryService revenueSummaryService;
+    private final RevenueRollupService revenueRollupService;
+    private final TariffEngine tariffEngine;
+
+    public BillingEventListener(BillingRecordRepository billingRecordRepository,
+                                RevenueSummaryService revenueSummaryService,
+                                RevenueRollupService revenueRollupService,
+                                TariffEngine tariffEngine) {
         this.billingRecordRepository = billingRecordRepository;
+        this.revenueSummaryService = revenueSummaryService;
+        this.revenueRollupService = revenueRollupService;
+        this.tariffEngine = tariffEngine;
     }
 
     @ApplicationModuleListener
     @WithSpan(value = "BillingEventListener#handleVehicleExit", kind = SpanKind.CONSUMER)
     public void handleVehicleExit(VehicleExitedEvent event) {
 
-        Duration duration = Duration.between(event.entryTime(), event.exitTime());
-        double amount = Math.max(20, (duration.toMinutes() / 60.0) * 50); //$50/hour
+        double amount = tariffEngine.price(event.vehicleNumber(), event.entryTime(), event.exitTime());
 
         BillingRecord record = new BillingRecord(null, event.vehicleNumber(), amount, event.exitTime());
         billingRecordRepository.save(record);
+        revenueSummaryService.record(record);
+        revenueRollupService.record(record);
 
-        System.out.println("✅ Billed $" + amount + " for vehicle " + event.vehicleNumber() +
-                " from " + event.entryTime() + " to " + event.exitTime());
+        log.info(LogMarkers.HIGH_VOLUME, "Vehicle billed: vehicleNumber={} amount={} entryTime={} exitTime={}",
+                event.vehicleNumber(), amount, event.entryTime(), event.exitTime());
     }
 }
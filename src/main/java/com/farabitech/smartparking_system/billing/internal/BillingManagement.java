@@ -1,13 +1,28 @@
 package com.farabitech.smartparking_system.billing.internal;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import io.opentelemetry.api.trace.SpanKind;
 import org.springframework.stereotype.Service;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import com.farabitech.smartparking_system.billing.spi.BillingSPI;
 import com.farabitech.smartparking_system.billing.spi.dto.BillingDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceQuery;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.VehicleRevenueDTO;
+import com.farabitech.smartparking_system.billing.internal.tariff.TariffEngine;
+import com.farabitech.smartparking_system.billing.internal.rollup.RevenueRollupService;
+import com.farabitech.smartparking_system.billing.internal.service.InvoiceExportService;
+import com.farabitech.smartparking_system.billing.internal.service.RevenueSummaryService;
 import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
 
 @Slf4j
@@ -16,9 +31,21 @@ public class BillingManagement implements BillingSPI {
 
 
     private final BillingRecordRepository billingRecordRepository;
+    private final RevenueSummaryService revenueSummaryService;
+    private final InvoiceExportService invoiceExportService;
+    private final RevenueRollupService revenueRollupService;
+    private final TariffEngine tariffEngine;
 
-    public BillingManagement(BillingRecordRepository billingRecordRepository) {
+    public BillingManagement(BillingRecordRepository billingRecordRepository,
+                             RevenueSummaryService revenueSummaryService,
+                             InvoiceExportService invoiceExportService,
+                             RevenueRollupService revenueRollupService,
+                             TariffEngine tariffEngine) {
         this.billingRecordRepository = billingRecordRepository;
+        this.revenueSummaryService = revenueSummaryService;
+        this.invoiceExportService = invoiceExportService;
+        this.revenueRollupService = revenueRollupService;
+        this.tariffEngine = tariffEngine;
     }
 
     @Override
@@ -30,4 +57,62 @@ public class BillingManagement implements BillingSPI {
         });
         return  billingDTOs;
     }
+
+    @Override
+    @WithSpan(value = "BillingManagement#streamInvoices", kind = SpanKind.INTERNAL)
+    public Stream<InvoiceDTO> streamInvoices(InvoiceQuery query) {
+        log.info("Streaming invoices: from={} to={} vehicleNumber={}", query.from(), query.to(), query.vehicleNumber());
+        return invoiceExportService.stream(query);
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#getRevenueSummary", kind = SpanKind.INTERNAL)
+    public RevenueSummaryDTO getRevenueSummary() {
+        return revenueSummaryService.summary();
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#getDailyRevenueSummary", kind = SpanKind.INTERNAL)
+    public RevenueSummaryDTO getRevenueSummary(LocalDate day) {
+        return revenueSummaryService.summary(day);
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#rebuildRevenueSummary", kind = SpanKind.INTERNAL)
+    public RevenueSummaryDTO rebuildRevenueSummary() {
+        log.info("Rebuilding revenue summary from billing records");
+        return revenueSummaryService.rebuild();
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#getRevenue", kind = SpanKind.INTERNAL)
+    public RevenueRollupDTO getRevenue(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity) {
+        return revenueRollupService.query(from, to, granularity);
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#getRevenueByVehicle", kind = SpanKind.INTERNAL)
+    public List<VehicleRevenueDTO> getRevenueByVehicle(LocalDateTime from, LocalDateTime to, String vehicleNumber, int limit) {
+        return revenueRollupService.byVehicle(from, to, vehicleNumber, limit);
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#rebuildRevenueRollups", kind = SpanKind.INTERNAL)
+    public void rebuildRevenueRollups() {
+        log.info("Rebuilding revenue rollups from billing records");
+        revenueRollupService.rebuild();
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#getTariff", kind = SpanKind.INTERNAL)
+    public TariffDTO getTariff() {
+        return tariffEngine.tariff();
+    }
+
+    @Override
+    @WithSpan(value = "BillingManagement#updateTariff", kind = SpanKind.INTERNAL)
+    public TariffDTO updateTariff(TariffDTO tariff) {
+        log.info("Updating tariff");
+        return tariffEngine.reload(tariff);
+    }
 }
@@ -0,0 +1,20 @@
+package com.farabitech.smartparking_system.billing.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Revenue rollup retention, bound from {@code smartparking.billing.rollup.*}.
+ *
+ * @param hourBucketsFor     how long hour buckets are kept before their day is compacted into a day bucket;
+ *                           hourly figures for older days are computed from the raw records
+ * @param dayBucketsFor      how long day buckets are kept before their month is compacted into a month bucket
+ * @param compactionInterval time between compaction runs
+ */
+@ConfigurationProperties("smartparking.billing.rollup")
+public record RollupProperties(@DefaultValue("2d") Duration hourBucketsFor,
+                               @DefaultValue("62d") Duration dayBucketsFor,
+                               @DefaultValue("1h") Duration compactionInterval) {
+}
@@ -1,9 +1,10 @@
 package com.farabitech.smartparking_system.billing.internal.model;
 
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,9 +15,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_billing_time_id", columnList = "billingTime, id"),
+        @Index(name = "idx_billing_vehicle_time", columnList = "vehicleNumber, billingTime")
+})
 public class BillingRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequenceId(name = "billing_record_seq")
     private Long id;
     private String vehicleNumber;
     private double amount;
@@ -0,0 +1,52 @@
+package com.farabitech.smartparking_system.billing.internal.model;
+
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Invoice count and revenue, in cents, of the billing records folded into one hour, day or month.
+ * Every billing record is counted in exactly one bucket: its hour when written, the enclosing day
+ * or month once that hour has been compacted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_revenue_bucket_start", columnList = "bucketStart"))
+public class RevenueBucket {
+    @EmbeddedId
+    private Key key;
+    private LocalDateTime bucketEnd;
+    private long invoiceCount;
+    private long amountCents;
+
+    public LocalDateTime start() {
+        return key.getBucketStart();
+    }
+
+    public RevenueGranularity granularity() {
+        return key.getGranularity();
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+        @Enumerated(EnumType.STRING)
+        private RevenueGranularity granularity;
+        private LocalDateTime bucketStart;
+    }
+}
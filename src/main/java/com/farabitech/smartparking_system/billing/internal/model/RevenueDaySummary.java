@@ -0,0 +1,26 @@
+package com.farabitech.smartparking_system.billing.internal.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class RevenueDaySummary {
+    // DAY is a reserved word in H2
+    @Id
+    @Column(name = "summary_day")
+    private LocalDate day;
+    private long invoiceCount;
+    // in cents, so that adding up a day's invoices is exact
+    private long totalCents;
+    private long minCents;
+    private long maxCents;
+}
@@ -1,7 +1,63 @@
 package com.farabitech.smartparking_system.billing.internal.repository;
 
 import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BillingRecordRepository extends JpaRepository<BillingRecord,Long> {
+
+    int EXPORT_PAGE_SIZE = 500;
+
+    /**
+     * Per-day count, total, min and max of all billing records: {@code [LocalDate, Long, Double, Double, Double]}.
+     */
+    @Query("select cast(b.billingTime as LocalDate), count(b), sum(b.amount), min(b.amount), max(b.amount) " +
+            "from BillingRecord b group by cast(b.billingTime as LocalDate)")
+    List<Object[]> aggregateByDay();
+
+    /**
+     * Keyset page of invoices ordered by {@code (billingTime, id)}, starting right after the given key.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_PAGE_SIZE))
+    @Query("select new com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO(b.id, b.vehicleNumber, b.amount, b.billingTime) " +
+            "from BillingRecord b " +
+            "where (b.billingTime > :afterTime or (b.billingTime = :afterTime and b.id > :afterId)) " +
+            "and b.billingTime < :to " +
+            "and (:vehicleNumber is null or b.vehicleNumber = :vehicleNumber) " +
+            "order by b.billingTime, b.id")
+    List<InvoiceDTO> findInvoicePage(@Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterId") long afterId,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("vehicleNumber") String vehicleNumber,
+                                     Limit limit);
+
+    /**
+     * {@code [LocalDateTime billingTime, Double amount]} of every record billed in {@code [from, to)}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_PAGE_SIZE))
+    @Query("select b.billingTime, b.amount from BillingRecord b where b.billingTime >= :from and b.billingTime < :to")
+    Stream<Object[]> streamAmounts(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Per-vehicle count and total of the records billed in {@code [from, to)}, highest total first:
+     * {@code [String, Long, Double]}.
+     */
+    @Query("select b.vehicleNumber, count(b), sum(b.amount) from BillingRecord b " +
+            "where b.billingTime >= :from and b.billingTime < :to " +
+            "and (:vehicleNumber is null or b.vehicleNumber = :vehicleNumber) " +
+            "group by b.vehicleNumber order by sum(b.amount) desc, b.vehicleNumber")
+    List<Object[]> aggregateByVehicle(@Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("vehicleNumber") String vehicleNumber,
+                                      Limit limit);
 }
@@ -0,0 +1,47 @@
+package com.farabitech.smartparking_system.billing.internal.repository;
+
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevenueBucketRepository extends JpaRepository<RevenueBucket, RevenueBucket.Key> {
+
+    /**
+     * Adds to the bucket in place, so concurrent listeners never lose an update.
+     */
+    @Modifying
+    @Query("update RevenueBucket b set b.invoiceCount = b.invoiceCount + :count, " +
+            "b.amountCents = b.amountCents + :cents " +
+            "where b.key = :key")
+    int add(@Param("key") RevenueBucket.Key key, @Param("count") long count, @Param("cents") long cents);
+
+    /**
+     * Inserts the bucket with nothing counted; fails if the bucket exists already.
+     */
+    @Modifying
+    @Query(value = "insert into RevenueBucket (granularity, bucketStart, bucketEnd, invoiceCount, amountCents) " +
+            "values (:granularity, :start, :end, 0, 0)", nativeQuery = true)
+    int insertEmpty(@Param("granularity") String granularity,
+                    @Param("start") LocalDateTime start,
+                    @Param("end") LocalDateTime end);
+
+    @Query("select b from RevenueBucket b where b.key.bucketStart < :to and b.bucketEnd > :from")
+    List<RevenueBucket> findOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Locks the buckets, so an invoice added to one of them concurrently waits until they are compacted
+     * and deleted, then starts a fresh bucket instead of being lost with the old one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from RevenueBucket b where b.key.granularity = :granularity and b.bucketEnd <= :before")
+    List<RevenueBucket> findEndingBefore(@Param("granularity") RevenueGranularity granularity,
+                                         @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,32 @@
+package com.farabitech.smartparking_system.billing.internal.repository;
+
+import com.farabitech.smartparking_system.billing.internal.model.RevenueDaySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface RevenueDaySummaryRepository extends JpaRepository<RevenueDaySummary, LocalDate> {
+
+    /**
+     * Folds one invoice into the day's row in place, so concurrent listeners never lose an update.
+     * Min and max of a row without invoices yet are not counted.
+     */
+    @Modifying
+    @Query("update RevenueDaySummary d set d.invoiceCount = d.invoiceCount + 1, " +
+            "d.totalCents = d.totalCents + :cents, " +
+            "d.minCents = case when d.invoiceCount = 0 then :cents else least(d.minCents, :cents) end, " +
+            "d.maxCents = case when d.invoiceCount = 0 then :cents else greatest(d.maxCents, :cents) end " +
+            "where d.day = :day")
+    int addInvoice(@Param("day") LocalDate day, @Param("cents") long cents);
+
+    /**
+     * Inserts the day's row without invoices; fails if the day has a row already.
+     */
+    @Modifying
+    @Query(value = "insert into RevenueDaySummary (summary_day, invoiceCount, totalCents, minCents, maxCents) " +
+            "values (:day, 0, 0, 0, 0)", nativeQuery = true)
+    int insertEmpty(@Param("day") LocalDate day);
+}
@@ -0,0 +1,57 @@
+package com.farabitech.smartparking_system.billing.internal.rollup;
+
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calendar arithmetic shared by the rollup writer, the compaction and the range queries.
+ * Buckets are aligned, so an hour always lies within one day and a day within one month.
+ */
+final class RevenueBuckets {
+
+    private RevenueBuckets() {
+    }
+
+    static LocalDateTime truncate(LocalDateTime time, RevenueGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    static LocalDateTime end(LocalDateTime start, RevenueGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> start.plusHours(1);
+            case DAY -> start.plusDays(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    static RevenueBucket.Key key(LocalDateTime time, RevenueGranularity granularity) {
+        return new RevenueBucket.Key(granularity, truncate(time, granularity));
+    }
+
+    static RevenueBucket bucket(RevenueBucket.Key key, long invoiceCount, long amountCents) {
+        return new RevenueBucket(key, end(key.getBucketStart(), key.getGranularity()), invoiceCount, amountCents);
+    }
+
+    /**
+     * Sums finer buckets into the coarser buckets that contain them.
+     */
+    static Map<RevenueBucket.Key, long[]> fold(Collection<RevenueBucket> buckets, RevenueGranularity into) {
+        Map<RevenueBucket.Key, long[]> folded = new HashMap<>();
+        for (RevenueBucket bucket : buckets) {
+            long[] totals = folded.computeIfAbsent(key(bucket.start(), into), k -> new long[2]);
+            totals[0] += bucket.getInvoiceCount();
+            totals[1] += bucket.getAmountCents();
+        }
+        return folded;
+    }
+}
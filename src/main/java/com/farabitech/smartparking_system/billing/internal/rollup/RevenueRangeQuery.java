@@ -0,0 +1,135 @@
+package com.farabitech.smartparking_system.billing.internal.rollup;
+
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.internal.service.Cents;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers a revenue query over {@code [from, to)} from whatever mix of hour, day and month buckets
+ * overlaps it, falling back to raw billing records only where the buckets are too coarse.
+ * <p>
+ * A bucket is used as a whole if it lies inside the range and is no coarser than the requested
+ * granularity, so it falls into exactly one period. Every other overlapping bucket (the partial hours
+ * at the edges, or a compacted month when days are asked for) marks its part of the range for a raw
+ * scan. Because buckets are aligned, a usable bucket is either wholly inside such a raw interval, in
+ * which case it is skipped, or wholly outside it: every record is counted exactly once.
+ */
+final class RevenueRangeQuery {
+
+    @FunctionalInterface
+    interface RawRecords {
+        /**
+         * Feeds the billing time and amount in cents of every record billed in {@code [from, to)} to {@code sink}.
+         */
+        void scan(LocalDateTime from, LocalDateTime to, RecordSink sink);
+    }
+
+    @FunctionalInterface
+    interface RecordSink {
+        void accept(LocalDateTime billingTime, long cents);
+    }
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final RevenueGranularity granularity;
+    private final Map<LocalDateTime, long[]> periods = new TreeMap<>();
+    private long invoiceCount;
+    private long cents;
+
+    RevenueRangeQuery(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+    }
+
+    RevenueRollupDTO evaluate(Collection<RevenueBucket> overlapping, RawRecords raw) {
+        List<RevenueBucket> usable = new ArrayList<>();
+        List<LocalDateTime[]> rawIntervals = new ArrayList<>();
+        for (RevenueBucket bucket : overlapping) {
+            if (isUsable(bucket)) {
+                usable.add(bucket);
+            } else {
+                rawIntervals.add(new LocalDateTime[]{max(bucket.start(), from), min(bucket.getBucketEnd(), to)});
+            }
+        }
+        List<LocalDateTime[]> merged = merge(rawIntervals);
+
+        for (RevenueBucket bucket : usable) {
+            if (!covers(merged, bucket.start())) {
+                add(bucket.start(), bucket.getInvoiceCount(), bucket.getAmountCents());
+            }
+        }
+        for (LocalDateTime[] interval : merged) {
+            raw.scan(interval[0], interval[1], (billingTime, amount) -> add(billingTime, 1, amount));
+        }
+
+        List<RevenueRollupDTO.Period> result = new ArrayList<>(periods.size());
+        periods.forEach((start, totals) ->
+                result.add(new RevenueRollupDTO.Period(start, totals[0], Cents.toAmount(totals[1]))));
+        return new RevenueRollupDTO(from, to, granularity, invoiceCount, Cents.toAmount(cents), result);
+    }
+
+    private boolean isUsable(RevenueBucket bucket) {
+        return !bucket.start().isBefore(from)
+                && !bucket.getBucketEnd().isAfter(to)
+                && (granularity == null || bucket.granularity().compareTo(granularity) <= 0);
+    }
+
+    private void add(LocalDateTime time, long count, long amount) {
+        invoiceCount += count;
+        cents += amount;
+        if (granularity != null) {
+            long[] totals = periods.computeIfAbsent(RevenueBuckets.truncate(time, granularity), start -> new long[2]);
+            totals[0] += count;
+            totals[1] += amount;
+        }
+    }
+
+    private static List<LocalDateTime[]> merge(List<LocalDateTime[]> intervals) {
+        intervals.sort(Comparator.comparing(interval -> interval[0]));
+        List<LocalDateTime[]> merged = new ArrayList<>();
+        for (LocalDateTime[] interval : intervals) {
+            LocalDateTime[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !interval[0].isAfter(last[1])) {
+                last[1] = max(last[1], interval[1]);
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+        return merged;
+    }
+
+    private static boolean covers(List<LocalDateTime[]> intervals, LocalDateTime time) {
+        int low = 0;
+        int high = intervals.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            LocalDateTime[] interval = intervals.get(mid);
+            if (time.isBefore(interval[0])) {
+                high = mid - 1;
+            } else if (!time.isBefore(interval[1])) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
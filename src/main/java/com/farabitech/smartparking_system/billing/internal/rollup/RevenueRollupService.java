@@ -0,0 +1,159 @@
+package com.farabitech.smartparking_system.billing.internal.rollup;
+
+import com.farabitech.smartparking_system.billing.internal.config.RollupProperties;
+import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
+import com.farabitech.smartparking_system.billing.internal.repository.RevenueBucketRepository;
+import com.farabitech.smartparking_system.billing.internal.service.AggregateRows;
+import com.farabitech.smartparking_system.billing.internal.service.Cents;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.VehicleRevenueDTO;
+import com.farabitech.smartparking_system.billing.spi.exceptions.InvalidRevenueRangeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Revenue by hour, day and month for arbitrary ranges, without scanning the billing records.
+ * <p>
+ * Every invoice is added to its hour bucket inside the billing transaction. A scheduled compaction
+ * folds the hour buckets of days older than {@code hourBucketsFor} into day buckets and the day
+ * buckets of months older than {@code dayBucketsFor} into month buckets, so the table stays small
+ * while recent data keeps its hourly detail. Range queries are planned by {@link RevenueRangeQuery}.
+ */
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final RevenueBucketRepository bucketRepository;
+    private final BillingRecordRepository billingRecordRepository;
+    private final RollupProperties properties;
+    private final AggregateRows aggregateRows;
+
+    public RevenueRollupService(RevenueBucketRepository bucketRepository,
+                                BillingRecordRepository billingRecordRepository,
+                                RollupProperties properties,
+                                AggregateRows aggregateRows) {
+        this.bucketRepository = bucketRepository;
+        this.billingRecordRepository = billingRecordRepository;
+        this.properties = properties;
+        this.aggregateRows = aggregateRows;
+    }
+
+    @Transactional
+    public void record(BillingRecord record) {
+        add(RevenueBuckets.key(record.getBillingTime(), RevenueGranularity.HOUR), 1,
+                Cents.of(record.getAmount()));
+    }
+
+    @Transactional(readOnly = true)
+    public RevenueRollupDTO query(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity) {
+        requireRange(from, to);
+        return new RevenueRangeQuery(from, to, granularity)
+                .evaluate(bucketRepository.findOverlapping(from, to), this::scan);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleRevenueDTO> byVehicle(LocalDateTime from, LocalDateTime to, String vehicleNumber, int limit) {
+        requireRange(from, to);
+        List<VehicleRevenueDTO> vehicles = new ArrayList<>();
+        for (Object[] row : billingRecordRepository.aggregateByVehicle(from, to, vehicleNumber, Limit.of(limit))) {
+            vehicles.add(new VehicleRevenueDTO((String) row[0], ((Number) row[1]).longValue(),
+                    Cents.toAmount(Cents.of(((Number) row[2]).doubleValue()))));
+        }
+        return vehicles;
+    }
+
+    @Scheduled(initialDelayString = "${smartparking.billing.rollup.compaction-interval:1h}",
+            fixedDelayString = "${smartparking.billing.rollup.compaction-interval:1h}")
+    @Transactional
+    public synchronized void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        int hours = compact(RevenueGranularity.HOUR, RevenueGranularity.DAY,
+                RevenueBuckets.truncate(now.minus(properties.hourBucketsFor()), RevenueGranularity.DAY));
+        int days = compact(RevenueGranularity.DAY, RevenueGranularity.MONTH,
+                RevenueBuckets.truncate(now.minus(properties.dayBucketsFor()), RevenueGranularity.MONTH));
+        if (hours > 0 || days > 0) {
+            log.info("Revenue buckets compacted: hourBuckets={} dayBuckets={}", hours, days);
+        }
+    }
+
+    /**
+     * Fills the buckets from the billing records written before rollups existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (bucketRepository.count() == 0 && billingRecordRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes all buckets from the raw billing records. Invoices billed while it runs may be
+     * counted twice or not at all.
+     */
+    @Transactional
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Map<RevenueBucket.Key, long[]> hours = new HashMap<>();
+        scan(BEGINNING, END, (billingTime, cents) -> {
+            long[] totals = hours.computeIfAbsent(RevenueBuckets.key(billingTime, RevenueGranularity.HOUR), k -> new long[2]);
+            totals[0]++;
+            totals[1] += cents;
+        });
+
+        bucketRepository.deleteAllInBatch();
+        List<RevenueBucket> buckets = new ArrayList<>(hours.size());
+        hours.forEach((key, totals) -> buckets.add(RevenueBuckets.bucket(key, totals[0], totals[1])));
+        bucketRepository.saveAll(buckets);
+        bucketRepository.flush();
+        compact();
+
+        log.info("Revenue buckets rebuilt: hourBuckets={} tookMs={}", buckets.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int compact(RevenueGranularity granularity, RevenueGranularity into, LocalDateTime before) {
+        List<RevenueBucket> buckets = bucketRepository.findEndingBefore(granularity, before);
+        if (buckets.isEmpty()) {
+            return 0;
+        }
+        RevenueBuckets.fold(buckets, into).forEach((key, totals) -> add(key, totals[0], totals[1]));
+        bucketRepository.deleteAll(buckets);
+        return buckets.size();
+    }
+
+    private void add(RevenueBucket.Key key, long count, long cents) {
+        aggregateRows.add(() -> bucketRepository.add(key, count, cents),
+                () -> bucketRepository.insertEmpty(key.getGranularity().name(), key.getBucketStart(),
+                        RevenueBuckets.end(key.getBucketStart(), key.getGranularity())));
+    }
+
+    private void scan(LocalDateTime from, LocalDateTime to, RevenueRangeQuery.RecordSink sink) {
+        try (Stream<Object[]> rows = billingRecordRepository.streamAmounts(from, to)) {
+            rows.forEach(row -> sink.accept((LocalDateTime) row[0], Cents.of(((Number) row[1]).doubleValue())));
+        }
+    }
+
+    private static void requireRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidRevenueRangeException("Revenue range needs from < to, got from=" + from + " to=" + to);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.farabitech.smartparking_system.billing.internal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Adds to aggregate rows that are created by the first write of their key, from concurrent transactions.
+ * <p>
+ * The aggregates are updated in place ({@code count = count + 1}), so concurrent writers never lose an
+ * update, but the row has to exist first. Inserting it in the writer's transaction races: two first
+ * writers both find no row, both insert, and the loser's whole transaction rolls back on the primary key.
+ * Instead a missing row is inserted empty in a transaction of its own, where a duplicate key only means
+ * another writer was first, and the update is run again in the caller's transaction. An empty row counts
+ * nothing, so it does no harm when the caller rolls back afterwards.
+ * <p>
+ * That transaction takes a second connection while the caller holds one, but only for the first write of
+ * each key.
+ */
+@Slf4j
+@Component
+public class AggregateRows {
+
+    private final TransactionTemplate ownTransaction;
+
+    public AggregateRows(PlatformTransactionManager transactionManager) {
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param update      adds to the row in place and returns the number of rows updated
+     * @param insertEmpty inserts the row with nothing counted, failing if it exists already
+     */
+    public void add(IntSupplier update, Runnable insertEmpty) {
+        if (update.getAsInt() > 0) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> insertEmpty.run());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Aggregate row created concurrently: {}", e.getMessage());
+        }
+        if (update.getAsInt() == 0) {
+            throw new IllegalStateException("Aggregate row missing right after it was created");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.farabitech.smartparking_system.billing.internal.service;
+
+/**
+ * Conversions for the revenue aggregates, which add up cents rather than amounts.
+ * <p>
+ * Billing amounts are rounded to cents, so summing cents is exact where summing doubles is not.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    public static long of(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
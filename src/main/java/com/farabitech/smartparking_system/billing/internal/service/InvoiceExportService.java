@@ -0,0 +1,55 @@
+package com.farabitech.smartparking_system.billing.internal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceQuery;
+import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository.EXPORT_PAGE_SIZE;
+
+@Slf4j
+@Service
+public class InvoiceExportService {
+
+    private static final LocalDateTime BEGINNING_OF_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BillingRecordRepository billingRecordRepository;
+
+    public InvoiceExportService(BillingRecordRepository billingRecordRepository) {
+        this.billingRecordRepository = billingRecordRepository;
+    }
+
+    public Stream<InvoiceDTO> stream(InvoiceQuery query) {
+        LocalDateTime from = query.from() == null ? BEGINNING_OF_TIME : query.from();
+        LocalDateTime to = query.to() == null ? END_OF_TIME : query.to();
+        String vehicleNumber = query.vehicleNumber() == null || query.vehicleNumber().isBlank() ? null : query.vehicleNumber();
+
+        // each page is its own short query keyed on the last row of the previous one, so nothing
+        // holds a cursor or a transaction open while a slow client drains the export
+        return Stream.iterate(
+                        page(from, Long.MIN_VALUE, to, vehicleNumber),
+                        page -> !page.isEmpty(),
+                        page -> {
+                            if (page.size() < EXPORT_PAGE_SIZE) {
+                                return List.of();
+                            }
+                            InvoiceDTO last = page.get(page.size() - 1);
+                            return page(last.billingTime(), last.id(), to, vehicleNumber);
+                        })
+                .flatMap(List::stream);
+    }
+
+    private List<InvoiceDTO> page(LocalDateTime afterTime, long afterId, LocalDateTime to, String vehicleNumber) {
+        List<InvoiceDTO> page = billingRecordRepository.findInvoicePage(afterTime, afterId, to, vehicleNumber,
+                Limit.of(EXPORT_PAGE_SIZE));
+        log.debug("Fetched invoice export page: afterTime={} afterId={} rows={}", afterTime, afterId, page.size());
+        return page;
+    }
+}
@@ -0,0 +1,158 @@
+package com.farabitech.smartparking_system.billing.internal.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.model.RevenueDaySummary;
+import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
+import com.farabitech.smartparking_system.billing.internal.repository.RevenueDaySummaryRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running revenue aggregates, maintained as billing records are written.
+ * <p>
+ * Every invoice is folded into its day's {@link RevenueDaySummary} row inside the billing
+ * transaction and, once that commits, into striped in-memory counters; both add up cents, so the
+ * totals stay exact. Summaries are served from memory in O(1); the persisted rows only exist to
+ * reload the counters on startup without touching the raw records. {@link #rebuild()} recomputes everything from the raw
+ * {@link BillingRecord}s.
+ */
+@Slf4j
+@Service
+public class RevenueSummaryService {
+
+    private final RevenueDaySummaryRepository summaryRepository;
+    private final BillingRecordRepository billingRecordRepository;
+    private final AggregateRows aggregateRows;
+
+    private volatile Totals overall = new Totals();
+    private volatile Map<LocalDate, Totals> days = new ConcurrentHashMap<>();
+
+    public RevenueSummaryService(RevenueDaySummaryRepository summaryRepository,
+                                 BillingRecordRepository billingRecordRepository,
+                                 AggregateRows aggregateRows) {
+        this.summaryRepository = summaryRepository;
+        this.billingRecordRepository = billingRecordRepository;
+        this.aggregateRows = aggregateRows;
+    }
+
+    @PostConstruct
+    void load() {
+        reload(summaryRepository.findAll());
+    }
+
+    @Transactional
+    public void record(BillingRecord record) {
+        LocalDate day = record.getBillingTime().toLocalDate();
+        long cents = Cents.of(record.getAmount());
+
+        aggregateRows.add(() -> summaryRepository.addInvoice(day, cents), () -> summaryRepository.insertEmpty(day));
+
+        Runnable apply = () -> {
+            overall.add(cents);
+            days.computeIfAbsent(day, d -> new Totals()).add(cents);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    public RevenueSummaryDTO summary() {
+        return overall.toDto();
+    }
+
+    public RevenueSummaryDTO summary(LocalDate day) {
+        Totals totals = days.get(day);
+        return totals == null ? new Totals().toDto() : totals.toDto();
+    }
+
+    /**
+     * Recomputes the per-day rows and the in-memory counters from the raw billing records.
+     * Invoices billed while the rebuild runs may be counted twice or not at all; run it when
+     * the aggregates are suspected to be off, not on a schedule.
+     */
+    @Transactional
+    public synchronized RevenueSummaryDTO rebuild() {
+        long started = System.nanoTime();
+
+        List<RevenueDaySummary> rebuilt = new ArrayList<>();
+        for (Object[] row : billingRecordRepository.aggregateByDay()) {
+            rebuilt.add(new RevenueDaySummary(
+                    (LocalDate) row[0],
+                    ((Number) row[1]).longValue(),
+                    Cents.of(((Number) row[2]).doubleValue()),
+                    Cents.of(((Number) row[3]).doubleValue()),
+                    Cents.of(((Number) row[4]).doubleValue())));
+        }
+
+        summaryRepository.deleteAllInBatch();
+        summaryRepository.saveAll(rebuilt);
+        reload(rebuilt);
+
+        log.info("Revenue summary rebuilt: days={} tookMs={}", rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+        return summary();
+    }
+
+    private void reload(List<RevenueDaySummary> rows) {
+        Totals reloadedOverall = new Totals();
+        Map<LocalDate, Totals> reloadedDays = new ConcurrentHashMap<>();
+        for (RevenueDaySummary row : rows) {
+            reloadedOverall.merge(row);
+            reloadedDays.computeIfAbsent(row.getDay(), d -> new Totals()).merge(row);
+        }
+        overall = reloadedOverall;
+        days = reloadedDays;
+    }
+
+    private static final class Totals {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalCents = new LongAdder();
+        private final LongAccumulator minCents = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxCents = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void add(long cents) {
+            count.increment();
+            totalCents.add(cents);
+            minCents.accumulate(cents);
+            maxCents.accumulate(cents);
+        }
+
+        void merge(RevenueDaySummary row) {
+            if (row.getInvoiceCount() == 0) {
+                // created for an invoice that was rolled back
+                return;
+            }
+            count.add(row.getInvoiceCount());
+            totalCents.add(row.getTotalCents());
+            minCents.accumulate(row.getMinCents());
+            maxCents.accumulate(row.getMaxCents());
+        }
+
+        RevenueSummaryDTO toDto() {
+            long invoices = count.sum();
+            return new RevenueSummaryDTO(invoices, Cents.toAmount(totalCents.sum()),
+                    invoices == 0 ? null : Cents.toAmount(minCents.get()),
+                    invoices == 0 ? null : Cents.toAmount(maxCents.get()));
+        }
+    }
+}
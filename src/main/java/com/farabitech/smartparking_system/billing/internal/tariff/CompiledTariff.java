@@ -0,0 +1,161 @@
+package com.farabitech.smartparking_system.billing.internal.tariff;
+
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * A {@link TariffDTO} compiled into lookup tables by {@link TariffCompiler}; immutable and thread-safe.
+ * <p>
+ * Time is counted in minutes from a Monday midnight, so minute {@code m} is minute {@code m % MINUTES_PER_WEEK}
+ * of the week. Each vehicle class keeps a prefix sum of its per-minute price over one week, which prices
+ * any span in O(1). With a daily cap, only the first and last day are priced from the prefix sum; the
+ * whole days in between come from a prefix sum of capped day prices. Pricing a session therefore costs
+ * the same for ten minutes as for a month, and does not allocate.
+ */
+public final class CompiledTariff {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int DAYS_PER_WEEK = 7;
+    static final int MINUTES_PER_WEEK = DAYS_PER_WEEK * MINUTES_PER_DAY;
+
+    /** 1970-01-01 was a Thursday, three days after the Monday the minute count starts at. */
+    private static final long EPOCH_DAY_OFFSET = 3;
+
+    private final TariffDTO definition;
+    private final ClassTable defaultClass;
+    private final String[] prefixes;
+    private final ClassTable[] prefixClasses;
+    private final Map<String, long[]> passes;
+
+    CompiledTariff(TariffDTO definition, ClassTable defaultClass, String[] prefixes, ClassTable[] prefixClasses,
+                   Map<String, long[]> passes) {
+        this.definition = definition;
+        this.defaultClass = defaultClass;
+        this.prefixes = prefixes;
+        this.prefixClasses = prefixClasses;
+        this.passes = passes;
+    }
+
+    public TariffDTO definition() {
+        return definition;
+    }
+
+    /**
+     * Amount for a session, rounded to cents. Billed minutes are whole minutes between entry and exit,
+     * placed on the tariff from the minute the vehicle entered.
+     */
+    public double price(String vehicleNumber, LocalDateTime entryTime, LocalDateTime exitTime) {
+        long seconds = exitTime.toEpochSecond(ZoneOffset.UTC) - entryTime.toEpochSecond(ZoneOffset.UTC);
+        if (exitTime.getNano() < entryTime.getNano()) {
+            seconds--;
+        }
+        long minutes = Math.max(0, seconds / 60);
+
+        if (holdsPass(vehicleNumber, entryTime, exitTime)) {
+            return 0;
+        }
+
+        ClassTable table = classOf(vehicleNumber);
+        if (minutes < table.graceMinutes) {
+            return 0;
+        }
+        long start = (entryTime.toLocalDate().toEpochDay() + EPOCH_DAY_OFFSET) * MINUTES_PER_DAY
+                + entryTime.getHour() * 60L + entryTime.getMinute();
+        double amount = Math.max(table.minimumFee, table.charge(start, start + minutes));
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private boolean holdsPass(String vehicleNumber, LocalDateTime entryTime, LocalDateTime exitTime) {
+        long[] validity = vehicleNumber == null ? null : passes.get(vehicleNumber);
+        if (validity == null) {
+            return false;
+        }
+        long entryDay = entryTime.toLocalDate().toEpochDay();
+        long exitDay = exitTime.toLocalDate().toEpochDay();
+        for (int i = 0; i < validity.length; i += 2) {
+            if (entryDay >= validity[i] && exitDay <= validity[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ClassTable classOf(String vehicleNumber) {
+        if (vehicleNumber != null) {
+            for (int i = 0; i < prefixes.length; i++) {
+                if (vehicleNumber.startsWith(prefixes[i])) {
+                    return prefixClasses[i];
+                }
+            }
+        }
+        return defaultClass;
+    }
+
+    static final class ClassTable {
+
+        /** {@code weekPrefix[m]}: price of minutes {@code [0, m)} of the week. */
+        private final double[] weekPrefix;
+        private final double weekTotal;
+        private final double dailyCap;
+        /** {@code cappedDayPrefix[d]}: capped price of whole days {@code [0, d)}, over two weeks. */
+        private final double[] cappedDayPrefix;
+        private final double minimumFee;
+        private final int graceMinutes;
+
+        ClassTable(double[] minutePrices, double dailyCap, double minimumFee, int graceMinutes) {
+            this.weekPrefix = new double[MINUTES_PER_WEEK + 1];
+            for (int m = 0; m < MINUTES_PER_WEEK; m++) {
+                weekPrefix[m + 1] = weekPrefix[m] + minutePrices[m];
+            }
+            this.weekTotal = weekPrefix[MINUTES_PER_WEEK];
+            this.dailyCap = dailyCap > 0 ? dailyCap : Double.POSITIVE_INFINITY;
+            this.cappedDayPrefix = new double[2 * DAYS_PER_WEEK + 1];
+            for (int d = 0; d < 2 * DAYS_PER_WEEK; d++) {
+                int day = d % DAYS_PER_WEEK;
+                double dayPrice = weekPrefix[(day + 1) * MINUTES_PER_DAY] - weekPrefix[day * MINUTES_PER_DAY];
+                cappedDayPrefix[d + 1] = cappedDayPrefix[d] + Math.min(this.dailyCap, dayPrice);
+            }
+            this.minimumFee = minimumFee;
+            this.graceMinutes = graceMinutes;
+        }
+
+        /**
+         * Price of minutes {@code [start, end)}, daily cap applied per calendar day.
+         */
+        double charge(long start, long end) {
+            if (dailyCap == Double.POSITIVE_INFINITY) {
+                return span(start, end);
+            }
+            long startDay = start / MINUTES_PER_DAY;
+            long endDay = end / MINUTES_PER_DAY;
+            if (startDay == endDay) {
+                return Math.min(dailyCap, span(start, end));
+            }
+            double total = Math.min(dailyCap, span(start, (startDay + 1) * MINUTES_PER_DAY));
+            total += wholeDays(startDay + 1, endDay);
+            if (end > endDay * MINUTES_PER_DAY) {
+                total += Math.min(dailyCap, span(endDay * MINUTES_PER_DAY, end));
+            }
+            return total;
+        }
+
+        private double span(long start, long end) {
+            return (end / MINUTES_PER_WEEK - start / MINUTES_PER_WEEK) * weekTotal
+                    + weekPrefix[(int) (end % MINUTES_PER_WEEK)] - weekPrefix[(int) (start % MINUTES_PER_WEEK)];
+        }
+
+        private double wholeDays(long fromDay, long toDay) {
+            long days = toDay - fromDay;
+            if (days <= 0) {
+                return 0;
+            }
+            int weekday = (int) (fromDay % DAYS_PER_WEEK);
+            int rest = (int) (days % DAYS_PER_WEEK);
+            return (days / DAYS_PER_WEEK) * cappedDayPrefix[DAYS_PER_WEEK]
+                    + cappedDayPrefix[weekday + rest] - cappedDayPrefix[weekday];
+        }
+    }
+}
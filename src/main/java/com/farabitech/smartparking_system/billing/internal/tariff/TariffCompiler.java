@@ -0,0 +1,138 @@
+package com.farabitech.smartparking_system.billing.internal.tariff;
+
+import com.farabitech.smartparking_system.billing.internal.tariff.CompiledTariff.ClassTable;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Band;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Pass;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.VehicleClassTariff;
+import com.farabitech.smartparking_system.billing.spi.exceptions.InvalidTariffException;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.farabitech.smartparking_system.billing.internal.tariff.CompiledTariff.MINUTES_PER_DAY;
+import static com.farabitech.smartparking_system.billing.internal.tariff.CompiledTariff.MINUTES_PER_WEEK;
+
+/**
+ * Validates a {@link TariffDTO} and compiles it into a {@link CompiledTariff}.
+ */
+public final class TariffCompiler {
+
+    public static final String STANDARD_CLASS = "standard";
+
+    /**
+     * $50/hour billed per minute, $20 minimum, no cap or grace period.
+     */
+    public static final TariffDTO DEFAULT_TARIFF = new TariffDTO(STANDARD_CLASS,
+            Map.of(STANDARD_CLASS, new VehicleClassTariff(50, 20, 0, 0, List.of())),
+            Map.of(),
+            List.of());
+
+    private TariffCompiler() {
+    }
+
+    public static CompiledTariff compile(TariffDTO tariff) {
+        if (tariff == null || tariff.vehicleClasses() == null || tariff.vehicleClasses().isEmpty()) {
+            throw new InvalidTariffException("A tariff needs at least one vehicle class");
+        }
+
+        Map<String, ClassTable> classes = new HashMap<>();
+        tariff.vehicleClasses().forEach((name, classTariff) -> classes.put(name, compileClass(name, classTariff)));
+
+        String defaultClassName = tariff.defaultVehicleClass() != null ? tariff.defaultVehicleClass() : STANDARD_CLASS;
+        ClassTable defaultClass = classes.get(defaultClassName);
+        if (defaultClass == null) {
+            throw new InvalidTariffException("Unknown default vehicle class " + defaultClassName);
+        }
+
+        List<Map.Entry<String, String>> prefixes = new ArrayList<>(
+                tariff.vehicleClassPrefixes() != null ? tariff.vehicleClassPrefixes().entrySet() : Set.of());
+        // longest prefix first, so the first match is the most specific one
+        prefixes.sort(Comparator.comparingInt((Map.Entry<String, String> prefix) -> prefix.getKey().length()).reversed());
+        String[] prefixCodes = new String[prefixes.size()];
+        ClassTable[] prefixClasses = new ClassTable[prefixes.size()];
+        for (int i = 0; i < prefixes.size(); i++) {
+            prefixCodes[i] = prefixes.get(i).getKey();
+            prefixClasses[i] = classes.get(prefixes.get(i).getValue());
+            if (prefixClasses[i] == null) {
+                throw new InvalidTariffException("Prefix " + prefixCodes[i] + " maps to unknown vehicle class "
+                        + prefixes.get(i).getValue());
+            }
+        }
+
+        return new CompiledTariff(tariff, defaultClass, prefixCodes, prefixClasses, compilePasses(tariff.passes()));
+    }
+
+    private static ClassTable compileClass(String name, VehicleClassTariff tariff) {
+        if (tariff == null || tariff.hourlyRate() < 0 || tariff.minimumFee() < 0 || tariff.dailyCap() < 0
+                || tariff.graceMinutes() < 0) {
+            throw new InvalidTariffException("Vehicle class " + name + " needs non-negative rates, fees, cap and grace period");
+        }
+
+        double[] minutePrices = new double[MINUTES_PER_WEEK];
+        Arrays.fill(minutePrices, tariff.hourlyRate() / 60);
+
+        for (Band band : tariff.bands() != null ? tariff.bands() : List.<Band>of()) {
+            if (band.hourlyRate() < 0) {
+                throw new InvalidTariffException("Vehicle class " + name + " has a band with a negative rate");
+            }
+            int from = minuteOfDay(name, band.from());
+            int to = minuteOfDay(name, band.to());
+            if (to <= from) {
+                to += MINUTES_PER_DAY;
+            }
+            Set<DayOfWeek> days = band.days() == null || band.days().isEmpty()
+                    ? EnumSet.allOf(DayOfWeek.class) : EnumSet.copyOf(band.days());
+            for (DayOfWeek day : days) {
+                int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+                for (int m = from; m < to; m++) {
+                    minutePrices[(dayStart + m) % MINUTES_PER_WEEK] = band.hourlyRate() / 60;
+                }
+            }
+        }
+
+        return new ClassTable(minutePrices, tariff.dailyCap(), tariff.minimumFee(), tariff.graceMinutes());
+    }
+
+    private static Map<String, long[]> compilePasses(List<Pass> passes) {
+        Map<String, long[]> compiled = new HashMap<>();
+        for (Pass pass : passes != null ? passes : List.<Pass>of()) {
+            if (pass.vehicleNumber() == null || pass.vehicleNumber().isBlank()) {
+                throw new InvalidTariffException("A pass needs a vehicle number");
+            }
+            long from;
+            long until;
+            try {
+                from = LocalDate.parse(pass.validFrom()).toEpochDay();
+                until = LocalDate.parse(pass.validUntil()).toEpochDay();
+            } catch (DateTimeException | NullPointerException e) {
+                throw new InvalidTariffException("Pass of " + pass.vehicleNumber() + " needs yyyy-MM-dd validity dates", e);
+            }
+            long[] previous = compiled.getOrDefault(pass.vehicleNumber(), new long[0]);
+            long[] ranges = Arrays.copyOf(previous, previous.length + 2);
+            ranges[previous.length] = from;
+            ranges[previous.length + 1] = until;
+            compiled.put(pass.vehicleNumber(), ranges);
+        }
+        return compiled;
+    }
+
+    private static int minuteOfDay(String vehicleClass, String time) {
+        try {
+            LocalTime parsed = LocalTime.parse(time);
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeException | NullPointerException e) {
+            throw new InvalidTariffException("Vehicle class " + vehicleClass + " has a band with an invalid time " + time, e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.farabitech.smartparking_system.billing.internal.tariff;
+
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prices parking sessions with the current {@link CompiledTariff}.
+ * <p>
+ * The tariff is read from {@code smartparking.billing.tariff} at startup, or {@link TariffCompiler#DEFAULT_TARIFF}
+ * if none is configured. {@link #reload(TariffDTO)} compiles the new tariff off to the side and swaps it in
+ * atomically; sessions being priced at that moment finish with the tariff they started with.
+ */
+@Slf4j
+@Service
+public class TariffEngine {
+
+    static final String TARIFF_PROPERTY = "smartparking.billing.tariff";
+
+    private final AtomicReference<CompiledTariff> current;
+
+    @Autowired
+    public TariffEngine(Environment environment) {
+        this(Binder.get(environment).bind(TARIFF_PROPERTY, TariffDTO.class).orElse(TariffCompiler.DEFAULT_TARIFF));
+    }
+
+    public TariffEngine(TariffDTO tariff) {
+        this.current = new AtomicReference<>(TariffCompiler.compile(tariff));
+        log.info("Tariff loaded: vehicleClasses={} passes={}", tariff.vehicleClasses().keySet(),
+                tariff.passes() != null ? tariff.passes().size() : 0);
+    }
+
+    public double price(String vehicleNumber, LocalDateTime entryTime, LocalDateTime exitTime) {
+        return current.get().price(vehicleNumber, entryTime, exitTime);
+    }
+
+    public TariffDTO tariff() {
+        return current.get().definition();
+    }
+
+    public TariffDTO reload(TariffDTO tariff) {
+        CompiledTariff compiled = TariffCompiler.compile(tariff);
+        current.set(compiled);
+        log.info("Tariff reloaded: vehicleClasses={} passes={}", tariff.vehicleClasses().keySet(),
+                tariff.passes() != null ? tariff.passes().size() : 0);
+        return compiled.definition();
+    }
+}
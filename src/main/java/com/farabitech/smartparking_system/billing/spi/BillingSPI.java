@@ -1,10 +1,59 @@
 package com.farabitech.smartparking_system.billing.spi;
 
 import com.farabitech.smartparking_system.billing.spi.dto.BillingDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceQuery;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.VehicleRevenueDTO;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface BillingSPI {
     Collection<BillingDTO> getInvoices();
+
+    /**
+     * Lazily pages through matching invoices in billing-time order. Only one page is held in
+     * memory at a time and no transaction has to be open while the stream is consumed; close
+     * the stream when done.
+     */
+    Stream<InvoiceDTO> streamInvoices(InvoiceQuery query);
+
+    RevenueSummaryDTO getRevenueSummary();
+
+    RevenueSummaryDTO getRevenueSummary(LocalDate day);
+
+    RevenueSummaryDTO rebuildRevenueSummary();
+
+    /**
+     * Revenue billed in {@code [from, to)}, broken down by {@code granularity} unless it is {@code null}.
+     *
+     * @throws com.farabitech.smartparking_system.billing.spi.exceptions.InvalidRevenueRangeException unless from < to
+     */
+    RevenueRollupDTO getRevenue(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity);
+
+    /**
+     * Per-vehicle revenue billed in {@code [from, to)}, highest first, optionally for one vehicle only.
+     *
+     * @throws com.farabitech.smartparking_system.billing.spi.exceptions.InvalidRevenueRangeException unless from < to
+     */
+    List<VehicleRevenueDTO> getRevenueByVehicle(LocalDateTime from, LocalDateTime to, String vehicleNumber, int limit);
+
+    void rebuildRevenueRollups();
+
+    TariffDTO getTariff();
+
+    /**
+     * Validates and activates a new tariff; exits billed from then on use it.
+     *
+     * @throws com.farabitech.smartparking_system.billing.spi.exceptions.InvalidTariffException if the tariff is invalid
+     */
+    TariffDTO updateTariff(TariffDTO tariff);
 }
@@ -0,0 +1,9 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+import java.time.LocalDateTime;
+
+public record InvoiceDTO(Long id,
+                         String vehicleNumber,
+                         double amount,
+                         LocalDateTime billingTime) {
+}
@@ -0,0 +1,15 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter for invoice exports; every component is optional.
+ *
+ * @param from          inclusive lower bound on the billing time
+ * @param to            exclusive upper bound on the billing time
+ * @param vehicleNumber only invoices of this vehicle
+ */
+public record InvoiceQuery(LocalDateTime from,
+                           LocalDateTime to,
+                           String vehicleNumber) {
+}
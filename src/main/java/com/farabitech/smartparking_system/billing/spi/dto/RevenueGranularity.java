@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+public enum RevenueGranularity {
+    HOUR,
+    DAY,
+    MONTH
+}
@@ -0,0 +1,21 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Revenue billed in {@code [from, to)}, with one entry per {@code granularity} period that has invoices;
+ * {@code periods} is empty when no granularity was asked for.
+ */
+public record RevenueRollupDTO(LocalDateTime from,
+                               LocalDateTime to,
+                               RevenueGranularity granularity,
+                               long invoiceCount,
+                               double totalAmount,
+                               List<Period> periods) {
+
+    public record Period(LocalDateTime start,
+                         long invoiceCount,
+                         double totalAmount) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+/**
+ * Aggregated invoice figures; {@code minAmount}/{@code maxAmount} are {@code null} while there are no invoices.
+ */
+public record RevenueSummaryDTO(long invoiceCount,
+                                double totalAmount,
+                                Double minAmount,
+                                Double maxAmount) {
+}
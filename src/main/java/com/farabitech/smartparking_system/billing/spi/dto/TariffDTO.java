@@ -0,0 +1,55 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative tariff, bound from {@code smartparking.billing.tariff} at startup and replaceable at runtime.
+ *
+ * @param defaultVehicleClass  class of vehicles no prefix matches; must be a key of {@code vehicleClasses}
+ * @param vehicleClasses       tariff per vehicle class
+ * @param vehicleClassPrefixes vehicle number prefix to vehicle class, the longest matching prefix wins
+ * @param passes               pass holders, who are not billed for sessions inside a pass's validity
+ */
+public record TariffDTO(String defaultVehicleClass,
+                        Map<String, VehicleClassTariff> vehicleClasses,
+                        Map<String, String> vehicleClassPrefixes,
+                        List<Pass> passes) {
+
+    /**
+     * @param hourlyRate   rate outside of any band
+     * @param minimumFee   least amount billed for a session
+     * @param dailyCap     most billed per calendar day of a session, {@code 0} for none
+     * @param graceMinutes sessions shorter than this are free
+     * @param bands        time-of-day/day-of-week rates, later bands override earlier ones
+     */
+    public record VehicleClassTariff(double hourlyRate,
+                                     double minimumFee,
+                                     double dailyCap,
+                                     int graceMinutes,
+                                     List<Band> bands) {
+    }
+
+    /**
+     * @param days       days the band applies to, every day when empty
+     * @param from       start time of day ({@code HH:mm}), inclusive
+     * @param to         end time of day ({@code HH:mm}), exclusive; at or before {@code from} runs past midnight
+     * @param hourlyRate rate inside the band
+     */
+    public record Band(List<DayOfWeek> days,
+                       String from,
+                       String to,
+                       double hourlyRate) {
+    }
+
+    /**
+     * @param vehicleNumber pass holder
+     * @param validFrom     first day of validity ({@code yyyy-MM-dd})
+     * @param validUntil    last day of validity ({@code yyyy-MM-dd})
+     */
+    public record Pass(String vehicleNumber,
+                       String validFrom,
+                       String validUntil) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.farabitech.smartparking_system.billing.spi.dto;
+
+public record VehicleRevenueDTO(String vehicleNumber,
+                                long invoiceCount,
+                                double totalAmount) {
+}
@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.billing.spi.exceptions;
+
+public class InvalidRevenueRangeException extends RuntimeException {
+    public InvalidRevenueRangeException(String message) {
+        super(message);
+    }
+}
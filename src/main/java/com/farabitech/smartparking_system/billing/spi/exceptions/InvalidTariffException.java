@@ -0,0 +1,11 @@
+package com.farabitech.smartparking_system.billing.spi.exceptions;
+
+public class InvalidTariffException extends RuntimeException {
+    public InvalidTariffException(String message) {
+        super(message);
+    }
+
+    public InvalidTariffException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
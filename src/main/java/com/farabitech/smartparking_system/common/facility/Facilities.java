@@ -0,0 +1,17 @@
+package com.farabitech.smartparking_system.common.facility;
+
+/**
+ * Facility ids shared by the modules. Rows and events written before facilities existed carry no
+ * facility id and belong to {@link #DEFAULT}.
+ */
+public final class Facilities {
+
+    public static final String DEFAULT = "main";
+
+    private Facilities() {
+    }
+
+    public static String orDefault(String facilityId) {
+        return facilityId == null || facilityId.isBlank() ? DEFAULT : facilityId;
+    }
+}
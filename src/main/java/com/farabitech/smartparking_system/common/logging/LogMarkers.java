@@ -0,0 +1,19 @@
+package com.farabitech.smartparking_system.common.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers shared by the modules' log statements.
+ */
+public final class LogMarkers {
+
+    /**
+     * Per-vehicle events on the request and listener path. They are sampled per module
+     * ({@code smartparking.logging.sampling}); warnings and errors are never sampled.
+     */
+    public static final Marker HIGH_VOLUME = MarkerFactory.getMarker("HIGH_VOLUME");
+
+    private LogMarkers() {
+    }
+}
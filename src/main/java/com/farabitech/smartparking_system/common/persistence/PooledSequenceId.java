@@ -0,0 +1,25 @@
+package com.farabitech.smartparking_system.common.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated id from a pooled database sequence, see {@link PooledSequenceGenerator}.
+ * Used instead of {@code IDENTITY}, which makes Hibernate insert row by row.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequenceId {
+
+    /**
+     * Name of the database sequence.
+     */
+    String name();
+}
@@ -0,0 +1,99 @@
+package com.farabitech.smartparking_system.config.events;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain SQL against the JDBC event publication tables; the registry's own API has no batched
+ * deletes and no counts.
+ */
+class EventPublicationTable {
+
+    private static final String COLUMNS = "ID, LISTENER_ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLICATION_DATE, COMPLETION_DATE";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final String table;
+    private final String archive;
+
+    EventPublicationTable(JdbcTemplate jdbc, String schema) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        String prefix = StringUtils.hasText(schema) ? schema + "." : "";
+        this.table = prefix + "EVENT_PUBLICATION";
+        this.archive = prefix + "EVENT_PUBLICATION_ARCHIVE";
+    }
+
+    long countCompleted() {
+        return count("COMPLETION_DATE is not null");
+    }
+
+    long countIncomplete() {
+        return count("COMPLETION_DATE is null");
+    }
+
+    long countIncompletePublishedBefore(Instant instant) {
+        Long count = jdbc.queryForObject(
+                "select count(*) from " + table + " where COMPLETION_DATE is null and PUBLICATION_DATE < ?",
+                Long.class, Timestamp.from(instant));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Incomplete publications per {@code LISTENER_ID}.
+     */
+    Map<String, Long> countIncompleteByListener() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbc.query("select LISTENER_ID, count(*) from " + table + " where COMPLETION_DATE is null group by LISTENER_ID",
+                resultSet -> {
+                    counts.put(resultSet.getString(1), resultSet.getLong(2));
+                });
+        return counts;
+    }
+
+    Instant oldestIncomplete() {
+        Timestamp oldest = jdbc.queryForObject(
+                "select min(PUBLICATION_DATE) from " + table + " where COMPLETION_DATE is null", Timestamp.class);
+        return oldest == null ? null : oldest.toInstant();
+    }
+
+    /**
+     * Ids of up to {@code limit} publications completed before {@code cutoff}, oldest first.
+     */
+    List<UUID> completedBefore(Instant cutoff, int limit) {
+        return jdbc.query("select ID from " + table + " where COMPLETION_DATE < ? order by COMPLETION_DATE " +
+                        "fetch first " + limit + " rows only",
+                (resultSet, row) -> resultSet.getObject(1, UUID.class), Timestamp.from(cutoff));
+    }
+
+    int delete(List<UUID> ids) {
+        return named.update("delete from " + table + " where ID in (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    int archive(List<UUID> ids) {
+        return named.update("insert into " + archive + " (" + COLUMNS + ") select " + COLUMNS + " from " + table +
+                " where ID in (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Creates the archive table with the registry table's columns, for schemas initialized before it existed.
+     */
+    void ensureArchive() {
+        jdbc.execute("create table if not exists " + archive + " as select " + COLUMNS + " from " + table +
+                " where 1 = 0");
+    }
+
+    private long count(String condition) {
+        Long count = jdbc.queryForObject("select count(*) from " + table + " where " + condition, Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,40 @@
+package com.farabitech.smartparking_system.config.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(EventRegistryProperties.class)
+class EventRegistryConfig {
+
+    @Bean
+    EventPublicationTable eventPublicationTable(JdbcTemplate jdbc,
+                                                @Value("${spring.modulith.events.jdbc.schema:}") String schema) {
+        return new EventPublicationTable(jdbc, schema);
+    }
+
+    @Bean
+    EventRegistryMaintenance eventRegistryMaintenance(EventPublicationTable table, EventRegistryProperties properties,
+                                                      TransactionTemplate transactions, MeterRegistry registry) {
+        return new EventRegistryMaintenance(table, properties, transactions, registry);
+    }
+
+    /**
+     * Takes over from {@code republish-outstanding-events-on-restart}, which has to stay off.
+     */
+    @Bean
+    OutstandingEventRepublisher outstandingEventRepublisher(IncompleteEventPublications publications,
+                                                            EventPublicationTable table,
+                                                            EventRegistryProperties properties,
+                                                            MeterRegistry registry) {
+        return new OutstandingEventRepublisher(publications, table, properties.republish(), registry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.farabitech.smartparking_system.config.events;
+
+import com.farabitech.smartparking_system.config.events.EventRegistryProperties.CleanupMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@code EVENT_PUBLICATION} table from growing without bound under {@code completion-mode: update}.
+ * <p>
+ * Completed publications past the retention are deleted or archived in small batches, each in its own
+ * transaction, so the cleanup never holds locks that would slow down the inserts of new publications.
+ * Table size and the age of the oldest incomplete publication are exported as gauges, refreshed on a
+ * schedule rather than counted on every scrape.
+ */
+@Slf4j
+class EventRegistryMaintenance {
+
+    private final EventPublicationTable table;
+    private final EventRegistryProperties properties;
+    private final TransactionTemplate transactions;
+    private final Counter cleaned;
+    private final MultiGauge incompleteByListener;
+    private final Set<String> listeners = new HashSet<>();
+    private volatile Stats stats = new Stats(0, 0, null);
+    private boolean archiveChecked;
+
+    EventRegistryMaintenance(EventPublicationTable table, EventRegistryProperties properties,
+                             TransactionTemplate transactions, MeterRegistry registry) {
+        this.table = table;
+        this.properties = properties;
+        this.transactions = transactions;
+        this.cleaned = Counter.builder("events.registry.cleaned")
+                .tag("mode", properties.cleanup().name().toLowerCase())
+                .description("Completed event publications removed from the registry table")
+                .register(registry);
+        Gauge.builder("events.registry.publications", this, maintenance -> maintenance.stats.completed())
+                .tag("state", "completed").description("Event publications in the registry table").register(registry);
+        Gauge.builder("events.registry.publications", this, maintenance -> maintenance.stats.incomplete())
+                .tag("state", "incomplete").description("Event publications in the registry table").register(registry);
+        TimeGauge.builder("events.registry.oldest.incomplete.age", this, TimeUnit.MILLISECONDS,
+                        EventRegistryMaintenance::oldestIncompleteAgeMillis)
+                .description("Age of the oldest event publication whose listener has not completed")
+                .register(registry);
+        this.incompleteByListener = MultiGauge.builder("events.registry.incomplete")
+                .description("Event publications a listener has not completed yet")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${smartparking.events.registry.cleanup-interval:10m}",
+            fixedDelayString = "${smartparking.events.registry.cleanup-interval:10m}")
+    public synchronized void cleanup() {
+        boolean archive = properties.cleanup() == CleanupMode.ARCHIVE;
+        if (archive && !archiveChecked) {
+            table.ensureArchive();
+            archiveChecked = true;
+        }
+
+        Instant cutoff = Instant.now().minus(properties.retention());
+        int batchSize = properties.cleanupBatchSize();
+        long began = System.nanoTime();
+        long total = 0;
+        int removed;
+        do {
+            removed = transactions.execute(status -> {
+                List<UUID> ids = table.completedBefore(cutoff, batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (archive) {
+                    table.archive(ids);
+                }
+                return table.delete(ids);
+            });
+            total += removed;
+        } while (removed == batchSize);
+
+        if (total > 0) {
+            cleaned.increment(total);
+            log.info("Event publications cleaned up: mode={} removed={} completedBefore={} took={}ms",
+                    properties.cleanup(), total, cutoff, Duration.ofNanos(System.nanoTime() - began).toMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartparking.events.registry.stats-interval:30s}")
+    public synchronized void refreshStats() {
+        stats = new Stats(table.countCompleted(), table.countIncomplete(), table.oldestIncomplete());
+
+        Map<String, Long> incomplete = new HashMap<>();
+        table.countIncompleteByListener().forEach((id, count) -> incomplete.merge(listenerName(id), count, Long::sum));
+        // listeners seen before stay at 0 rather than disappearing once they catch up
+        listeners.addAll(incomplete.keySet());
+        incompleteByListener.register(listeners.stream()
+                .<MultiGauge.Row<?>>map(listener -> MultiGauge.Row.of(Tags.of("listener", listener), incomplete.getOrDefault(listener, 0L)))
+                .toList(), true);
+    }
+
+    /**
+     * {@code ClassName#method} of a registry listener id such as
+     * {@code com.example.AllocationEventListener.handleVehicleEntry(com.example.VehicleEnteredEvent)}, matching the
+     * {@code listener} tag of the {@code listener.*} meters.
+     */
+    static String listenerName(String listenerId) {
+        int parameters = listenerId.indexOf('(');
+        String qualified = parameters < 0 ? listenerId : listenerId.substring(0, parameters);
+        int method = qualified.lastIndexOf('.');
+        if (method < 0) {
+            return listenerId;
+        }
+        String type = qualified.substring(qualified.lastIndexOf('.', method - 1) + 1, method);
+        return type + "#" + qualified.substring(method + 1);
+    }
+
+    private double oldestIncompleteAgeMillis() {
+        Instant oldest = stats.oldestIncomplete();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+    }
+
+    private record Stats(long completed, long incomplete, Instant oldestIncomplete) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.farabitech.smartparking_system.config.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Upkeep of Spring Modulith's event publication registry, bound from {@code smartparking.events.registry.*}.
+ *
+ * @param retention         completed publications older than this are cleaned up
+ * @param cleanup           {@code delete} drops them, {@code archive} moves them to {@code EVENT_PUBLICATION_ARCHIVE}
+ * @param cleanupInterval   pause between cleanup runs
+ * @param cleanupBatchSize  rows removed per statement (and transaction), so a cleanup never holds long locks
+ * @param statsInterval     how often the registry gauges are refreshed; they are served from the last refresh
+ * @param republish         resubmission of publications left incomplete by the previous run
+ */
+@ConfigurationProperties("smartparking.events.registry")
+public record EventRegistryProperties(@DefaultValue("7d") Duration retention,
+                                      @DefaultValue("delete") CleanupMode cleanup,
+                                      @DefaultValue("10m") Duration cleanupInterval,
+                                      @DefaultValue("1000") int cleanupBatchSize,
+                                      @DefaultValue("30s") Duration statsInterval,
+                                      @DefaultValue Republish republish) {
+
+    public enum CleanupMode {
+        DELETE,
+        ARCHIVE
+    }
+
+    /**
+     * Replaces {@code spring.modulith.events.republish-outstanding-events-on-restart}, which resubmits every
+     * outstanding publication at once.
+     *
+     * @param enabled       resubmit outstanding publications once the application is ready
+     * @param pageSize      publications resubmitted back to back before pausing
+     * @param pagePause     pause between pages, giving the listeners time to drain
+     * @param ratePerSecond upper bound on resubmissions per second within a page
+     */
+    public record Republish(@DefaultValue("true") boolean enabled,
+                            @DefaultValue("200") int pageSize,
+                            @DefaultValue("1s") Duration pagePause,
+                            @DefaultValue("100") int ratePerSecond) {
+    }
+}
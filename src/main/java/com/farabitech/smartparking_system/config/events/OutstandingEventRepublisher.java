@@ -0,0 +1,103 @@
+package com.farabitech.smartparking_system.config.events;
+
+import com.farabitech.smartparking_system.config.events.EventRegistryProperties.Republish;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.IncompleteEventPublications;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Resubmits the publications the previous run left incomplete, in pages and at a bounded rate, instead of
+ * all at once while the application is starting.
+ * <p>
+ * The registry asks the filter passed to {@link IncompleteEventPublications#resubmitIncompletePublications}
+ * about each publication right before resubmitting it, so pacing inside the filter paces the resubmission
+ * itself. Publications made by this run are left alone: their listeners already have them.
+ */
+@Slf4j
+class OutstandingEventRepublisher {
+
+    private final IncompleteEventPublications publications;
+    private final EventPublicationTable table;
+    private final Republish properties;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicLong resubmitted = new AtomicLong();
+    private long nextPermit = System.nanoTime();
+
+    OutstandingEventRepublisher(IncompleteEventPublications publications, EventPublicationTable table,
+                                Republish properties, MeterRegistry registry) {
+        this.publications = publications;
+        this.table = table;
+        this.properties = properties;
+        Gauge.builder("events.registry.republish", outstanding, AtomicLong::get)
+                .tag("state", "outstanding").description("Publications of the previous run still to be resubmitted")
+                .register(registry);
+        Gauge.builder("events.registry.republish", resubmitted, AtomicLong::get)
+                .tag("state", "resubmitted").description("Publications of the previous run resubmitted so far")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.enabled()) {
+            Thread.ofPlatform().name("event-republisher").daemon().start(this::republish);
+        }
+    }
+
+    void republish() {
+        long count = table.countIncompletePublishedBefore(startedAt);
+        outstanding.set(count);
+        if (count == 0) {
+            return;
+        }
+
+        log.info("Republishing outstanding event publications: count={} pageSize={} pagePause={} ratePerSecond={}",
+                count, properties.pageSize(), properties.pagePause(), properties.ratePerSecond());
+        long began = System.nanoTime();
+        try {
+            publications.resubmitIncompletePublications(this::admit);
+        } catch (RuntimeException e) {
+            log.error("Republishing outstanding event publications failed: resubmitted={}", resubmitted.get(), e);
+            return;
+        }
+        log.info("Outstanding event publications republished: resubmitted={} took={}ms",
+                resubmitted.get(), Duration.ofNanos(System.nanoTime() - began).toMillis());
+    }
+
+    private boolean admit(EventPublication publication) {
+        if (!publication.getPublicationDate().isBefore(startedAt) || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        long count = resubmitted.get();
+        if (count > 0 && count % properties.pageSize() == 0) {
+            log.debug("Republish page done, pausing: resubmitted={} outstanding={}", count, outstanding.get());
+            LockSupport.parkNanos(properties.pagePause().toNanos());
+        }
+        throttle();
+        resubmitted.incrementAndGet();
+        outstanding.decrementAndGet();
+        return true;
+    }
+
+    private void throttle() {
+        if (properties.ratePerSecond() <= 0) {
+            return;
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / properties.ratePerSecond();
+        long wait = nextPermit - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        nextPermit = (wait > 0 ? nextPermit : System.nanoTime()) + interval;
+    }
+}
@@ -0,0 +1,150 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import com.farabitech.smartparking_system.SmartparkingSystemApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When each event with module listeners was published, for {@link ListenerLagInterceptor}. An event is
+ * tracked from {@code publishEvent} until every {@code @ApplicationModuleListener} accepting it has finished
+ * with it, or until its transaction rolls back. Events are keyed by identity: a publication resubmitted from
+ * the registry is a new instance and is not measured.
+ */
+@Slf4j
+class EventPublishTimes implements ApplicationListener<PayloadApplicationEvent<?>>, SmartInitializingSingleton {
+
+    private static final String BASE_PACKAGE = SmartparkingSystemApplication.class.getPackageName() + ".";
+
+    private final ListableBeanFactory beanFactory;
+    private final int maxTracked;
+    private final Map<Key, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> listenersByEvent = new ConcurrentHashMap<>();
+    private final LongAdder overflowed = new LongAdder();
+    private volatile Map<Class<?>, Integer> listenersByParameter = Map.of();
+
+    EventPublishTimes(ListableBeanFactory beanFactory, int maxTracked) {
+        this.beanFactory = beanFactory;
+        this.maxTracked = maxTracked;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Class<?>, Integer> byParameter = new HashMap<>();
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(name, false);
+            if (type == null || !type.getName().startsWith(BASE_PACKAGE)) {
+                continue;
+            }
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(type))) {
+                if (method.getParameterCount() == 1
+                        && AnnotatedElementUtils.hasAnnotation(method, ApplicationModuleListener.class)) {
+                    byParameter.merge(method.getParameterTypes()[0], 1, Integer::sum);
+                }
+            }
+        }
+        listenersByParameter = Map.copyOf(byParameter);
+        listenersByEvent.clear();
+        log.info("Listener lag tracked for events: {}", byParameter.keySet().stream().map(Class::getSimpleName).toList());
+    }
+
+    @Override
+    public void onApplicationEvent(PayloadApplicationEvent<?> event) {
+        Object payload = event.getPayload();
+        // module listeners only run after commit, without a transaction they never see the event
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        int listeners = listenersByEvent.computeIfAbsent(payload.getClass(), this::countListeners);
+        if (listeners == 0) {
+            return;
+        }
+        if (tracked.size() >= maxTracked) {
+            overflowed.increment();
+            return;
+        }
+        Key key = new Key(payload);
+        tracked.put(key, new Tracked(System.nanoTime(), listeners));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    tracked.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@link System#nanoTime()} at which {@code event} was published, or {@code -1} when it is not tracked.
+     */
+    long publishedAt(Object event) {
+        Tracked entry = tracked.get(new Key(event));
+        return entry == null ? -1 : entry.publishedNanos;
+    }
+
+    /** One of the event's listeners is done with it, successfully or not. */
+    void finished(Object event) {
+        tracked.computeIfPresent(new Key(event), (key, entry) -> entry.remaining.decrementAndGet() <= 0 ? null : entry);
+    }
+
+    int tracked() {
+        return tracked.size();
+    }
+
+    long overflowed() {
+        return overflowed.sum();
+    }
+
+    private int countListeners(Class<?> eventType) {
+        int count = 0;
+        for (Map.Entry<Class<?>, Integer> listener : listenersByParameter.entrySet()) {
+            if (listener.getKey().isAssignableFrom(eventType)) {
+                count += listener.getValue();
+            }
+        }
+        return count;
+    }
+
+    private record Tracked(long publishedNanos, AtomicInteger remaining) {
+
+        Tracked(long publishedNanos, int listeners) {
+            this(publishedNanos, new AtomicInteger(listeners));
+        }
+    }
+
+    /** Identity of an event; records with equal components are still different publications. */
+    private static final class Key {
+
+        private final Object event;
+
+        Key(Object event) {
+            this.event = event;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.event == event;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(event);
+        }
+    }
+}
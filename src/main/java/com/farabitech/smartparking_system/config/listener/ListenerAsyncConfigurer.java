@@ -0,0 +1,78 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+class ListenerAsyncConfigurer implements AsyncConfigurer, DisposableBean {
+
+    private static final String THREAD_PREFIX = "module-listener-";
+
+    private final AsyncTaskExecutor executor;
+
+    ListenerAsyncConfigurer(ListenerExecutionProperties properties, ObjectProvider<MeterRegistry> registry) {
+        AtomicInteger active = new AtomicInteger();
+        TaskDecorator counting = task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+
+        if (properties.executor() == ListenerExecutionProperties.ExecutorType.VIRTUAL) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor(THREAD_PREFIX);
+            virtual.setVirtualThreads(true);
+            virtual.setTaskDecorator(counting);
+            // every invocation gets its own thread right away; waiting happens in the bulkheads (listener.bulkhead.queued)
+            this.executor = virtual;
+        } else {
+            ListenerExecutionProperties.PlatformPool pool = properties.platformPool();
+            ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+            platform.setThreadNamePrefix(THREAD_PREFIX);
+            platform.setCorePoolSize(pool.coreSize());
+            platform.setMaxPoolSize(pool.maxSize());
+            platform.setQueueCapacity(pool.queueCapacity());
+            platform.setTaskDecorator(counting);
+            platform.initialize();
+            this.executor = platform;
+            registry.ifAvailable(meters -> Gauge.builder("listener.executor.queued",
+                            () -> platform.getThreadPoolExecutor().getQueue().size())
+                    .description("Listener invocations waiting for a thread")
+                    .register(meters));
+        }
+
+        registry.ifAvailable(meters -> Gauge.builder("listener.executor.active", active::get)
+                .description("Listener invocations currently running")
+                .tag("executor", properties.executor().name().toLowerCase())
+                .register(meters));
+
+        log.info("Module listeners run on {} executor", properties.executor());
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor platform) {
+            platform.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+            virtual.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import com.farabitech.smartparking_system.SmartparkingSystemApplication;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many invocations of a module's listeners run at once, so a backlog in one module
+ * (say, slow notifications) cannot take every executor thread and database connection away from
+ * the others. Invocations over the limit wait for a permit.
+ * <p>
+ * That only holds while the connection pool is larger than all bulkheads together, counting two
+ * connections for a billing invocation that creates a revenue row in its own transaction: otherwise
+ * the modules still compete for connections, and invocations holding one can wait for a second until
+ * the pool times out. {@code spring.datasource.hikari.maximum-pool-size} is sized for the defaults.
+ */
+@Slf4j
+class ListenerBulkheadInterceptor implements MethodInterceptor {
+
+    private static final String BASE_PACKAGE = SmartparkingSystemApplication.class.getPackageName() + ".";
+
+    private final ObjectProvider<ListenerExecutionProperties> properties;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Optional<Bulkhead>> byMethod = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> byName = new ConcurrentHashMap<>();
+
+    ListenerBulkheadInterceptor(ObjectProvider<ListenerExecutionProperties> properties,
+                                ObjectProvider<MeterRegistry> registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Optional<Bulkhead> bulkhead = byMethod.computeIfAbsent(invocation.getMethod(),
+                method -> resolve(AopUtils.getMostSpecificMethod(method, invocation.getThis() == null
+                        ? method.getDeclaringClass() : invocation.getThis().getClass())));
+        if (bulkhead.isEmpty()) {
+            return invocation.proceed();
+        }
+        return bulkhead.get().call(invocation);
+    }
+
+    private Optional<Bulkhead> resolve(Method method) {
+        Map<String, Integer> limits = properties.getObject().bulkheads();
+        String listener = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+        String module = moduleOf(method.getDeclaringClass());
+
+        if (limits.containsKey(listener)) {
+            return Optional.of(byName.computeIfAbsent(listener, name -> new Bulkhead(name, limits.get(name))));
+        }
+        if (module != null && limits.containsKey(module)) {
+            return Optional.of(byName.computeIfAbsent(module, name -> new Bulkhead(name, limits.get(name))));
+        }
+        return Optional.empty();
+    }
+
+    static String moduleOf(Class<?> type) {
+        String name = type.getName();
+        if (!name.startsWith(BASE_PACKAGE)) {
+            return null;
+        }
+        int end = name.indexOf('.', BASE_PACKAGE.length());
+        return end < 0 ? null : name.substring(BASE_PACKAGE.length(), end);
+    }
+
+    private final class Bulkhead {
+
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTime;
+
+        private Bulkhead(String name, int maxConcurrency) {
+            this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+
+            MeterRegistry meters = registry.getIfAvailable();
+            if (meters != null) {
+                Gauge.builder("listener.bulkhead.active", active::get)
+                        .description("Listener invocations holding a bulkhead permit")
+                        .tag("bulkhead", name)
+                        .register(meters);
+                Gauge.builder("listener.bulkhead.queued", waiting::get)
+                        .description("Listener invocations waiting for a bulkhead permit")
+                        .tag("bulkhead", name)
+                        .register(meters);
+                this.waitTime = Timer.builder("listener.bulkhead.wait")
+                        .description("Time spent waiting for a bulkhead permit")
+                        .tag("bulkhead", name)
+                        .register(meters);
+            } else {
+                this.waitTime = null;
+            }
+            log.info("Listener bulkhead configured: bulkhead={} maxConcurrency={}", name, maxConcurrency);
+        }
+
+        private Object call(MethodInvocation invocation) throws Throwable {
+            long started = System.nanoTime();
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } finally {
+                waiting.decrementAndGet();
+            }
+            if (waitTime != null) {
+                waitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+
+            active.incrementAndGet();
+            try {
+                return invocation.proceed();
+            } finally {
+                active.decrementAndGet();
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.modulith.events.ApplicationModuleListener;
+
+@Configuration
+@EnableConfigurationProperties(ListenerExecutionProperties.class)
+class ListenerExecutionConfig {
+
+    /**
+     * Executor behind every {@code @Async} listener. Registered as an {@code AsyncConfigurer}
+     * rather than an {@code Executor} bean so Boot's {@code applicationTaskExecutor} (used by
+     * Spring MVC) is left alone.
+     */
+    @Bean
+    ListenerAsyncConfigurer listenerAsyncConfigurer(ListenerExecutionProperties properties,
+                                                    ObjectProvider<MeterRegistry> registry) {
+        return new ListenerAsyncConfigurer(properties, registry);
+    }
+
+    /**
+     * Bulkheads wrap the listener after the async hand-off but before its transaction starts,
+     * so an invocation waiting for a permit does not hold a database connection.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor listenerBulkheadAdvisor(ObjectProvider<ListenerExecutionProperties> properties,
+                                           ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ApplicationModuleListener.class),
+                new ListenerBulkheadInterceptor(properties, registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return advisor;
+    }
+
+    @Bean
+    EventPublishTimes eventPublishTimes(ListableBeanFactory beanFactory, ListenerExecutionProperties properties,
+                                        ObjectProvider<MeterRegistry> registry) {
+        EventPublishTimes times = new EventPublishTimes(beanFactory, properties.lag().maxTracked());
+        registry.ifAvailable(meters -> {
+            Gauge.builder("listener.lag.tracked", times, EventPublishTimes::tracked)
+                    .description("Published events some module listener has not finished with yet")
+                    .register(meters);
+            FunctionCounter.builder("listener.lag.overflowed", times, EventPublishTimes::overflowed)
+                    .description("Published events not measured because too many were being tracked")
+                    .register(meters);
+        });
+        return times;
+    }
+
+    /**
+     * Lag is measured inside the bulkhead, so publish-to-start includes the wait for a permit, and outside the
+     * listener's transaction, so publish-to-completion includes its commit.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor listenerLagAdvisor(ObjectProvider<EventPublishTimes> publishTimes,
+                                      ObjectProvider<ListenerExecutionProperties> properties,
+                                      ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ApplicationModuleListener.class),
+                new ListenerLagInterceptor(publishTimes, properties, registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 150);
+        return advisor;
+    }
+}
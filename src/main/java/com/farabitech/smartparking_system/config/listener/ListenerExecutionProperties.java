@@ -0,0 +1,48 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How {@code @ApplicationModuleListener} methods are executed, bound from {@code smartparking.listeners.*}.
+ *
+ * @param executor     {@code virtual} runs every listener invocation on its own virtual thread,
+ *                     {@code platform} on a bounded pool sized by {@code platformPool}
+ * @param platformPool pool sizing, only used with the {@code platform} executor
+ * @param bulkheads    maximum concurrent invocations per module ({@code billing}) or per listener method
+ *                     ({@code BillingEventListener#handleVehicleExit}); a listener matching neither is unlimited
+ * @param lag          publish-to-start and publish-to-completion histograms of every listener
+ */
+@ConfigurationProperties("smartparking.listeners")
+public record ListenerExecutionProperties(@DefaultValue("virtual") ExecutorType executor,
+                                          @DefaultValue PlatformPool platformPool,
+                                          Map<String, Integer> bulkheads,
+                                          @DefaultValue Lag lag) {
+
+    public ListenerExecutionProperties {
+        bulkheads = bulkheads == null ? Map.of() : Map.copyOf(bulkheads);
+    }
+
+    public enum ExecutorType {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    /**
+     * @param slo        histogram bucket boundaries, pick the latencies the gate display is judged by
+     * @param maxTracked published events whose listeners have not all finished, kept for the lag; events
+     *                   published beyond that are not measured
+     */
+    public record Lag(@DefaultValue({"10ms", "50ms", "100ms", "250ms", "500ms", "1s", "2500ms", "5s", "10s"}) List<Duration> slo,
+                      @DefaultValue("100000") int maxTracked) {
+    }
+
+    public record PlatformPool(@DefaultValue("8") int coreSize,
+                               @DefaultValue("32") int maxSize,
+                               @DefaultValue("1000") int queueCapacity) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long after publication a listener started and finished handling an event, the delay a driver
+ * sees between the gate and the display:
+ * <ul>
+ *     <li>{@code listener.lag.start{module,listener,event}} – publish until the listener starts, after the
+ *         async hand-off and its bulkhead</li>
+ *     <li>{@code listener.lag.completion{module,listener,event,outcome}} – publish until the listener returns
+ *         with its transaction committed ({@code success}) or throws ({@code failure})</li>
+ *     <li>{@code listener.lag.untracked{module,listener,event}} – invocations without a known publish time,
+ *         mostly publications resubmitted from the registry</li>
+ * </ul>
+ * Both timers publish histograms with the configured SLO buckets.
+ */
+class ListenerLagInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<EventPublishTimes> publishTimes;
+    private final ObjectProvider<ListenerExecutionProperties> properties;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Optional<LagMeters>> byMethod = new ConcurrentHashMap<>();
+
+    ListenerLagInterceptor(ObjectProvider<EventPublishTimes> publishTimes,
+                           ObjectProvider<ListenerExecutionProperties> properties,
+                           ObjectProvider<MeterRegistry> registry) {
+        this.publishTimes = publishTimes;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        EventPublishTimes times = publishTimes.getIfAvailable();
+        if (times == null || arguments.length != 1) {
+            return invocation.proceed();
+        }
+        LagMeters meters = byMethod.computeIfAbsent(invocation.getMethod(),
+                method -> resolve(AopUtils.getMostSpecificMethod(method, invocation.getThis() == null
+                        ? method.getDeclaringClass() : invocation.getThis().getClass()))).orElse(null);
+
+        Object event = arguments[0];
+        long published = times.publishedAt(event);
+        if (published < 0) {
+            if (meters != null) {
+                meters.untracked.increment();
+            }
+            return invocation.proceed();
+        }
+        if (meters != null) {
+            meters.start.record(System.nanoTime() - published, TimeUnit.NANOSECONDS);
+        }
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            if (meters != null) {
+                (failed ? meters.failure : meters.success).record(System.nanoTime() - published, TimeUnit.NANOSECONDS);
+            }
+            times.finished(event);
+        }
+    }
+
+    private Optional<LagMeters> resolve(Method method) {
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters == null || method.getParameterCount() != 1) {
+            return Optional.empty();
+        }
+        String module = ListenerBulkheadInterceptor.moduleOf(method.getDeclaringClass());
+        String listener = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+        String event = method.getParameterTypes()[0].getSimpleName();
+        Duration[] slo = properties.getObject().lag().slo().toArray(Duration[]::new);
+        return Optional.of(new LagMeters(meters, module == null ? "none" : module, listener, event, slo));
+    }
+
+    private static final class LagMeters {
+
+        private final Timer start;
+        private final Timer success;
+        private final Timer failure;
+        private final Counter untracked;
+
+        private LagMeters(MeterRegistry registry, String module, String listener, String event, Duration[] slo) {
+            this.start = Timer.builder("listener.lag.start")
+                    .description("Time from publishing an event until a module listener starts handling it")
+                    .tags("module", module, "listener", listener, "event", event)
+                    .serviceLevelObjectives(slo)
+                    .register(registry);
+            this.success = completion(registry, module, listener, event, slo, "success");
+            this.failure = completion(registry, module, listener, event, slo, "failure");
+            this.untracked = Counter.builder("listener.lag.untracked")
+                    .description("Listener invocations whose event has no known publish time")
+                    .tags("module", module, "listener", listener, "event", event)
+                    .register(registry);
+        }
+
+        private static Timer completion(MeterRegistry registry, String module, String listener, String event,
+                                        Duration[] slo, String outcome) {
+            return Timer.builder("listener.lag.completion")
+                    .description("Time from publishing an event until a module listener has finished with it")
+                    .tags("module", module, "listener", listener, "event", event, "outcome", outcome)
+                    .serviceLevelObjectives(slo)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts what it throws away: events discarded once the buffer passes the
+ * discarding threshold, and events dropped because the buffer was full and the appender must not block.
+ * Exported as {@code logging.async.dropped} by {@link LoggingPipeline}.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && isStarted() && getRemainingCapacity() == 0) {
+            // the queue would refuse it anyway, skip preparing it for the writer thread
+            overflowed.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    public long discarded() {
+        return discarded.sum();
+    }
+
+    public long overflowed() {
+        return overflowed.sum();
+    }
+}
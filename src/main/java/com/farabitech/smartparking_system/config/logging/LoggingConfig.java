@@ -0,0 +1,15 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoggingProperties.class)
+public class LoggingConfig {
+
+    @Bean
+    LoggingPipeline loggingPipeline(LoggingProperties properties) {
+        return new LoggingPipeline(properties);
+    }
+}
@@ -0,0 +1,94 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Installs {@link ModuleSamplingFilter} into the logback context and exports the pipeline's meters:
+ * <ul>
+ *     <li>{@code logging.sampled.out{module}} – {@code HIGH_VOLUME} events left out by sampling</li>
+ *     <li>{@code logging.async.queued{appender}} – events waiting for the writer thread</li>
+ *     <li>{@code logging.async.dropped{appender,reason=discarded|overflow}} – events the buffer threw away</li>
+ * </ul>
+ * Does nothing when logback is not the logging backend.
+ */
+@Slf4j
+class LoggingPipeline implements MeterBinder, DisposableBean {
+
+    private final LoggerContext context;
+    private final ModuleSamplingFilter filter;
+
+    LoggingPipeline(LoggingProperties properties) {
+        this.context = LoggerFactory.getILoggerFactory() instanceof LoggerContext logback ? logback : null;
+        this.filter = new ModuleSamplingFilter(properties.sampling());
+        if (context == null) {
+            log.warn("Logback is not the logging backend, log sampling and pipeline metrics are off");
+            return;
+        }
+        // a restarted context would otherwise stack a second filter on the shared logger context
+        context.getTurboFilterList().removeIf(existing -> existing.getName().equals(filter.getName()));
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+        log.info("Log sampling of HIGH_VOLUME events: {}", properties.sampling());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (context == null) {
+            return;
+        }
+        filter.modules().values().forEach(sample -> FunctionCounter
+                .builder("logging.sampled.out", sample, ModuleSamplingFilter.Sample::sampledOut)
+                .description("HIGH_VOLUME log events left out by sampling")
+                .tag("module", sample.module())
+                .register(registry));
+
+        for (CountingAsyncAppender appender : asyncAppenders()) {
+            Gauge.builder("logging.async.queued", appender, CountingAsyncAppender::getNumberOfElementsInQueue)
+                    .description("Log events waiting for the writer thread")
+                    .tag("appender", appender.getName())
+                    .register(registry);
+            FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::discarded)
+                    .description("Log events thrown away by the async appender")
+                    .tags("appender", appender.getName(), "reason", "discarded")
+                    .register(registry);
+            FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::overflowed)
+                    .description("Log events thrown away by the async appender")
+                    .tags("appender", appender.getName(), "reason", "overflow")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (context != null) {
+            context.getTurboFilterList().remove(filter);
+            filter.stop();
+        }
+    }
+
+    private List<CountingAsyncAppender> asyncAppenders() {
+        List<CountingAsyncAppender> appenders = new ArrayList<>();
+        Iterator<Appender<ILoggingEvent>> iterator = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (iterator.hasNext()) {
+            if (iterator.next() instanceof CountingAsyncAppender async) {
+                appenders.add(async);
+            }
+        }
+        return appenders;
+    }
+}
@@ -0,0 +1,26 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * @param sampling share of {@code HIGH_VOLUME} events kept per module (0..1, e.g. {@code entry: 0.1});
+ *                 modules not listed keep all of them
+ * @param async    buffer in front of the console appender, read by {@code logback-spring.xml}
+ */
+@ConfigurationProperties("smartparking.logging")
+public record LoggingProperties(
+        @DefaultValue Map<String, Double> sampling,
+        @DefaultValue Async async) {
+
+    /**
+     * @param queueSize  events buffered for the writer thread; once it is 80% full TRACE..INFO events are
+     *                   discarded, so warnings and errors still find room
+     * @param neverBlock drop instead of blocking the logging thread when the buffer is full
+     */
+    public record Async(@DefaultValue("8192") int queueSize,
+                        @DefaultValue("true") boolean neverBlock) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a configured share of the {@link LogMarkers#HIGH_VOLUME} events of each module and denies the rest
+ * before logback builds an event for them. Warnings and errors always pass, as does anything without the marker.
+ */
+class ModuleSamplingFilter extends TurboFilter {
+
+    private static final String BASE_PACKAGE = "com.farabitech.smartparking_system.";
+
+    private static final Sample UNSAMPLED = new Sample(null, 1.0);
+
+    private final Map<String, Sample> modules = new ConcurrentHashMap<>();
+    private final Map<String, Sample> loggers = new ConcurrentHashMap<>();
+
+    ModuleSamplingFilter(Map<String, Double> rates) {
+        rates.forEach((module, rate) -> {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Sampling rate of module " + module + " must be between 0 and 1: " + rate);
+            }
+            modules.put(module, new Sample(module, rate));
+        });
+        setName("module-sampling");
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || level.isGreaterOrEqual(Level.WARN) || !marker.contains(LogMarkers.HIGH_VOLUME)) {
+            return FilterReply.NEUTRAL;
+        }
+        Sample sample = loggers.computeIfAbsent(logger.getName(), this::sampleOf);
+        if (sample.rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sample.rate) {
+            return FilterReply.NEUTRAL;
+        }
+        sample.sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    Map<String, Sample> modules() {
+        return modules;
+    }
+
+    private Sample sampleOf(String loggerName) {
+        if (!loggerName.startsWith(BASE_PACKAGE)) {
+            return UNSAMPLED;
+        }
+        int end = loggerName.indexOf('.', BASE_PACKAGE.length());
+        String module = end < 0 ? loggerName.substring(BASE_PACKAGE.length()) : loggerName.substring(BASE_PACKAGE.length(), end);
+        return modules.getOrDefault(module, UNSAMPLED);
+    }
+
+    static final class Sample {
+
+        private final String module;
+        private final double rate;
+        private final LongAdder sampledOut = new LongAdder();
+
+        private Sample(String module, double rate) {
+            this.module = module;
+            this.rate = rate;
+        }
+
+        String module() {
+            return module;
+        }
+
+        long sampledOut() {
+            return sampledOut.sum();
+        }
+    }
+}
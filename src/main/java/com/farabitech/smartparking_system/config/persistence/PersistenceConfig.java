@@ -0,0 +1,24 @@
+package com.farabitech.smartparking_system.config.persistence;
+
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceGenerator;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer pooledSequenceCustomizer(PersistenceProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, properties.idAllocationSize());
+            if (properties.alignSequences()) {
+                hibernateProperties.put(AvailableSettings.SESSION_FACTORY_OBSERVER,
+                        new SequenceAlignment(properties.idAllocationSize()));
+            }
+        };
+    }
+}
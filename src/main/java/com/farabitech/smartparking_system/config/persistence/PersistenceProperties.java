@@ -0,0 +1,17 @@
+package com.farabitech.smartparking_system.config.persistence;
+
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param idAllocationSize ids reserved per sequence call by {@link PooledSequenceGenerator};
+ *                         keep it at or above {@code hibernate.jdbc.batch_size}
+ * @param alignSequences   move sequences past the highest existing id at startup, for databases
+ *                         whose rows were written with {@code IDENTITY} ids
+ */
+@ConfigurationProperties("smartparking.persistence")
+public record PersistenceProperties(
+        @DefaultValue("" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE) int idAllocationSize,
+        @DefaultValue("true") boolean alignSequences) {
+}
@@ -0,0 +1,84 @@
+package com.farabitech.smartparking_system.config.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migration path from {@code IDENTITY} ids: once the session factory (and with it the schema) is up,
+ * every sequence-generated entity whose sequence would hand out ids at or below the table's current
+ * maximum gets its sequence restarted past it.
+ * <p>
+ * Runs before any repository can insert, and only ever moves a sequence forward, so it is safe to
+ * leave on for databases that are already aligned; the cost is one sequence call per entity.
+ */
+@Slf4j
+class SequenceAlignment implements SessionFactoryObserver {
+
+    private final int allocationSize;
+
+    SequenceAlignment(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) factory;
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        JdbcEnvironment environment = sessionFactory.getJdbcServices().getJdbcEnvironment();
+
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+                if (!(persister.getGenerator() instanceof SequenceStyleGenerator generator)
+                        || !generator.getDatabaseStructure().isPhysicalSequence()
+                        || !(persister instanceof AbstractEntityPersister entityPersister)
+                        || persister.getSuperMappingType() != null) {
+                    return;
+                }
+                String sequence = environment.getQualifiedObjectNameFormatter()
+                        .format(generator.getDatabaseStructure().getPhysicalName(), dialect);
+                String table = entityPersister.getTableName();
+                String idColumn = entityPersister.getIdentifierColumnNames()[0];
+
+                session.doWork(connection -> align(connection, dialect, sequence, table, idColumn));
+            });
+        }
+    }
+
+    private void align(Connection connection, Dialect dialect, String sequence, String table, String idColumn)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long maxId = queryLong(statement, "select coalesce(max(" + idColumn + "), 0) from " + table);
+            if (maxId == 0) {
+                return;
+            }
+            long next = queryLong(statement, dialect.getSequenceSupport().getSequenceNextValString(sequence));
+            // the pooled optimizer hands out (value - allocationSize, value], so the whole block has to clear maxId
+            if (next - allocationSize >= maxId) {
+                return;
+            }
+            long restartWith = maxId + allocationSize + 1;
+            statement.execute("alter sequence " + sequence + " restart with " + restartWith);
+            log.info("Aligned sequence with existing ids: sequence={} table={} maxId={} restartWith={}",
+                    sequence, table, maxId, restartWith);
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
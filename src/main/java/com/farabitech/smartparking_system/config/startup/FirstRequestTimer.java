@@ -0,0 +1,51 @@
+package com.farabitech.smartparking_system.config.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the JVM uptime at which the first request was served as {@code application.first.request.time},
+ * next to Boot's {@code application.started.time} and {@code application.ready.time}.
+ */
+@Slf4j
+class FirstRequestTimer extends OncePerRequestFilter {
+
+    private volatile long firstRequestMillis = -1;
+
+    FirstRequestTimer(MeterRegistry registry) {
+        TimeGauge.builder("application.first.request.time", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.firstRequestMillis < 0 ? Double.NaN : timer.firstRequestMillis)
+                .description("Time from JVM start until the first request completed")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (firstRequestMillis < 0) {
+                record(request);
+            }
+        }
+    }
+
+    private synchronized void record(HttpServletRequest request) {
+        if (firstRequestMillis < 0) {
+            firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("First request ({} {}) served {} ms after JVM start",
+                    request.getMethod(), request.getRequestURI(), firstRequestMillis);
+        }
+    }
+}
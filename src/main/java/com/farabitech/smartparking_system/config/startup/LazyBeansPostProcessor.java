@@ -0,0 +1,72 @@
+package com.farabitech.smartparking_system.config.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.List;
+
+/**
+ * Marks the singletons listed in {@link StartupProperties#lazyBeans()} lazy, so they are created on first
+ * use rather than during refresh. Runs on plain and AOT-processed contexts alike, the list is read at runtime.
+ * Beans an eager bean depends on are still created with it. AOT-generated definitions carry the bean type
+ * instead of the declaring class, so packages match on both, class names only on what the bean is.
+ */
+@Slf4j
+class LazyBeansPostProcessor implements BeanFactoryPostProcessor {
+
+    private final List<String> prefixes;
+
+    LazyBeansPostProcessor(List<String> prefixes) {
+        this.prefixes = prefixes;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        int marked = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!definition.isSingleton() || definition.isLazyInit()
+                    || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+            if (matches(typeName(definition)) || matches(declaringTypeName(beanFactory, definition))) {
+                definition.setLazyInit(true);
+                marked++;
+            }
+        }
+        log.info("Deferred {} beans to first use ({})", marked, prefixes);
+    }
+
+    private boolean matches(String typeName) {
+        if (typeName == null) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (typeName.equals(prefix) || typeName.startsWith(prefix + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String typeName(BeanDefinition definition) {
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        Class<?> type = definition.getResolvableType().resolve();
+        return type != null ? type.getName() : null;
+    }
+
+    private static String declaringTypeName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String factoryBean = definition.getFactoryBeanName();
+        if (factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+            return typeName(beanFactory.getBeanDefinition(factoryBean));
+        }
+        return null;
+    }
+}
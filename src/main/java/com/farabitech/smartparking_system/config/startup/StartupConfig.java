@@ -0,0 +1,31 @@
+package com.farabitech.smartparking_system.config.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+
+    /** Runs before configuration properties beans exist, so it binds its list itself. */
+    @Bean
+    static LazyBeansPostProcessor lazyBeansPostProcessor(Environment environment) {
+        StartupProperties properties = Binder.get(environment)
+                .bindOrCreate("smartparking.startup", StartupProperties.class);
+        return new LazyBeansPostProcessor(properties.lazyBeans());
+    }
+
+    @Bean
+    FirstRequestTimer firstRequestTimer(MeterRegistry registry) {
+        return new FirstRequestTimer(registry);
+    }
+
+    @Bean
+    StartupTimelineReporter startupTimelineReporter(StartupProperties properties) {
+        return new StartupTimelineReporter(properties.slowestSteps());
+    }
+}
@@ -0,0 +1,17 @@
+package com.farabitech.smartparking_system.config.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * @param lazyBeans     bean classes or package prefixes created on first use instead of at startup;
+ *                      a bean declared by a {@code @Bean} method matches through its declaring class
+ * @param slowestSteps  slowest startup steps logged once the application is ready, {@code 0} to skip
+ */
+@ConfigurationProperties("smartparking.startup")
+public record StartupProperties(
+        @DefaultValue List<String> lazyBeans,
+        @DefaultValue("10") int slowestSteps) {
+}
@@ -0,0 +1,49 @@
+package com.farabitech.smartparking_system.config.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the slowest steps of the buffered startup timeline once the application is ready. The full timeline
+ * stays available from the actuator {@code startup} endpoint.
+ */
+@Slf4j
+class StartupTimelineReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final int slowestSteps;
+
+    StartupTimelineReporter(int slowestSteps) {
+        this.slowestSteps = slowestSteps;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (slowestSteps <= 0
+                || !(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        String slowest = startup.getBufferedTimeline().getEvents().stream()
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(slowestSteps)
+                .map(StartupTimelineReporter::describe)
+                .collect(Collectors.joining("\n  "));
+        log.info("Ready in {} ms, slowest startup steps:\n  {}", event.getTimeTaken().toMillis(), slowest);
+    }
+
+    private static String describe(TimelineEvent event) {
+        String name = event.getStartupStep().getName();
+        for (var tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                name += " " + tag.getValue();
+                break;
+            }
+        }
+        return event.getDuration().toMillis() + " ms " + name;
+    }
+}
@@ -0,0 +1,160 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leaves the {@code INTERNAL} spans of the configured modules out of the export. The module is taken from the
+ * code attributes {@code @WithSpan} sets ({@code code.namespace}, or {@code code.function.name} with the stable
+ * conventions). Children of a dropped span are exported with the dropped span's parent as their parent, so
+ * traces stay connected.
+ * <p>
+ * Both facts travel on the spans themselves as marker attributes set at start, which the exporter wrapper
+ * reads and strips; nothing is kept per span in between. The spans are still created: dropping them in the
+ * sampler instead would cut their subtree off the trace.
+ */
+class InternalSpanFilter implements SpanProcessor {
+
+    private static final String BASE_PACKAGE = "com.farabitech.smartparking_system.";
+    private static final AttributeKey<String> CODE_NAMESPACE = AttributeKey.stringKey("code.namespace");
+    private static final AttributeKey<String> CODE_FUNCTION_NAME = AttributeKey.stringKey("code.function.name");
+
+    private static final AttributeKey<Boolean> DROPPED = AttributeKey.booleanKey("smartparking.span.dropped");
+    private static final AttributeKey<String> EXPORTED_PARENT = AttributeKey.stringKey("smartparking.span.exported_parent");
+
+    private final Set<String> modules;
+
+    InternalSpanFilter(Collection<String> modules) {
+        this.modules = Set.copyOf(modules);
+    }
+
+    boolean isActive() {
+        return !modules.isEmpty();
+    }
+
+    SpanExporter wrap(SpanExporter exporter) {
+        return isActive() ? new FilteringExporter(exporter) : exporter;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        if (Span.fromContext(parentContext) instanceof ReadableSpan parent && Boolean.TRUE.equals(parent.getAttribute(DROPPED))) {
+            String grandparent = parent.getAttribute(EXPORTED_PARENT);
+            span.setAttribute(EXPORTED_PARENT, grandparent != null ? grandparent : parent.getParentSpanContext().getSpanId());
+        }
+        if (span.getKind() == SpanKind.INTERNAL && modules.contains(moduleOf(span))) {
+            span.setAttribute(DROPPED, true);
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return false;
+    }
+
+    private static String moduleOf(ReadableSpan span) {
+        String code = span.getAttribute(CODE_NAMESPACE);
+        if (code == null) {
+            code = span.getAttribute(CODE_FUNCTION_NAME);
+        }
+        if (code == null || !code.startsWith(BASE_PACKAGE)) {
+            return "";
+        }
+        int end = code.indexOf('.', BASE_PACKAGE.length());
+        return end < 0 ? code.substring(BASE_PACKAGE.length()) : code.substring(BASE_PACKAGE.length(), end);
+    }
+
+    private static final class FilteringExporter implements SpanExporter {
+
+        private final SpanExporter delegate;
+
+        FilteringExporter(SpanExporter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            List<SpanData> exported = new ArrayList<>(spans.size());
+            for (SpanData span : spans) {
+                Attributes attributes = span.getAttributes();
+                if (Boolean.TRUE.equals(attributes.get(DROPPED))) {
+                    continue;
+                }
+                String parentId = attributes.get(EXPORTED_PARENT);
+                exported.add(parentId == null ? span : new ReparentedSpanData(span, parentId));
+            }
+            return exported.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(exported);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+    }
+
+    private static final class ReparentedSpanData extends DelegatingSpanData {
+
+        private final SpanContext parent;
+        private final Attributes attributes;
+
+        ReparentedSpanData(SpanData delegate, String parentId) {
+            super(delegate);
+            SpanContext own = delegate.getSpanContext();
+            this.parent = SpanId.isValid(parentId)
+                    ? SpanContext.create(own.getTraceId(), parentId, own.getTraceFlags(), own.getTraceState())
+                    : SpanContext.getInvalid();
+            this.attributes = delegate.getAttributes().toBuilder().remove(EXPORTED_PARENT).build();
+        }
+
+        @Override
+        public SpanContext getParentSpanContext() {
+            return parent;
+        }
+
+        @Override
+        public String getParentSpanId() {
+            return parent.getSpanId();
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public int getTotalAttributeCount() {
+            return super.getTotalAttributeCount() - 1;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Samples a span when its parent is sampled, and a new trace with the configured ratio (by trace id, so every
+ * service taking part makes the same call). Everything else is recorded without the sampled flag when tail
+ * sampling is on, for {@link TailSamplingSpanProcessor} to decide on once the trace has ended, and dropped
+ * otherwise.
+ */
+class ParentBasedRatioSampler implements Sampler {
+
+    private static final SamplingResult RECORD_ONLY = SamplingResult.create(SamplingDecision.RECORD_ONLY);
+
+    private final Sampler ratio;
+    private final SamplingResult unsampled;
+
+    ParentBasedRatioSampler(double ratio, boolean tail) {
+        this.ratio = Sampler.traceIdRatioBased(ratio);
+        this.unsampled = tail ? RECORD_ONLY : SamplingResult.drop();
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (parent.isValid()) {
+            return parent.isSampled() ? SamplingResult.recordAndSample() : unsampled;
+        }
+        SamplingResult result = ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        return result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE ? result : unsampled;
+    }
+
+    @Override
+    public String getDescription() {
+        return "ParentBasedRatioSampler{" + ratio.getDescription() + ", unsampled=" + unsampled.getDecision() + "}";
+    }
+}
@@ -0,0 +1,199 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tail sampling for the traces {@link ParentBasedRatioSampler} recorded without sampling them. Their spans are
+ * buffered per trace until the local root span ends; the trace is exported when the root took at least
+ * {@code latency-threshold} or any of its spans ended with an error, and forgotten otherwise. Spans of a kept
+ * trace that end after its root (asynchronous listeners) follow it straight out. Sampled spans are left to the
+ * regular batch processor.
+ * <p>
+ * Buffers are striped by trace id, each bounded in size and age; a trace pushed out of its buffer is decided on
+ * the spans seen so far. Kept spans are handed to a {@link BatchSpanProcessor} per exporter, so the span that
+ * completes a trace neither waits for the export nor holds up spans ending in other traces meanwhile.
+ */
+class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final int STRIPES = 16;
+
+    private final long thresholdNanos;
+    private final long maxAgeNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final List<SpanProcessor> exports = new CopyOnWriteArrayList<>();
+
+    private final LongAdder kept = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    TailSamplingSpanProcessor(TracingProperties.Tail properties) {
+        this.thresholdNanos = properties.latencyThreshold().toNanos();
+        this.maxAgeNanos = properties.maxTraceAge().toNanos();
+        int capacity = Math.max(1, properties.maxTraces() / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /** Kept traces go to every exporter registered here. */
+    void exportTo(SpanExporter exporter) {
+        // the spans of a tail-sampled trace are recorded without the sampled flag
+        exports.add(BatchSpanProcessor.builder(exporter).setExportUnsampledSpans(true).build());
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext context = span.getSpanContext();
+        if (context.isSampled()) {
+            return;
+        }
+        boolean notable = span.getLatencyNanos() >= thresholdNanos
+                || span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+
+        String traceId = context.getTraceId();
+        List<ReadableSpan> export = stripes[Math.floorMod(traceId.hashCode(), STRIPES)]
+                .add(traceId, span, notable, localRoot, System.nanoTime());
+        for (ReadableSpan keptSpan : export) {
+            for (SpanProcessor processor : exports) {
+                processor.onEnd(keptSpan);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    long kept() {
+        return kept.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long evicted() {
+        return evicted.sum();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofAll(exports.stream().map(SpanProcessor::shutdown).toList());
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofAll(exports.stream().map(SpanProcessor::forceFlush).toList());
+    }
+
+    private final class Stripe {
+
+        private final int capacity;
+        private final LinkedHashMap<String, PendingTrace> pending = new LinkedHashMap<>();
+        private final LinkedHashMap<String, Boolean> keptTraces;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.keptTraces = new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > Stripe.this.capacity;
+                }
+            };
+        }
+
+        synchronized List<ReadableSpan> add(String traceId, ReadableSpan span, boolean notable, boolean localRoot, long now) {
+            List<ReadableSpan> export = new ArrayList<>(0);
+            evictExpired(now, export);
+
+            if (keptTraces.containsKey(traceId)) {
+                export.add(span);
+                return export;
+            }
+            PendingTrace trace = localRoot ? pending.remove(traceId) : pending.get(traceId);
+            if (localRoot) {
+                if (notable || (trace != null && trace.notable)) {
+                    if (trace != null) {
+                        export.addAll(trace.spans);
+                    }
+                    export.add(span);
+                    keptTraces.put(traceId, Boolean.TRUE);
+                    kept.increment();
+                } else {
+                    dropped.increment();
+                }
+                return export;
+            }
+            if (trace == null) {
+                if (pending.size() >= capacity) {
+                    Iterator<PendingTrace> eldest = pending.values().iterator();
+                    evict(eldest.next(), export);
+                    eldest.remove();
+                }
+                trace = new PendingTrace(now);
+                pending.put(traceId, trace);
+            }
+            trace.spans.add(span);
+            trace.notable |= notable;
+            return export;
+        }
+
+        private void evictExpired(long now, List<ReadableSpan> export) {
+            Iterator<PendingTrace> oldest = pending.values().iterator();
+            while (oldest.hasNext()) {
+                PendingTrace trace = oldest.next();
+                if (now - trace.createdNanos < maxAgeNanos) {
+                    return;
+                }
+                evict(trace, export);
+                oldest.remove();
+            }
+        }
+
+        private void evict(PendingTrace trace, List<ReadableSpan> export) {
+            evicted.increment();
+            if (trace.notable) {
+                export.addAll(trace.spans);
+            }
+        }
+    }
+
+    private static final class PendingTrace {
+
+        private final long createdNanos;
+        private final List<ReadableSpan> spans = new ArrayList<>(4);
+        private boolean notable;
+
+        PendingTrace(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the starter's sampler ({@code otel.traces.sampler}) with {@link ParentBasedRatioSampler} and adds
+ * tail sampling and the per-module internal span filter to every span exporter the starter configures.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    TailSamplingSpanProcessor tailSamplingSpanProcessor(TracingProperties properties) {
+        return new TailSamplingSpanProcessor(properties.tail());
+    }
+
+    @Bean
+    InternalSpanFilter internalSpanFilter(TracingProperties properties) {
+        return new InternalSpanFilter(properties.dropInternal());
+    }
+
+    @Bean
+    AutoConfigurationCustomizerProvider tracingCustomizer(TracingProperties properties,
+                                                          TailSamplingSpanProcessor tail,
+                                                          InternalSpanFilter internalSpans) {
+        if (properties.ratio() < 0 || properties.ratio() > 1) {
+            throw new IllegalArgumentException("smartparking.tracing.ratio must be between 0 and 1: " + properties.ratio());
+        }
+        return customizer -> customizer
+                .addSamplerCustomizer((configured, config) -> {
+                    ParentBasedRatioSampler sampler = new ParentBasedRatioSampler(properties.ratio(), properties.tail().enabled());
+                    log.info("Tracing with {}, tail latency threshold {}, internal spans dropped for {}",
+                            sampler.getDescription(), properties.tail().latencyThreshold(), properties.dropInternal());
+                    return sampler;
+                })
+                .addSpanExporterCustomizer((exporter, config) -> {
+                    SpanExporter filtered = internalSpans.wrap(exporter);
+                    tail.exportTo(filtered);
+                    return filtered;
+                })
+                .addTracerProviderCustomizer((builder, config) -> {
+                    if (internalSpans.isActive()) {
+                        builder.addSpanProcessor(internalSpans);
+                    }
+                    if (properties.tail().enabled()) {
+                        builder.addSpanProcessor(tail);
+                    }
+                    return builder;
+                });
+    }
+
+    @Bean
+    MeterBinder tailSamplingMetrics(TailSamplingSpanProcessor tail) {
+        return registry -> {
+            FunctionCounter.builder("tracing.tail.traces", tail, TailSamplingSpanProcessor::kept)
+                    .description("Unsampled traces exported because they were slow or failed")
+                    .tag("decision", "kept")
+                    .register(registry);
+            FunctionCounter.builder("tracing.tail.traces", tail, TailSamplingSpanProcessor::dropped)
+                    .description("Unsampled traces that ended fast and without errors")
+                    .tag("decision", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("tracing.tail.traces", tail, TailSamplingSpanProcessor::evicted)
+                    .description("Unsampled traces decided before their root span ended (buffer full or too old)")
+                    .tag("decision", "evicted")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param ratio        share of new traces sampled up front (0..1); spans with a sampled parent are always sampled
+ * @param tail         keeps traces the ratio left out when they turn out slow or failed
+ * @param dropInternal modules whose {@code INTERNAL} spans are left out of the export; their children are
+ *                     re-attached to the dropped span's parent
+ */
+@ConfigurationProperties("smartparking.tracing")
+public record TracingProperties(
+        @DefaultValue("1.0") double ratio,
+        @DefaultValue Tail tail,
+        @DefaultValue List<String> dropInternal) {
+
+    /**
+     * @param enabled          record the spans of unsampled traces so they can still be exported; off means
+     *                         unsampled spans are not recorded at all (cheapest)
+     * @param latencyThreshold a trace whose local root span takes at least this long is exported
+     * @param maxTraces        unsampled traces buffered at once, the oldest are dropped beyond that
+     * @param maxTraceAge      a buffered trace whose root span has not ended after this long is decided on
+     *                         the spans seen so far
+     */
+    public record Tail(@DefaultValue("true") boolean enabled,
+                       @DefaultValue("500ms") Duration latencyThreshold,
+                       @DefaultValue("10000") int maxTraces,
+                       @DefaultValue("30s") Duration maxTraceAge) {
+    }
+}
@@ -1,9 +1,18 @@
 package com.farabitech.smartparking_system.entry.internal;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import lombok.extern.slf4j.Slf4j;
 import io.opentelemetry.api.trace.SpanKind;
 import org.springframework.stereotype.Service;
 import com.farabitech.smartparking_system.entry.spi.EntrySPI;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.dto.IngestionTicketDTO;
+import com.farabitech.smartparking_system.entry.spi.exceptions.TicketNotFoundException;
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.internal.service.GateIngestion;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import org.springframework.context.ApplicationEventPublisher;
 import com.farabitech.smartparking_system.entry.internal.service.EntryService;
@@ -15,33 +24,83 @@ public class EntryManagement implements EntrySPI {
 
     private final EntryService entryService;
     private final ExitService exitService;
+    private final GateIngestion ingestion;
     private final ApplicationEventPublisher publisher;
 
-    public EntryManagement(EntryService entryService, ExitService exitService, ApplicationEventPublisher publisher) {
+    public EntryManagement(EntryService entryService, ExitService exitService, GateIngestion ingestion,
+                           ApplicationEventPublisher publisher) {
         this.entryService = entryService;
         this.exitService = exitService;
+        this.ingestion = ingestion;
         this.publisher = publisher;
     }
 
     @Override
     @WithSpan(value = "EntryManagement#vehicleEntry", kind = SpanKind.INTERNAL)
-    public void vehicleEntry(String vehicleNumber) {
-        log.info("Processing vehicle entry in EntryManagement: vehicleNumber={}", vehicleNumber);
+    public void vehicleEntry(String vehicleNumber, String facilityId, String gateId) {
+        log.debug("Processing vehicle entry in EntryManagement: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
 
-        entryService.vehicleEntry(vehicleNumber);
+        entryService.vehicleEntry(vehicleNumber, facilityId, gateId);
 
-        log.info("Vehicle entry completed in EntryManagement: vehicleNumber={}", vehicleNumber);
+        log.debug("Vehicle entry completed in EntryManagement: vehicleNumber={}", vehicleNumber);
 
     }
 
     @Override
     @WithSpan(value = "EntryManagement#vehicleExit", kind = SpanKind.INTERNAL)
-    public void vehicleExit(String vehicleNumber) {
-        log.info("Processing vehicle exit in EntryManagement: vehicleNumber={}", vehicleNumber);
+    public void vehicleExit(String vehicleNumber, String facilityId, String gateId) {
+        log.debug("Processing vehicle exit in EntryManagement: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
+
+        exitService.vehicleExit(vehicleNumber, facilityId, gateId);
+
+        log.debug("Vehicle exit completed in EntryManagement: vehicleNumber={}", vehicleNumber);
+
+    }
+
+    @Override
+    @WithSpan(value = "EntryManagement#vehicleEntries", kind = SpanKind.INTERNAL)
+    public List<BatchItemResult> vehicleEntries(List<String> vehicleNumbers, String facilityId, String gateId) {
+        log.info("Processing vehicle entry batch in EntryManagement: size={} facilityId={} gateId={}",
+                vehicleNumbers.size(), facilityId, gateId);
+
+        return entryService.vehicleEntries(vehicleNumbers, facilityId, gateId);
+    }
 
-        exitService.vehicleExit(vehicleNumber);
+    @Override
+    @WithSpan(value = "EntryManagement#vehicleExits", kind = SpanKind.INTERNAL)
+    public List<BatchItemResult> vehicleExits(List<String> vehicleNumbers, String facilityId, String gateId) {
+        log.info("Processing vehicle exit batch in EntryManagement: size={} facilityId={} gateId={}",
+                vehicleNumbers.size(), facilityId, gateId);
+
+        return exitService.vehicleExits(vehicleNumbers, facilityId, gateId);
+    }
 
-        log.info("Vehicle exit completed in EntryManagement: vehicleNumber={}", vehicleNumber);
+    @Override
+    @WithSpan(value = "EntryManagement#submitEntry", kind = SpanKind.INTERNAL)
+    public IngestionTicketDTO submitEntry(String vehicleNumber, String facilityId, String gateId) {
+        return ingestion.submit(GateOperation.ENTRY, vehicleNumber, facilityId, gateId).getState();
+    }
+
+    @Override
+    @WithSpan(value = "EntryManagement#submitExit", kind = SpanKind.INTERNAL)
+    public IngestionTicketDTO submitExit(String vehicleNumber, String facilityId, String gateId) {
+        return ingestion.submit(GateOperation.EXIT, vehicleNumber, facilityId, gateId).getState();
+    }
+
+    @Override
+    public IngestionTicketDTO getTicket(String ticketId) {
+        return ticket(ticketId).getState();
+    }
+
+    @Override
+    public CompletableFuture<IngestionTicketDTO> awaitTicket(String ticketId) {
+        // a copy, so that callers completing or timing out their future leave the ticket alone
+        return ticket(ticketId).getResult().copy();
+    }
 
+    private IngestionTicket ticket(String ticketId) {
+        return ingestion.find(ticketId).orElseThrow(() -> new TicketNotFoundException(ticketId));
     }
 }
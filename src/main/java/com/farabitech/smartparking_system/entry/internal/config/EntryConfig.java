@@ -0,0 +1,9 @@
+package com.farabitech.smartparking_system.entry.internal.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IngestionProperties.class)
+class EntryConfig {
+}
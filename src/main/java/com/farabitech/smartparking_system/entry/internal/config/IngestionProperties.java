@@ -0,0 +1,22 @@
+package com.farabitech.smartparking_system.entry.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous gate ingestion, bound from {@code smartparking.entry.ingestion.*}.
+ *
+ * @param queueCapacity   operations accepted but not yet committed; submissions beyond it are refused
+ * @param maxBatchSize    most operations committed in one transaction
+ * @param linger          how long after the oldest operation of a batch the writer waits for more before
+ *                        committing; {@code 0} commits whatever is queued right away
+ * @param ticketRetention how long the outcome of an operation can be polled after it was committed
+ */
+@ConfigurationProperties("smartparking.entry.ingestion")
+public record IngestionProperties(@DefaultValue("10000") int queueCapacity,
+                                  @DefaultValue("500") int maxBatchSize,
+                                  @DefaultValue("5ms") Duration linger,
+                                  @DefaultValue("5m") Duration ticketRetention) {
+}
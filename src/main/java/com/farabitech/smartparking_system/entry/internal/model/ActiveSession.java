@@ -0,0 +1,19 @@
+package com.farabitech.smartparking_system.entry.internal.model;
+
+import com.farabitech.smartparking_system.common.facility.Facilities;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of an active {@link ParkingEntry} the exit path needs, kept in memory while the vehicle is parked.
+ */
+public record ActiveSession(Long entryId, String vehicleNumber, LocalDateTime entryTime, String facilityId) {
+
+    public ActiveSession {
+        facilityId = Facilities.orDefault(facilityId);
+    }
+
+    public static ActiveSession of(ParkingEntry entry) {
+        return new ActiveSession(entry.getId(), entry.getVehicleNumber(), entry.getEntryTime(), entry.getFacilityId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.farabitech.smartparking_system.entry.internal.model;
+
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.dto.IngestionTicketDTO;
+import com.farabitech.smartparking_system.entry.spi.dto.TicketStatus;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An entry or exit waiting in the ingestion queue, and its outcome once committed.
+ */
+@Getter
+public class IngestionTicket {
+
+    private final String id = UUID.randomUUID().toString();
+    private final GateOperation operation;
+    private final String vehicleNumber;
+    private final String facilityId;
+    private final String gateId;
+    private final Instant submittedAt = Instant.now();
+    private final long submittedNanos = System.nanoTime();
+    private final CompletableFuture<IngestionTicketDTO> result = new CompletableFuture<>();
+    private volatile IngestionTicketDTO state;
+    private volatile long completedNanos;
+
+    public IngestionTicket(GateOperation operation, String vehicleNumber, String facilityId, String gateId) {
+        this.operation = operation;
+        this.vehicleNumber = vehicleNumber;
+        this.facilityId = facilityId;
+        this.gateId = gateId;
+        this.state = state(TicketStatus.PENDING, null, null);
+    }
+
+    public void complete(BatchItemResult outcome) {
+        completedNanos = System.nanoTime();
+        state = state(outcome.success() ? TicketStatus.ACCEPTED : TicketStatus.REJECTED, outcome.error(), Instant.now());
+        result.complete(state);
+    }
+
+    private IngestionTicketDTO state(TicketStatus status, String error, Instant completedAt) {
+        return new IngestionTicketDTO(id, operation, vehicleNumber, facilityId, gateId, status, error,
+                submittedAt, completedAt);
+    }
+}
@@ -1,8 +1,11 @@
 package com.farabitech.smartparking_system.entry.internal.model;
 
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import com.farabitech.smartparking_system.common.persistence.PooledSequenceId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,12 +16,20 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_parking_entry_vehicle_active", columnList = "vehicleNumber, active"))
 public class ParkingEntry {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @PooledSequenceId(name = "parking_entry_seq")
     private Long id;
     private String vehicleNumber;
     private LocalDateTime entryTime;
     private LocalDateTime exitTime;
     private boolean active;
+    private String facilityId;
+    private String entryGateId;
+    private String exitGateId;
+
+    public ParkingEntry(Long id, String vehicleNumber, LocalDateTime entryTime, LocalDateTime exitTime, boolean active) {
+        this(id, vehicleNumber, entryTime, exitTime, active, Facilities.DEFAULT, null, null);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,31 @@
 package com.farabitech.smartparking_system.entry.internal.repository;
 
+import com.farabitech.smartparking_system.entry.internal.model.ActiveSession;
 import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ParkingEntryRepository extends JpaRepository<ParkingEntry,Long> {
     Optional<ParkingEntry> findByVehicleNumberAndActiveTrue(String vehicleNumber);
+
+    List<ParkingEntry> findByVehicleNumberInAndActiveTrue(Collection<String> vehicleNumbers);
+
+    @Query("select new com.farabitech.smartparking_system.entry.internal.model.ActiveSession(e.id, e.vehicleNumber, e.entryTime, e.facilityId) " +
+            "from ParkingEntry e where e.active = true")
+    List<ActiveSession> findActiveSessions();
+
+    /**
+     * Closes an entry by id without loading it; returns 0 if it is no longer active.
+     */
+    @Modifying
+    @Query("update ParkingEntry e set e.exitTime = :exitTime, e.exitGateId = :gateId, e.active = false " +
+            "where e.id = :id and e.active = true")
+    int close(@Param("id") Long id, @Param("exitTime") LocalDateTime exitTime, @Param("gateId") String gateId);
 }
@@ -0,0 +1,99 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.entry.internal.model.ActiveSession;
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the vehicles currently parked, keyed by vehicle number.
+ * <p>
+ * Loaded from the active {@link ParkingEntry} rows at startup and updated once entry and exit
+ * transactions commit, so an exit resolves its entry without searching the table. The index is
+ * a hint, not the source of truth: callers close the entry with a guarded update and fall back
+ * to the database when the index has nothing or turns out to be stale.
+ */
+@Slf4j
+@Component
+public class ActiveSessionIndex {
+
+    private final ParkingEntryRepository repository;
+    private final Map<String, ActiveSession> sessions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ActiveSessionIndex(ParkingEntryRepository repository, MeterRegistry registry) {
+        this.repository = repository;
+        this.hits = Counter.builder("entry.sessions.lookups").tag("result", "hit")
+                .description("Active session lookups served from memory").register(registry);
+        this.misses = Counter.builder("entry.sessions.lookups").tag("result", "miss")
+                .description("Active session lookups that fell back to the database").register(registry);
+        Gauge.builder("entry.sessions.active", sessions, Map::size)
+                .description("Vehicles currently parked").register(registry);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Map<String, ActiveSession> loaded = new ConcurrentHashMap<>();
+        repository.findActiveSessions().forEach(session -> loaded.put(session.vehicleNumber(), session));
+        sessions.clear();
+        sessions.putAll(loaded);
+        log.info("Active session index rebuilt: sessions={}", sessions.size());
+    }
+
+    public Optional<ActiveSession> lookup(String vehicleNumber) {
+        ActiveSession session = vehicleNumber == null ? null : sessions.get(vehicleNumber);
+        (session != null ? hits : misses).increment();
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Adds the session once the current transaction commits.
+     */
+    public void opened(ActiveSession session) {
+        afterCommit(() -> sessions.put(session.vehicleNumber(), session));
+    }
+
+    /**
+     * Removes the session once the current transaction commits, unless the vehicle has entered again since.
+     */
+    public void closed(ActiveSession session) {
+        afterCommit(() -> evict(session));
+    }
+
+    /**
+     * Drops a session the database no longer considers active.
+     */
+    public void evict(ActiveSession session) {
+        sessions.computeIfPresent(session.vehicleNumber(),
+                (vehicleNumber, current) -> current.entryId().equals(session.entryId()) ? null : current);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -2,14 +2,22 @@ package com.farabitech.smartparking_system.entry.internal.service;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import com.farabitech.smartparking_system.entry.internal.model.ActiveSession;
 import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
 import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
 
 @Slf4j
 @Service
@@ -17,33 +25,78 @@ public class EntryService {
 
     private final ParkingEntryRepository repository;
     private final ApplicationEventPublisher publisher;
+    private final ActiveSessionIndex sessions;
 
     public EntryService(ParkingEntryRepository repository,
-                        ApplicationEventPublisher publisher) {
+                        ApplicationEventPublisher publisher,
+                        ActiveSessionIndex sessions) {
         this.repository = repository;
         this.publisher = publisher;
+        this.sessions = sessions;
     }
 
 
     @Transactional
-    public void vehicleEntry(String vehicleNumber) {
-        log.info("Processing vehicle entry: vehicleNumber={}", vehicleNumber);
+    public void vehicleEntry(String vehicleNumber, String facilityId, String gateId) {
+        log.debug("Processing vehicle entry: vehicleNumber={} facilityId={} gateId={}", vehicleNumber, facilityId, gateId);
 
-        ParkingEntry parkingEntry = new ParkingEntry(null, vehicleNumber, LocalDateTime.now(), null, true);
+        ParkingEntry parkingEntry = new ParkingEntry(null, vehicleNumber, LocalDateTime.now(), null, true,
+                Facilities.orDefault(facilityId), gateId, null);
 
         ParkingEntry savedEntry =  repository.save(parkingEntry);
+        sessions.opened(ActiveSession.of(savedEntry));
 
         log.debug("Saved parking entry: id={} vehicleNumber={} entryTime={}",
                 savedEntry.getId(),
                 savedEntry.getVehicleNumber(),
                 savedEntry.getEntryTime());
 
-        publisher.publishEvent(new VehicleEnteredEvent(vehicleNumber, parkingEntry.getEntryTime()));
+        publisher.publishEvent(new VehicleEnteredEvent(vehicleNumber, parkingEntry.getEntryTime(),
+                parkingEntry.getFacilityId(), gateId));
 
 
-        log.info("Vehicle entry event published: vehicleNumber={} entryTime={}",
+        log.info(LogMarkers.HIGH_VOLUME, "Vehicle entry event published: vehicleNumber={} entryTime={}",
                 vehicleNumber,
                 savedEntry.getEntryTime());
 
     }
+
+    @Transactional
+    public List<BatchItemResult> vehicleEntries(List<String> vehicleNumbers, String facilityId, String gateId) {
+        log.info("Processing vehicle entry batch: size={} facilityId={} gateId={}", vehicleNumbers.size(), facilityId, gateId);
+
+        String facility = Facilities.orDefault(facilityId);
+
+        Set<String> alreadyParked = new HashSet<>();
+        repository.findByVehicleNumberInAndActiveTrue(vehicleNumbers)
+                .forEach(entry -> alreadyParked.add(entry.getVehicleNumber()));
+
+        LocalDateTime entryTime = LocalDateTime.now();
+        Set<String> seen = new HashSet<>();
+        List<BatchItemResult> results = new ArrayList<>(vehicleNumbers.size());
+        List<ParkingEntry> entries = new ArrayList<>(vehicleNumbers.size());
+
+        for (String vehicleNumber : vehicleNumbers) {
+            if (vehicleNumber == null || vehicleNumber.isBlank()) {
+                results.add(BatchItemResult.failed(vehicleNumber, "Vehicle number is required"));
+            } else if (alreadyParked.contains(vehicleNumber) || !seen.add(vehicleNumber)) {
+                results.add(BatchItemResult.failed(vehicleNumber, "Vehicle " + vehicleNumber + " is already parked"));
+            } else {
+                entries.add(new ParkingEntry(null, vehicleNumber, entryTime, null, true, facility, gateId, null));
+                results.add(BatchItemResult.ok(vehicleNumber));
+            }
+        }
+
+        repository.saveAll(entries);
+        entries.forEach(entry -> {
+            sessions.opened(ActiveSession.of(entry));
+            publisher.publishEvent(new VehicleEnteredEvent(entry.getVehicleNumber(), entry.getEntryTime(),
+                    facility, gateId));
+        });
+
+        log.info("Vehicle entry batch published: accepted={} rejected={}",
+                entries.size(), vehicleNumbers.size() - entries.size());
+
+        return results;
+    }
 }
@@ -1,15 +1,22 @@
 package com.farabitech.smartparking_system.entry.internal.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
+import com.farabitech.smartparking_system.entry.internal.model.ActiveSession;
 import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
 import com.farabitech.smartparking_system.entry.spi.exceptions.EntryNotFoundException;
 import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
 
 @Slf4j
 @Service
@@ -17,40 +24,132 @@ public class ExitService {
 
     private final ParkingEntryRepository repository;
     private final ApplicationEventPublisher publisher;
+    private final ActiveSessionIndex sessions;
 
     public ExitService(ParkingEntryRepository repository,
-                       ApplicationEventPublisher publisher) {
+                       ApplicationEventPublisher publisher,
+                       ActiveSessionIndex sessions) {
         this.repository = repository;
         this.publisher = publisher;
+        this.sessions = sessions;
     }
 
 
     @Transactional
-    public void vehicleExit(String vehicleNumber) {
-        log.info("Processing vehicle exit: vehicleNumber={}", vehicleNumber);
+    public void vehicleExit(String vehicleNumber, String facilityId, String gateId) {
+        log.debug("Processing vehicle exit: vehicleNumber={} facilityId={} gateId={}", vehicleNumber, facilityId, gateId);
 
+        LocalDateTime exitTime = LocalDateTime.now();
+        ActiveSession session = sessions.lookup(vehicleNumber)
+                .filter(indexed -> closeIndexed(indexed, exitTime, gateId))
+                .orElseGet(() -> closeFromDatabase(vehicleNumber, exitTime, gateId));
+        sessions.closed(session);
+        checkFacility(session.vehicleNumber(), session.facilityId(), facilityId);
+
+        log.debug("Closed parking entry: id={} vehicleNumber={} entryTime={} exitTime={}",
+                session.entryId(),
+                vehicleNumber,
+                session.entryTime(),
+                exitTime);
+
+
+        publisher.publishEvent(new VehicleExitedEvent(vehicleNumber, session.entryTime(), exitTime,
+                session.facilityId(), gateId));
+
+        log.info(LogMarkers.HIGH_VOLUME, "Vehicle exit event published: vehicleNumber={} exitTime={}",
+                vehicleNumber,
+                exitTime);
+    }
+
+    @Transactional
+    public List<BatchItemResult> vehicleExits(List<String> vehicleNumbers, String facilityId, String gateId) {
+        log.info("Processing vehicle exit batch: size={} facilityId={} gateId={}", vehicleNumbers.size(), facilityId, gateId);
+
+        // resolve through the index by primary key, and only search by vehicle number for the rest
+        Map<Long, ActiveSession> indexed = new HashMap<>();
+        vehicleNumbers.forEach(vehicleNumber ->
+                sessions.lookup(vehicleNumber).ifPresent(session -> indexed.put(session.entryId(), session)));
+
+        Map<String, ParkingEntry> active = new HashMap<>();
+        repository.findAllById(indexed.keySet()).stream()
+                .filter(ParkingEntry::isActive)
+                .forEach(entry -> active.put(entry.getVehicleNumber(), entry));
+        indexed.values().stream()
+                .filter(session -> !active.containsKey(session.vehicleNumber()))
+                .forEach(sessions::evict);
+
+        List<String> unresolved = vehicleNumbers.stream()
+                .filter(vehicleNumber -> vehicleNumber != null && !active.containsKey(vehicleNumber))
+                .distinct()
+                .toList();
+        if (!unresolved.isEmpty()) {
+            repository.findByVehicleNumberInAndActiveTrue(unresolved)
+                    .forEach(entry -> active.putIfAbsent(entry.getVehicleNumber(), entry));
+        }
+
+        LocalDateTime exitTime = LocalDateTime.now();
+        List<BatchItemResult> results = new ArrayList<>(vehicleNumbers.size());
+        List<ActiveSession> exited = new ArrayList<>(vehicleNumbers.size());
+
+        for (String vehicleNumber : vehicleNumbers) {
+            // remove() so a vehicle listed twice only exits once
+            ParkingEntry entry = vehicleNumber == null ? null : active.remove(vehicleNumber);
+            // guarded like a single exit, so an entry closed concurrently elsewhere is not closed twice
+            if (entry == null || repository.close(entry.getId(), exitTime, gateId) == 0) {
+                results.add(BatchItemResult.failed(vehicleNumber,
+                        EntryNotFoundException.forVehicleEntry(vehicleNumber).getMessage()));
+                continue;
+            }
+            exited.add(ActiveSession.of(entry));
+            results.add(BatchItemResult.ok(vehicleNumber));
+        }
+
+        exited.forEach(session -> {
+            sessions.closed(session);
+            checkFacility(session.vehicleNumber(), session.facilityId(), facilityId);
+            publisher.publishEvent(new VehicleExitedEvent(session.vehicleNumber(), session.entryTime(),
+                    exitTime, session.facilityId(), gateId));
+        });
+
+        log.info("Vehicle exit batch published: accepted={} rejected={}",
+                exited.size(), vehicleNumbers.size() - exited.size());
+
+        return results;
+    }
+
+    private boolean closeIndexed(ActiveSession session, LocalDateTime exitTime, String gateId) {
+        if (repository.close(session.entryId(), exitTime, gateId) == 1) {
+            return true;
+        }
+        log.debug("Stale active session, falling back to the database: id={} vehicleNumber={}",
+                session.entryId(), session.vehicleNumber());
+        sessions.evict(session);
+        return false;
+    }
+
+    private ActiveSession closeFromDatabase(String vehicleNumber, LocalDateTime exitTime, String gateId) {
         ParkingEntry entry = repository.findByVehicleNumberAndActiveTrue(vehicleNumber)
                 .orElseThrow(() -> {
                     log.warn("Active entry not found for vehicleNumber={}", vehicleNumber);
                     return EntryNotFoundException.forVehicleEntry(vehicleNumber);
                 });
 
-        entry.setExitTime(LocalDateTime.now());
+        entry.setExitTime(exitTime);
+        entry.setExitGateId(gateId);
         entry.setActive(false);
+        repository.save(entry);
+        return ActiveSession.of(entry);
+    }
 
-        ParkingEntry updatedEntry = repository.save(entry);
-
-        log.debug("Updated parking entry: id={} vehicleNumber={} entryTime={} exitTime={}",
-                updatedEntry.getId(),
-                updatedEntry.getVehicleNumber(),
-                updatedEntry.getEntryTime(),
-                updatedEntry.getExitTime());
-
-
-        publisher.publishEvent(new VehicleExitedEvent(vehicleNumber, entry.getEntryTime(), entry.getExitTime()));
-
-        log.info("Vehicle exit event published: vehicleNumber={} exitTime={}",
-                vehicleNumber,
-                updatedEntry.getExitTime());
+    /**
+     * The vehicle leaves the facility it entered; an exit reported for another one is most likely a
+     * misconfigured gate, so it is logged rather than rejected. Shared with {@link IngestionWriter} so that
+     * every exit path applies the same rule.
+     */
+    static void checkFacility(String vehicleNumber, String entered, String reported) {
+        if (reported != null && !reported.equals(entered)) {
+            log.warn("Exit reported for another facility than the entry: vehicleNumber={} entryFacilityId={} exitFacilityId={}",
+                    vehicleNumber, entered, reported);
+        }
     }
 }
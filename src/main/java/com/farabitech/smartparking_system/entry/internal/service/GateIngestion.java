@@ -0,0 +1,253 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.entry.internal.config.IngestionProperties;
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.exceptions.IngestionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records gate entries and exits without holding the request until they are committed.
+ * <p>
+ * {@link #submit} puts the operation on a bounded queue and returns its ticket right away. A writer
+ * thread takes the oldest operation, waits up to the linger time for more to arrive and commits
+ * everything it has, up to the maximum batch size, through {@link IngestionWriter} in one transaction:
+ * one commit for a few milliseconds of gate traffic instead of one per car. Operations are applied in
+ * the order they were submitted. A batch holds at most one operation per vehicle, because the listeners
+ * of one commit's events run concurrently: it ends before a vehicle's second operation, which starts the
+ * next commit. If the transaction fails as a whole, the batch is retried one operation at a time so that
+ * a single bad operation only rejects its own ticket.
+ * <p>
+ * Tickets stay available for polling for the retention time after they were completed. A full queue
+ * refuses the submission instead of blocking the request. Operations still queued when the application
+ * stops are committed first; a crash loses them, and their tickets never complete.
+ */
+@Slf4j
+@Service
+public class GateIngestion implements SmartLifecycle {
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final IngestionWriter writer;
+    private final IngestionProperties properties;
+    private final BlockingQueue<IngestionTicket> queue;
+    private final Map<String, IngestionTicket> tickets = new ConcurrentHashMap<>();
+    /** completed tickets, oldest first; writer thread only */
+    private final Queue<IngestionTicket> completed = new ArrayDeque<>();
+    private final int maxBatchSize;
+    private final DistributionSummary batchSize;
+    private final Timer commitTime;
+    private final Timer acceptedLatency;
+    private final Timer rejectedLatency;
+    private final Counter refused;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public GateIngestion(IngestionWriter writer, IngestionProperties properties, MeterRegistry registry) {
+        this.writer = writer;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.maxBatchSize = Math.max(1, properties.maxBatchSize());
+
+        Gauge.builder("entry.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Gate operations waiting for their group commit").register(registry);
+        Gauge.builder("entry.ingestion.tickets", tickets, Map::size)
+                .description("Tickets pending or kept for polling").register(registry);
+        this.batchSize = DistributionSummary.builder("entry.ingestion.batch.size")
+                .description("Gate operations committed per transaction")
+                .baseUnit("operations")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.commitTime = Timer.builder("entry.ingestion.commit")
+                .description("Time to commit one batch of gate operations")
+                .register(registry);
+        this.acceptedLatency = latency(registry, "accepted");
+        this.rejectedLatency = latency(registry, "rejected");
+        this.refused = Counter.builder("entry.ingestion.refused")
+                .description("Gate operations refused because the queue was full or ingestion was stopped")
+                .register(registry);
+    }
+
+    public IngestionTicket submit(GateOperation operation, String vehicleNumber, String facilityId, String gateId) {
+        if (!running) {
+            refused.increment();
+            throw IngestionRejectedException.notRunning(vehicleNumber);
+        }
+        IngestionTicket ticket = new IngestionTicket(operation, vehicleNumber, facilityId, gateId);
+        tickets.put(ticket.getId(), ticket);
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.getId());
+            refused.increment();
+            log.warn("Ingestion queue full: capacity={} vehicleNumber={}", properties.queueCapacity(), vehicleNumber);
+            throw IngestionRejectedException.queueFull(vehicleNumber);
+        }
+        return ticket;
+    }
+
+    public Optional<IngestionTicket> find(String ticketId) {
+        return Optional.ofNullable(ticketId == null ? null : tickets.get(ticketId));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofVirtual().name("entry-ingestion").start(this::write);
+        log.info("Gate ingestion started: queueCapacity={} maxBatchSize={} linger={}",
+                properties.queueCapacity(), maxBatchSize, properties.linger());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // submitted while the writer was finishing up
+        List<IngestionTicket> late = new ArrayList<>();
+        queue.drainTo(late);
+        late.forEach(ticket -> ticket.complete(BatchItemResult.failed(ticket.getVehicleNumber(),
+                "Ingestion stopped before the operation was committed")));
+        log.info("Gate ingestion stopped: uncommitted={}", late.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void write() {
+        List<IngestionTicket> batch = new ArrayList<>(maxBatchSize);
+        long lingerNanos = properties.linger().toNanos();
+        try {
+            while (running || !queue.isEmpty()) {
+                IngestionTicket first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    fill(batch, first.getSubmittedNanos() + lingerNanos);
+                    commitPerVehicle(batch);
+                    batch.clear();
+                }
+                expire(System.nanoTime() - properties.ticketRetention().toNanos());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds whatever is queued, and waits for more until the deadline while the batch has room.
+     */
+    private void fill(List<IngestionTicket> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                return;
+            }
+            IngestionTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Commits the batch in order, starting a new commit whenever a vehicle comes up a second time.
+     */
+    private void commitPerVehicle(List<IngestionTicket> batch) {
+        Set<String> vehicleNumbers = new HashSet<>();
+        int from = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            String vehicleNumber = batch.get(i).getVehicleNumber();
+            if (vehicleNumber != null && !vehicleNumbers.add(vehicleNumber)) {
+                commit(batch.subList(from, i));
+                vehicleNumbers.clear();
+                vehicleNumbers.add(vehicleNumber);
+                from = i;
+            }
+        }
+        commit(batch.subList(from, batch.size()));
+    }
+
+    private void commit(List<IngestionTicket> batch) {
+        batchSize.record(batch.size());
+        List<BatchItemResult> results;
+        long started = System.nanoTime();
+        try {
+            results = writer.commit(batch);
+        } catch (RuntimeException e) {
+            log.warn("Ingestion batch failed, committing one by one: size={}", batch.size(), e);
+            results = new ArrayList<>(batch.size());
+            for (IngestionTicket ticket : batch) {
+                results.add(commitAlone(ticket));
+            }
+        }
+        commitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        for (int i = 0; i < batch.size(); i++) {
+            IngestionTicket ticket = batch.get(i);
+            BatchItemResult result = results.get(i);
+            ticket.complete(result);
+            (result.success() ? acceptedLatency : rejectedLatency)
+                    .record(ticket.getCompletedNanos() - ticket.getSubmittedNanos(), TimeUnit.NANOSECONDS);
+            completed.add(ticket);
+        }
+    }
+
+    private BatchItemResult commitAlone(IngestionTicket ticket) {
+        try {
+            return writer.commit(List.of(ticket)).get(0);
+        } catch (RuntimeException e) {
+            log.warn("Gate operation failed: operation={} vehicleNumber={}", ticket.getOperation(), ticket.getVehicleNumber(), e);
+            return BatchItemResult.failed(ticket.getVehicleNumber(), e.getMessage());
+        }
+    }
+
+    private void expire(long completedBefore) {
+        IngestionTicket oldest;
+        while ((oldest = completed.peek()) != null && oldest.getCompletedNanos() - completedBefore < 0) {
+            completed.poll();
+            tickets.remove(oldest.getId());
+        }
+    }
+
+    private static Timer latency(MeterRegistry registry, String outcome) {
+        return Timer.builder("entry.ingestion.latency")
+                .tag("outcome", outcome)
+                .description("Time from a gate operation being submitted to its outcome being known")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import com.farabitech.smartparking_system.entry.internal.model.ActiveSession;
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import com.farabitech.smartparking_system.entry.spi.exceptions.EntryNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Commits a batch of queued entries and exits, in the order they were submitted, as one transaction.
+ * <p>
+ * The active entries of every vehicle in the batch are read with one query and the operations are then
+ * applied in memory. New entries are inserted with one batched insert, and the events of the whole
+ * batch are published into the same transaction. Exits close their entry with the same guarded update
+ * as {@link ExitService}, so an entry closed concurrently by another exit is only closed once.
+ * <p>
+ * Each operation is checked on its own and a bad one only rejects its own ticket. A batch must not hold
+ * two operations on the same vehicle: its events are handled concurrently, so an exit could be processed
+ * before the entry it closes. {@link GateIngestion} splits batches accordingly. An exit reported for another facility than the entry is accepted and logged, as in
+ * {@link ExitService}.
+ */
+@Slf4j
+@Service
+public class IngestionWriter {
+
+    private final ParkingEntryRepository repository;
+    private final ApplicationEventPublisher publisher;
+    private final ActiveSessionIndex sessions;
+
+    public IngestionWriter(ParkingEntryRepository repository,
+                           ApplicationEventPublisher publisher,
+                           ActiveSessionIndex sessions) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.sessions = sessions;
+    }
+
+    /**
+     * One result per ticket, in the same order.
+     */
+    @Transactional
+    public List<BatchItemResult> commit(List<IngestionTicket> tickets) {
+        List<String> vehicleNumbers = tickets.stream()
+                .map(IngestionTicket::getVehicleNumber)
+                .filter(vehicleNumber -> vehicleNumber != null && !vehicleNumber.isBlank())
+                .distinct()
+                .toList();
+        Map<String, ParkingEntry> active = new HashMap<>();
+        if (!vehicleNumbers.isEmpty()) {
+            repository.findByVehicleNumberInAndActiveTrue(vehicleNumbers)
+                    .forEach(entry -> active.putIfAbsent(entry.getVehicleNumber(), entry));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchItemResult> results = new ArrayList<>(tickets.size());
+        Set<String> touched = new HashSet<>();
+        List<ParkingEntry> entered = new ArrayList<>();
+        // the entry each accepted ticket touched, null for rejected ones
+        List<ParkingEntry> applied = new ArrayList<>(tickets.size());
+
+        for (IngestionTicket ticket : tickets) {
+            String vehicleNumber = ticket.getVehicleNumber();
+            ParkingEntry entry = null;
+            if (vehicleNumber == null || vehicleNumber.isBlank()) {
+                results.add(BatchItemResult.failed(vehicleNumber, "Vehicle number is required"));
+            } else if (!touched.add(vehicleNumber)) {
+                throw new IllegalArgumentException("Vehicle " + vehicleNumber + " has more than one operation in the batch");
+            } else if (ticket.getOperation() == GateOperation.ENTRY) {
+                if (active.containsKey(vehicleNumber)) {
+                    results.add(BatchItemResult.failed(vehicleNumber, "Vehicle " + vehicleNumber + " is already parked"));
+                } else {
+                    entry = new ParkingEntry(null, vehicleNumber, now, null, true,
+                            Facilities.orDefault(ticket.getFacilityId()), ticket.getGateId(), null);
+                    active.put(vehicleNumber, entry);
+                    entered.add(entry);
+                    results.add(BatchItemResult.ok(vehicleNumber));
+                }
+            } else {
+                ParkingEntry open = active.get(vehicleNumber);
+                if (open == null) {
+                    results.add(BatchItemResult.failed(vehicleNumber,
+                            EntryNotFoundException.forVehicleEntry(vehicleNumber).getMessage()));
+                } else if (repository.close(open.getId(), now, ticket.getGateId()) == 0) {
+                    // closed by another exit since it was read
+                    active.remove(vehicleNumber);
+                    results.add(BatchItemResult.failed(vehicleNumber,
+                            EntryNotFoundException.forVehicleEntry(vehicleNumber).getMessage()));
+                } else {
+                    entry = active.remove(vehicleNumber);
+                    ExitService.checkFacility(vehicleNumber, entry.getFacilityId(), ticket.getFacilityId());
+                    results.add(BatchItemResult.ok(vehicleNumber));
+                }
+            }
+            applied.add(entry);
+        }
+
+        repository.saveAll(entered);
+
+        for (int i = 0; i < tickets.size(); i++) {
+            ParkingEntry entry = applied.get(i);
+            if (entry == null) {
+                continue;
+            }
+            IngestionTicket ticket = tickets.get(i);
+            if (ticket.getOperation() == GateOperation.ENTRY) {
+                sessions.opened(ActiveSession.of(entry));
+                publisher.publishEvent(new VehicleEnteredEvent(entry.getVehicleNumber(), entry.getEntryTime(),
+                        entry.getFacilityId(), ticket.getGateId()));
+            } else {
+                sessions.closed(ActiveSession.of(entry));
+                publisher.publishEvent(new VehicleExitedEvent(entry.getVehicleNumber(), entry.getEntryTime(),
+                        now, entry.getFacilityId(), ticket.getGateId()));
+            }
+        }
+
+        log.debug("Ingestion batch committed: size={} entered={}", tickets.size(), entered.size());
+
+        return results;
+    }
+}
@@ -1,7 +1,66 @@
 package com.farabitech.smartparking_system.entry.spi;
 
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.IngestionTicketDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry and exit of vehicles. A {@code null} facility id means the default facility; the gate id is
+ * recorded as given and may be {@code null}.
+ */
 public interface EntrySPI {
 
-    void vehicleEntry(String vehicleNumber);
-    void vehicleExit(String vehicleNumber);
+    void vehicleEntry(String vehicleNumber, String facilityId, String gateId);
+
+    /**
+     * Closes the vehicle's active entry. The exit always belongs to the facility the vehicle entered;
+     * a different {@code facilityId} is logged and otherwise ignored.
+     */
+    void vehicleExit(String vehicleNumber, String facilityId, String gateId);
+
+    /**
+     * Records all entries in one transaction. Vehicles that are invalid or already parked are
+     * reported as failed without affecting the rest of the batch.
+     */
+    List<BatchItemResult> vehicleEntries(List<String> vehicleNumbers, String facilityId, String gateId);
+
+    /**
+     * Records all exits in one transaction. Vehicles without an active entry are reported as
+     * failed without affecting the rest of the batch.
+     */
+    List<BatchItemResult> vehicleExits(List<String> vehicleNumbers, String facilityId, String gateId);
+
+    /**
+     * Queues the entry for the next group commit and returns its pending ticket.
+     *
+     * @throws com.farabitech.smartparking_system.entry.spi.exceptions.IngestionRejectedException if the
+     *         ingestion queue is full
+     */
+    IngestionTicketDTO submitEntry(String vehicleNumber, String facilityId, String gateId);
+
+    /**
+     * Queues the exit for the next group commit and returns its pending ticket.
+     *
+     * @throws com.farabitech.smartparking_system.entry.spi.exceptions.IngestionRejectedException if the
+     *         ingestion queue is full
+     */
+    IngestionTicketDTO submitExit(String vehicleNumber, String facilityId, String gateId);
+
+    /**
+     * The current state of a ticket.
+     *
+     * @throws com.farabitech.smartparking_system.entry.spi.exceptions.TicketNotFoundException if the ticket
+     *         is unknown or has expired
+     */
+    IngestionTicketDTO getTicket(String ticketId);
+
+    /**
+     * Completes with the ticket's outcome once its operation has been committed or rejected.
+     *
+     * @throws com.farabitech.smartparking_system.entry.spi.exceptions.TicketNotFoundException if the ticket
+     *         is unknown or has expired
+     */
+    CompletableFuture<IngestionTicketDTO> awaitTicket(String ticketId);
 }
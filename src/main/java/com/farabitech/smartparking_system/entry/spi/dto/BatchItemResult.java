@@ -0,0 +1,17 @@
+package com.farabitech.smartparking_system.entry.spi.dto;
+
+/**
+ * Outcome of one vehicle in a batched entry or exit; {@code error} is {@code null} on success.
+ */
+public record BatchItemResult(String vehicleNumber,
+                              boolean success,
+                              String error) {
+
+    public static BatchItemResult ok(String vehicleNumber) {
+        return new BatchItemResult(vehicleNumber, true, null);
+    }
+
+    public static BatchItemResult failed(String vehicleNumber, String error) {
+        return new BatchItemResult(vehicleNumber, false, error);
+    }
+}
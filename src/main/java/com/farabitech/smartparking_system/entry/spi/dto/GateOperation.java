@@ -0,0 +1,6 @@
+package com.farabitech.smartparking_system.entry.spi.dto;
+
+public enum GateOperation {
+    ENTRY,
+    EXIT
+}
@@ -0,0 +1,22 @@
+package com.farabitech.smartparking_system.entry.spi.dto;
+
+import java.time.Instant;
+
+/**
+ * An entry or exit accepted for asynchronous ingestion; {@code error} is set when it was rejected and
+ * {@code completedAt} once it is no longer pending.
+ */
+public record IngestionTicketDTO(String ticketId,
+                                 GateOperation operation,
+                                 String vehicleNumber,
+                                 String facilityId,
+                                 String gateId,
+                                 TicketStatus status,
+                                 String error,
+                                 Instant submittedAt,
+                                 Instant completedAt) {
+
+    public boolean pending() {
+        return status == TicketStatus.PENDING;
+    }
+}
@@ -0,0 +1,11 @@
+package com.farabitech.smartparking_system.entry.spi.dto;
+
+/**
+ * {@code PENDING} until the group commit holding the operation has run; {@code ACCEPTED} once it is
+ * committed, {@code REJECTED} if it was refused, e.g. an exit without an active entry.
+ */
+public enum TicketStatus {
+    PENDING,
+    ACCEPTED,
+    REJECTED
+}
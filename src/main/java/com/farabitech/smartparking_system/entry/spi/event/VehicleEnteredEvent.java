@@ -1,7 +1,16 @@
 package com.farabitech.smartparking_system.entry.spi.event;
 
+import org.springframework.modulith.events.Externalized;
+
 import java.time.LocalDateTime;
 
+/**
+ * A vehicle entered {@code facilityId} through {@code gateId}. Events recorded before facilities existed
+ * carry no facility id and belong to the default facility.
+ */
+@Externalized("parking-events::#{vehicleNumber()}")
 public record VehicleEnteredEvent(String vehicleNumber,
-                                  LocalDateTime entryTime) {
+                                  LocalDateTime entryTime,
+                                  String facilityId,
+                                  String gateId) {
 }
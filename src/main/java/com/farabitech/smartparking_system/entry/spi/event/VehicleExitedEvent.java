@@ -1,7 +1,15 @@
 package com.farabitech.smartparking_system.entry.spi.event;
 
+import org.springframework.modulith.events.Externalized;
+
 import java.time.LocalDateTime;
 
+/**
+ * A vehicle left {@code facilityId}, the facility it entered, through {@code gateId}.
+ */
+@Externalized("parking-events::#{vehicleNumber()}")
 public record VehicleExitedEvent(String vehicleNumber,
-                                 LocalDateTime entryTime,LocalDateTime exitTime) {
+                                 LocalDateTime entryTime,LocalDateTime exitTime,
+                                 String facilityId,
+                                 String gateId) {
 }
@@ -0,0 +1,15 @@
+package com.farabitech.smartparking_system.entry.spi.exceptions;
+
+public class IngestionRejectedException extends RuntimeException {
+    public IngestionRejectedException(String message) {
+        super(message);
+    }
+
+    public static IngestionRejectedException queueFull(String vehicleNumber) {
+        return new IngestionRejectedException("Ingestion queue is full, rejected vehicleNumber " + vehicleNumber);
+    }
+
+    public static IngestionRejectedException notRunning(String vehicleNumber) {
+        return new IngestionRejectedException("Ingestion is not running, rejected vehicleNumber " + vehicleNumber);
+    }
+}
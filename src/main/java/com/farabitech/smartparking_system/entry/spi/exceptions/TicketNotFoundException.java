@@ -0,0 +1,7 @@
+package com.farabitech.smartparking_system.entry.spi.exceptions;
+
+public class TicketNotFoundException extends RuntimeException {
+    public TicketNotFoundException(String ticketId) {
+        super("Ticket " + ticketId + " not found");
+    }
+}
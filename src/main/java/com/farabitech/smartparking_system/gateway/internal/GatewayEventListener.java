@@ -1,9 +1,27 @@
 package com.farabitech.smartparking_system.gateway.internal;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotStateDTO;
+import com.farabitech.smartparking_system.allocation.spi.event.SlotStateChangedEvent;
+import com.farabitech.smartparking_system.gateway.internal.service.SlotStateFeed;
 
 @Slf4j
 @Service
 public class GatewayEventListener {
+
+    private final SlotStateFeed slotStateFeed;
+
+    public GatewayEventListener(SlotStateFeed slotStateFeed) {
+        this.slotStateFeed = slotStateFeed;
+    }
+
+    /**
+     * Runs on the publishing thread, which is fine: all it does is write into the feed's ring buffer.
+     */
+    @EventListener
+    public void handleSlotStateChanged(SlotStateChangedEvent event) {
+        slotStateFeed.publish(new SlotStateDTO(event.facilityId(), event.slotCode(), event.zone(), event.occupied()));
+    }
 }
@@ -0,0 +1,9 @@
+package com.farabitech.smartparking_system.gateway.internal.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SlotStreamProperties.class)
+class GatewayConfig {
+}
@@ -0,0 +1,33 @@
+package com.farabitech.smartparking_system.gateway.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Slot state stream tuning, bound from {@code smartparking.gateway.slot-stream.*}.
+ *
+ * @param bufferSize     slot changes kept for subscribers to catch up on, rounded up to a power of two
+ * @param coalesceWindow how long a subscriber lets changes pile up before sending them, so that a slot
+ *                       changing several times is sent once with its latest state
+ * @param heartbeat      idle time after which a comment is sent to detect closed connections
+ * @param maxSubscribers open streams beyond which new subscriptions are refused
+ * @param senderThreads  threads writing to subscribers; a slow client holds one of them for the length of a send
+ * @param lagPolicy      what happens to a subscriber that falls further behind than {@code bufferSize}
+ */
+@ConfigurationProperties("smartparking.gateway.slot-stream")
+public record SlotStreamProperties(@DefaultValue("8192") int bufferSize,
+                                   @DefaultValue("250ms") Duration coalesceWindow,
+                                   @DefaultValue("15s") Duration heartbeat,
+                                   @DefaultValue("10000") int maxSubscribers,
+                                   @DefaultValue("8") int senderThreads,
+                                   @DefaultValue("resync") LagPolicy lagPolicy) {
+
+    public enum LagPolicy {
+        /** Send a full snapshot and continue from the newest change. */
+        RESYNC,
+        /** Close the stream; the client reconnects and starts with a snapshot. */
+        DROP
+    }
+}
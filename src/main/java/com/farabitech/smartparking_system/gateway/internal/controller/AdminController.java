@@ -0,0 +1,84 @@
+package com.farabitech.smartparking_system.gateway.internal.controller;
+
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutImportDTO;
+import com.farabitech.smartparking_system.billing.spi.BillingSPI;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final BillingSPI billingSPI;
+    private final AllocationSPI allocationSPI;
+
+    public AdminController(BillingSPI billingSPI, AllocationSPI allocationSPI) {
+        this.billingSPI = billingSPI;
+        this.allocationSPI = allocationSPI;
+    }
+
+    /**
+     * Applies a facility layout: {@code text/csv} is read as CSV, anything else as YAML.
+     */
+    @PutMapping("/allocation/layout")
+    @WithSpan(value = "AdminController#importLayout", kind = SpanKind.SERVER)
+    public LayoutImportDTO importLayout(@RequestBody String layout,
+                                       @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) MediaType contentType) {
+        LayoutFormat format = contentType != null && TEXT_CSV.isCompatibleWith(contentType) ? LayoutFormat.CSV : LayoutFormat.YAML;
+        log.info("Received request to import a facility layout: format={} length={}", format, layout.length());
+
+        return allocationSPI.importLayout(layout, format);
+    }
+
+    @PostMapping("/billing/revenue-summary/rebuild")
+    @WithSpan(value = "AdminController#rebuildRevenueSummary", kind = SpanKind.SERVER)
+    public RevenueSummaryDTO rebuildRevenueSummary() {
+        log.info("Received request to rebuild the revenue summary");
+
+        RevenueSummaryDTO summary = billingSPI.rebuildRevenueSummary();
+
+        log.info("Revenue summary rebuilt: invoiceCount={} totalAmount={}", summary.invoiceCount(), summary.totalAmount());
+
+        return summary;
+    }
+
+    @PostMapping("/billing/revenue-rollups/rebuild")
+    @WithSpan(value = "AdminController#rebuildRevenueRollups", kind = SpanKind.SERVER)
+    public void rebuildRevenueRollups() {
+        log.info("Received request to rebuild the revenue rollups");
+
+        billingSPI.rebuildRevenueRollups();
+    }
+
+    @GetMapping("/billing/tariff")
+    @WithSpan(value = "AdminController#getTariff", kind = SpanKind.SERVER)
+    public TariffDTO getTariff() {
+        return billingSPI.getTariff();
+    }
+
+    @PutMapping("/billing/tariff")
+    @WithSpan(value = "AdminController#updateTariff", kind = SpanKind.SERVER)
+    public TariffDTO updateTariff(@RequestBody TariffDTO tariff) {
+        log.info("Received request to update the tariff: vehicleClasses={}",
+                tariff.vehicleClasses() != null ? tariff.vehicleClasses().keySet() : null);
+
+        return billingSPI.updateTariff(tariff);
+    }
+}
@@ -4,20 +4,36 @@ import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import io.opentelemetry.api.trace.SpanKind;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import com.farabitech.smartparking_system.entry.spi.EntrySPI;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.IngestionTicketDTO;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
 @RequestMapping("/parking")
 public class EntryController {
 
-private final EntrySPI entrySPI;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final Duration MAX_TICKET_WAIT = Duration.ofSeconds(30);
+
+    private final EntrySPI entrySPI;
 
     public EntryController(EntrySPI entrySPI) {
         this.entrySPI = entrySPI;
@@ -27,12 +43,15 @@ private final EntrySPI entrySPI;
     @Timed(value = "latencyInSec.entry")
     @Counted(value ="counter.entry" )
     @WithSpan(value = "EntryController#entry", kind = SpanKind.SERVER)
-    public ResponseEntity<String> entry(@RequestParam String vehicleNumber) {
-        log.info("Received request for vehicle entry: vehicleNumber={}", vehicleNumber);
+    public ResponseEntity<String> entry(@RequestParam String vehicleNumber,
+                                        @RequestParam(required = false) String facilityId,
+                                        @RequestParam(required = false) String gateId) {
+        log.debug("Received request for vehicle entry: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
 
-        entrySPI.vehicleEntry(vehicleNumber);
+        entrySPI.vehicleEntry(vehicleNumber, facilityId, gateId);
 
-        log.info("Vehicle entry processed successfully: vehicleNumber={}", vehicleNumber);
+        log.info(LogMarkers.HIGH_VOLUME, "Vehicle entry processed successfully: vehicleNumber={}", vehicleNumber);
 
         return ResponseEntity.ok("Vehicle entered: " + vehicleNumber);
     }
@@ -41,14 +60,121 @@ private final EntrySPI entrySPI;
     @Timed(value = "latencyInSec.exit")
     @Counted(value ="counter.exit" )
     @WithSpan(value = "EntryController#exit", kind = SpanKind.SERVER)
-    public ResponseEntity<String> exit(@RequestParam String vehicleNumber) {
+    public ResponseEntity<String> exit(@RequestParam String vehicleNumber,
+                                       @RequestParam(required = false) String facilityId,
+                                       @RequestParam(required = false) String gateId) {
 
-        log.info("Received request for vehicle exit: vehicleNumber={}", vehicleNumber);
+        log.debug("Received request for vehicle exit: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
 
-        entrySPI.vehicleExit(vehicleNumber);
+        entrySPI.vehicleExit(vehicleNumber, facilityId, gateId);
 
-        log.info("Vehicle exit processed successfully: vehicleNumber={}", vehicleNumber);
+        log.info(LogMarkers.HIGH_VOLUME, "Vehicle exit processed successfully: vehicleNumber={}", vehicleNumber);
 
         return ResponseEntity.ok("Vehicle exited: " + vehicleNumber);
     }
+
+    @PostMapping("/entries:batch")
+    @Timed(value = "latencyInSec.entryBatch")
+    @Counted(value = "counter.entryBatch")
+    @WithSpan(value = "EntryController#entries", kind = SpanKind.SERVER)
+    public ResponseEntity<List<BatchItemResult>> entries(@RequestBody List<String> vehicleNumbers,
+                                                         @RequestParam(required = false) String facilityId,
+                                                         @RequestParam(required = false) String gateId) {
+        log.info("Received request for vehicle entry batch: size={}", vehicleNumbers.size());
+
+        if (vehicleNumbers.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BatchItemResult> results = vehicleNumbers.isEmpty() ? List.of() : entrySPI.vehicleEntries(vehicleNumbers, facilityId, gateId);
+
+        log.info("Vehicle entry batch processed: size={}", results.size());
+
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/exits:batch")
+    @Timed(value = "latencyInSec.exitBatch")
+    @Counted(value = "counter.exitBatch")
+    @WithSpan(value = "EntryController#exits", kind = SpanKind.SERVER)
+    public ResponseEntity<List<BatchItemResult>> exits(@RequestBody List<String> vehicleNumbers,
+                                                       @RequestParam(required = false) String facilityId,
+                                                       @RequestParam(required = false) String gateId) {
+        log.info("Received request for vehicle exit batch: size={}", vehicleNumbers.size());
+
+        if (vehicleNumbers.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BatchItemResult> results = vehicleNumbers.isEmpty() ? List.of() : entrySPI.vehicleExits(vehicleNumbers, facilityId, gateId);
+
+        log.info("Vehicle exit batch processed: size={}", results.size());
+
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Queues the entry for the next group commit and answers 202 right away; the outcome is polled at the
+     * ticket's location.
+     */
+    @PostMapping("/entry:async")
+    @Timed(value = "latencyInSec.entryAsync")
+    @Counted(value = "counter.entryAsync")
+    @WithSpan(value = "EntryController#entryAsync", kind = SpanKind.SERVER)
+    public ResponseEntity<IngestionTicketDTO> entryAsync(@RequestParam String vehicleNumber,
+                                                         @RequestParam(required = false) String facilityId,
+                                                         @RequestParam(required = false) String gateId) {
+        log.debug("Received async vehicle entry: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
+
+        return accepted(entrySPI.submitEntry(vehicleNumber, facilityId, gateId));
+    }
+
+    /**
+     * Queues the exit for the next group commit and answers 202 right away; the outcome is polled at the
+     * ticket's location.
+     */
+    @PostMapping("/exit:async")
+    @Timed(value = "latencyInSec.exitAsync")
+    @Counted(value = "counter.exitAsync")
+    @WithSpan(value = "EntryController#exitAsync", kind = SpanKind.SERVER)
+    public ResponseEntity<IngestionTicketDTO> exitAsync(@RequestParam String vehicleNumber,
+                                                        @RequestParam(required = false) String facilityId,
+                                                        @RequestParam(required = false) String gateId) {
+        log.debug("Received async vehicle exit: vehicleNumber={} facilityId={} gateId={}",
+                vehicleNumber, facilityId, gateId);
+
+        return accepted(entrySPI.submitExit(vehicleNumber, facilityId, gateId));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    @WithSpan(value = "EntryController#ticket", kind = SpanKind.SERVER)
+    public ResponseEntity<IngestionTicketDTO> ticket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(entrySPI.getTicket(ticketId));
+    }
+
+    /**
+     * Long poll: answers once the ticket is no longer pending, or with 202 and its pending state after
+     * {@code wait} (at most {@link #MAX_TICKET_WAIT}).
+     */
+    @GetMapping("/tickets/{ticketId}/result")
+    @WithSpan(value = "EntryController#ticketResult", kind = SpanKind.SERVER)
+    public CompletableFuture<ResponseEntity<IngestionTicketDTO>> ticketResult(@PathVariable String ticketId,
+                                                                              @RequestParam(defaultValue = "10s") Duration wait) {
+        IngestionTicketDTO current = entrySPI.getTicket(ticketId);
+        if (!current.pending()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(current));
+        }
+        long waitMillis = Math.max(0, Math.min(wait.toMillis(), MAX_TICKET_WAIT.toMillis()));
+        return entrySPI.awaitTicket(ticketId)
+                .completeOnTimeout(current, waitMillis, TimeUnit.MILLISECONDS)
+                .thenApply(ticket -> ticket.pending()
+                        ? ResponseEntity.status(HttpStatus.ACCEPTED).body(ticket)
+                        : ResponseEntity.ok(ticket));
+    }
+
+    private static ResponseEntity<IngestionTicketDTO> accepted(IngestionTicketDTO ticket) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/parking/tickets/" + ticket.ticketId()))
+                .body(ticket);
+    }
 }
@@ -1,27 +1,92 @@
 package com.farabitech.smartparking_system.gateway.internal.controller;
 
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
 import com.farabitech.smartparking_system.billing.spi.BillingSPI;
-import com.farabitech.smartparking_system.billing.spi.dto.BillingDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.InvoiceQuery;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.VehicleRevenueDTO;
+import com.farabitech.smartparking_system.gateway.internal.service.SlotStateFeed;
+import com.farabitech.smartparking_system.gateway.spi.ReportingSPI;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @RestController
 @RequestMapping("/reporting")
 public class ReportController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     private final BillingSPI billingSPI;
+    private final ReportingSPI reportingSPI;
+    private final SlotStateFeed slotStateFeed;
+    private final ObjectMapper objectMapper;
 
-    public ReportController(BillingSPI billingSPI) {
+    public ReportController(BillingSPI billingSPI, ReportingSPI reportingSPI, SlotStateFeed slotStateFeed,
+                            ObjectMapper objectMapper) {
         this.billingSPI = billingSPI;
+        this.reportingSPI = reportingSPI;
+        this.slotStateFeed = slotStateFeed;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/occupancy")
+    @Timed(value = "latencyInSec.occupancy")
+    @WithSpan(value = "ReportController#getOccupancy", kind = SpanKind.SERVER)
+    OccupancyDTO getOccupancy() {
+        OccupancyDTO occupancy = reportingSPI.getOccupancy();
+
+        log.debug("Served occupancy: totalSlots={} occupiedSlots={} freeSlots={}",
+                occupancy.totalSlots(), occupancy.occupiedSlots(), occupancy.freeSlots());
+
+        return occupancy;
+    }
+
+    @GetMapping(value = "/slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @WithSpan(value = "ReportController#streamSlots", kind = SpanKind.SERVER)
+    ResponseEntity<SseEmitter> streamSlots(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("Received request to stream slot states: lastEventId={}", lastEventId);
+
+        return slotStateFeed.subscribe(lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    log.warn("Refusing slot stream, subscriber limit reached: subscribers={}",
+                            slotStateFeed.subscriberCount());
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "5")
+                            .build();
+                });
     }
 
     @GetMapping({"/invoices"})
@@ -31,17 +96,89 @@ public class ReportController {
     Double getInvoicesSummery(Model model, HttpSession session) {
         log.info("Received request to get invoice summary");
 
-        var invoices = billingSPI.getInvoices();
+        RevenueSummaryDTO summary = billingSPI.getRevenueSummary();
+
+        log.info("Calculated invoice summary: invoiceCount={} totalAmount={}", summary.invoiceCount(), summary.totalAmount());
+
+        return summary.totalAmount();
+    }
+
+    @GetMapping("/invoices/summary")
+    @Timed(value = "latencyInSec.revenueSummary")
+    @WithSpan(value = "ReportController#getRevenueSummary", kind = SpanKind.SERVER)
+    RevenueSummaryDTO getRevenueSummary(@RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        log.info("Received request to get revenue summary: day={}", day);
+
+        return day == null ? billingSPI.getRevenueSummary() : billingSPI.getRevenueSummary(day);
+    }
 
+    @GetMapping("/revenue")
+    @Timed(value = "latencyInSec.revenue")
+    @WithSpan(value = "ReportController#getRevenue", kind = SpanKind.SERVER)
+    RevenueRollupDTO getRevenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                @RequestParam(required = false) RevenueGranularity granularity) {
+        log.info("Received request to get revenue: from={} to={} granularity={}", from, to, granularity);
 
-        log.debug("Fetched {} invoices from BillingSPI", invoices.size());
+        return billingSPI.getRevenue(from, to, granularity);
+    }
 
-        double totalAmount = invoices.stream()
-                .mapToDouble(BillingDTO::amount)
-                .sum();
+    @GetMapping("/revenue/vehicles")
+    @Timed(value = "latencyInSec.revenueByVehicle")
+    @WithSpan(value = "ReportController#getRevenueByVehicle", kind = SpanKind.SERVER)
+    List<VehicleRevenueDTO> getRevenueByVehicle(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(required = false) String vehicleNumber,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        log.info("Received request to get revenue by vehicle: from={} to={} vehicleNumber={} limit={}",
+                from, to, vehicleNumber, limit);
 
-        log.info("Calculated invoice summary: totalAmount={}", totalAmount);
+        return billingSPI.getRevenueByVehicle(from, to, vehicleNumber, limit);
+    }
+
+    @GetMapping("/invoices/export")
+    @Counted(value = "counter.invoicesExport")
+    @WithSpan(value = "ReportController#exportInvoices", kind = SpanKind.SERVER)
+    ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String vehicleNumber,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Received request to export invoices: from={} to={} vehicleNumber={} format={}",
+                from, to, vehicleNumber, format);
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        InvoiceQuery query = new InvoiceQuery(from, to, vehicleNumber);
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long rows = 0;
+            try (Stream<InvoiceDTO> invoices = billingSPI.streamInvoices(query)) {
+                if (csv) {
+                    writer.write("id,vehicleNumber,amount,billingTime\n");
+                }
+                for (InvoiceDTO invoice : (Iterable<InvoiceDTO>) invoices::iterator) {
+                    writer.write(csv ? toCsv(invoice) : objectMapper.writeValueAsString(invoice));
+                    writer.write('\n');
+                    rows++;
+                }
+            }
+            writer.flush();
+            log.info("Invoice export finished: rows={} format={}", rows, csv ? "csv" : "ndjson");
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoices." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
 
-        return totalAmount;
+    private static String toCsv(InvoiceDTO invoice) {
+        String vehicle = invoice.vehicleNumber() == null ? "" : invoice.vehicleNumber();
+        if (vehicle.indexOf(',') >= 0 || vehicle.indexOf('"') >= 0 || vehicle.indexOf('\n') >= 0) {
+            vehicle = '"' + vehicle.replace("\"", "\"\"") + '"';
+        }
+        return invoice.id() + "," + vehicle + "," + invoice.amount() + "," + invoice.billingTime();
     }
 }
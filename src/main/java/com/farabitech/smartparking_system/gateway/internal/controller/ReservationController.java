@@ -0,0 +1,69 @@
+package com.farabitech.smartparking_system.gateway.internal.controller;
+
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationDTO;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotAvailabilityDTO;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@RestController
+@RequestMapping("/parking/reservations")
+public class ReservationController {
+
+    private final AllocationSPI allocationSPI;
+
+    public ReservationController(AllocationSPI allocationSPI) {
+        this.allocationSPI = allocationSPI;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Timed(value = "latencyInSec.reserve")
+    @WithSpan(value = "ReservationController#reserve", kind = SpanKind.SERVER)
+    public ReservationDTO reserve(@RequestParam String vehicleNumber,
+                                  @RequestParam(required = false) String facilityId,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Received request to reserve a slot: vehicleNumber={} facilityId={} from={} to={}",
+                vehicleNumber, facilityId, from, to);
+
+        return allocationSPI.reserve(facilityId, vehicleNumber, from, to);
+    }
+
+    @DeleteMapping("/{id}")
+    @WithSpan(value = "ReservationController#cancel", kind = SpanKind.SERVER)
+    public ReservationDTO cancel(@PathVariable Long id) {
+        log.info("Received request to cancel a reservation: id={}", id);
+
+        return allocationSPI.cancelReservation(id);
+    }
+
+    /**
+     * Slots with no reservation between {@code from} and {@code to}.
+     */
+    @GetMapping("/available-slots")
+    @Timed(value = "latencyInSec.availableSlots")
+    @WithSpan(value = "ReservationController#getAvailableSlots", kind = SpanKind.SERVER)
+    public SlotAvailabilityDTO getAvailableSlots(@RequestParam(required = false) String facilityId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Received request for available slots: facilityId={} from={} to={}", facilityId, from, to);
+
+        return allocationSPI.getAvailableSlots(facilityId, from, to);
+    }
+}
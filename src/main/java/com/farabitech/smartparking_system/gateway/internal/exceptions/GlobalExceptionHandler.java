@@ -1,6 +1,14 @@
 package com.farabitech.smartparking_system.gateway.internal.exceptions;
 
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidLayoutException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidReservationException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.NoSlotAvailableException;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.ReservationNotFoundException;
+import com.farabitech.smartparking_system.billing.spi.exceptions.InvalidRevenueRangeException;
+import com.farabitech.smartparking_system.billing.spi.exceptions.InvalidTariffException;
 import com.farabitech.smartparking_system.entry.spi.exceptions.EntryNotFoundException;
+import com.farabitech.smartparking_system.entry.spi.exceptions.IngestionRejectedException;
+import com.farabitech.smartparking_system.entry.spi.exceptions.TicketNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -16,4 +24,52 @@ public class GlobalExceptionHandler {
     public Map<String, String> handleEntryNotFound(EntryNotFoundException ex) {
         return Map.of("error", ex.getMessage());
     }
+
+    @ExceptionHandler(TicketNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleTicketNotFound(TicketNotFoundException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(IngestionRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleIngestionRejected(IngestionRejectedException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTariffException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidTariff(InvalidTariffException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidLayoutException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidLayout(InvalidLayoutException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidReservationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidReservation(InvalidReservationException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(ReservationNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleReservationNotFound(ReservationNotFoundException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(NoSlotAvailableException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleNoSlotAvailable(NoSlotAvailableException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRevenueRangeException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidRevenueRange(InvalidRevenueRangeException ex) {
+        return Map.of("error", ex.getMessage());
+    }
 }
@@ -3,9 +3,21 @@ package com.farabitech.smartparking_system.gateway.internal.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import com.farabitech.smartparking_system.gateway.spi.ReportingSPI;
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
 
 @Slf4j
 @Service
 public class ReportingService implements ReportingSPI {
 
+    private final AllocationSPI allocationSPI;
+
+    public ReportingService(AllocationSPI allocationSPI) {
+        this.allocationSPI = allocationSPI;
+    }
+
+    @Override
+    public OccupancyDTO getOccupancy() {
+        return allocationSPI.getOccupancy();
+    }
 }
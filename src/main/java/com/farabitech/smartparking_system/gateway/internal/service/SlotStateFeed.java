@@ -0,0 +1,339 @@
+package com.farabitech.smartparking_system.gateway.internal.service;
+
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotStateDTO;
+import com.farabitech.smartparking_system.gateway.internal.config.SlotStreamProperties;
+import com.farabitech.smartparking_system.gateway.internal.config.SlotStreamProperties.LagPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans slot state changes out to Server-Sent Events subscribers.
+ * <p>
+ * Every change is written once into a shared ring buffer, stamped with a sequence number that doubles
+ * as the SSE event id, and a subscriber is little more than a cursor into that ring. A dispatcher
+ * thread wakes up on new changes, waits out the coalesce window and hands every subscriber that is
+ * behind to a small pool of sender threads, at most one send per subscriber at a time. A send reads
+ * everything between the subscriber's cursor and the head, keeps only the latest state per slot and
+ * writes it as one event, so a slow client simply gets bigger, coalesced events. Nothing is queued per
+ * subscriber: once one falls more than a ring behind it is resynced with a snapshot or dropped.
+ */
+@Slf4j
+@Component
+public class SlotStateFeed implements SmartLifecycle {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String CHANGES_EVENT = "changes";
+
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final AllocationSPI allocationSPI;
+    private final SlotStreamProperties properties;
+    private final AtomicReferenceArray<Change> ring;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final DistributionSummary lag;
+    private final Counter coalesced;
+    private final Counter resynced;
+    private final Counter dropped;
+    private volatile long head;
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ExecutorService senders;
+
+    public SlotStateFeed(AllocationSPI allocationSPI, SlotStreamProperties properties, MeterRegistry registry) {
+        this.allocationSPI = allocationSPI;
+        this.properties = properties;
+        int capacity = Integer.highestOneBit(Math.max(2, properties.bufferSize()) * 2 - 1);
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+
+        Gauge.builder("gateway.slots.stream.subscribers", subscribers, Set::size)
+                .description("Open slot state streams").register(registry);
+        Gauge.builder("gateway.slots.stream.max.lag", this, SlotStateFeed::maxLag)
+                .description("Changes the furthest behind subscriber has not been sent yet").register(registry);
+        this.lag = DistributionSummary.builder("gateway.slots.stream.lag")
+                .description("Changes a subscriber was behind when a send started")
+                .baseUnit("changes")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.coalesced = Counter.builder("gateway.slots.stream.coalesced")
+                .description("Changes superseded by a later change of the same slot before being sent")
+                .register(registry);
+        this.resynced = Counter.builder("gateway.slots.stream.lagged").tag("action", "resync")
+                .description("Subscribers that fell a whole buffer behind").register(registry);
+        this.dropped = Counter.builder("gateway.slots.stream.lagged").tag("action", "drop")
+                .description("Subscribers that fell a whole buffer behind").register(registry);
+    }
+
+    public void publish(SlotStateDTO state) {
+        lock.lock();
+        try {
+            long sequence = head + 1;
+            ring.set(index(sequence), new Change(sequence, state));
+            head = sequence;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a stream that continues after {@code lastEventId} if the ring still holds every change since,
+     * and starts with a snapshot otherwise. Empty when {@code maxSubscribers} streams are open already.
+     */
+    public Optional<SseEmitter> subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(0L));
+    }
+
+    Optional<SseEmitter> subscribe(Long lastEventId, SseEmitter emitter) {
+        if (!running || subscribers.size() >= properties.maxSubscribers()) {
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        long current = head;
+        if (lastEventId != null && lastEventId <= current && current - lastEventId <= ring.length()) {
+            subscriber.cursor = lastEventId;
+        } else {
+            subscriber.snapshotDue = true;
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return Optional.of(emitter);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(Math.max(1, properties.senderThreads()),
+                task -> Thread.ofPlatform().daemon().name("slot-stream-sender-" + threads.incrementAndGet()).unstarted(task));
+        running = true;
+        dispatcher = Thread.ofPlatform().daemon().name("slot-stream-dispatcher").start(this::dispatch);
+        log.info("Slot state feed started: bufferSize={} coalesceWindow={} senderThreads={} lagPolicy={}",
+                ring.length(), properties.coalesceWindow(), properties.senderThreads(), properties.lagPolicy());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        subscribers.forEach(Subscriber::complete);
+        dispatcher.interrupt();
+        senders.shutdown();
+        try {
+            dispatcher.join(STOP_TIMEOUT_MILLIS);
+            senders.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Slot state feed stopped: head={}", head);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatch() {
+        long heartbeatNanos = properties.heartbeat().toNanos();
+        long seen = head;
+        while (running) {
+            try {
+                awaitBeyond(seen, heartbeatNanos);
+                if (head > seen && !properties.coalesceWindow().isZero()) {
+                    // let a burst pile up so that it goes out as one event per subscriber
+                    Thread.sleep(properties.coalesceWindow());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            seen = head;
+            long now = System.nanoTime();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.snapshotDue || subscriber.cursor < seen || now - subscriber.lastSent >= heartbeatNanos) {
+                    subscriber.schedule();
+                }
+            }
+        }
+    }
+
+    private void awaitBeyond(long sequence, long nanos) throws InterruptedException {
+        lock.lock();
+        try {
+            while (head <= sequence && nanos > 0) {
+                nanos = published.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long maxLag() {
+        long current = head;
+        long max = 0;
+        for (Subscriber subscriber : subscribers) {
+            max = Math.max(max, current - subscriber.cursor);
+        }
+        return max;
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private record Change(long sequence, SlotStateDTO state) {
+    }
+
+    private final class Subscriber {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean snapshotDue;
+        private volatile long lastSent = System.nanoTime();
+        private volatile boolean closed;
+
+        private Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Hands the subscriber to a sender unless a send is in flight already; that send or the next
+         * dispatch round picks up whatever arrived meanwhile.
+         */
+        private void schedule() {
+            if (closed || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::send);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void send() {
+            try {
+                if (snapshotDue) {
+                    snapshotDue = false;
+                    sendSnapshot();
+                } else if (head > cursor) {
+                    sendChanges();
+                } else {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                lastSent = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Slot stream {} disconnected: {}", id, e.toString());
+                close();
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        private void sendChanges() throws IOException {
+            long target = head;
+            long behind = target - cursor;
+            lag.record(behind);
+            if (behind > ring.length()) {
+                lagged(behind);
+                return;
+            }
+
+            Map<String, SlotStateDTO> latest = new LinkedHashMap<>();
+            for (long sequence = cursor + 1; sequence <= target; sequence++) {
+                Change change = ring.get(index(sequence));
+                if (change == null || change.sequence() != sequence) {
+                    // overwritten while we were reading
+                    lagged(head - cursor);
+                    return;
+                }
+                latest.put(change.state().facilityId() + '/' + change.state().slotCode(), change.state());
+            }
+            coalesced.increment(behind - latest.size());
+
+            emitter.send(SseEmitter.event()
+                    .name(CHANGES_EVENT)
+                    .id(Long.toString(target))
+                    .data(latest.values(), MediaType.APPLICATION_JSON));
+            cursor = target;
+        }
+
+        private void lagged(long behind) throws IOException {
+            if (properties.lagPolicy() == LagPolicy.DROP) {
+                dropped.increment();
+                log.info("Dropping slot stream {}: behind={} bufferSize={}", id, behind, ring.length());
+                complete();
+                return;
+            }
+            resynced.increment();
+            log.info("Resyncing slot stream {}: behind={} bufferSize={}", id, behind, ring.length());
+            sendSnapshot();
+        }
+
+        private void sendSnapshot() throws IOException {
+            // changes published while the snapshot is taken are sent again afterwards, which is harmless
+            long at = head;
+            List<SlotStateDTO> states = allocationSPI.getSlotStates();
+            emitter.send(SseEmitter.event()
+                    .name(SNAPSHOT_EVENT)
+                    .id(Long.toString(at))
+                    .data(states, MediaType.APPLICATION_JSON));
+            cursor = at;
+        }
+
+        private void complete() {
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
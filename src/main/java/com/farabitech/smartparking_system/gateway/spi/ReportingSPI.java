@@ -1,7 +1,10 @@
 package com.farabitech.smartparking_system.gateway.spi;
 
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
 import org.springframework.modulith.NamedInterface;
 
 @NamedInterface
 public interface ReportingSPI {
+
+    OccupancyDTO getOccupancy();
 }
@@ -0,0 +1,63 @@
+package com.farabitech.smartparking_system.journal.internal;
+
+import com.farabitech.smartparking_system.journal.internal.service.Journal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.modulith.events.RoutingTarget;
+import org.springframework.modulith.events.support.EventExternalizationSupport;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Externalizes {@code @Externalized} events into the local {@link Journal} instead of a broker.
+ * <p>
+ * Each event becomes one JSON record: {@code {"target", "key", "type", "externalizedAt", "event"}}. The
+ * returned future completes once the record is durable, so the event publication is only marked completed
+ * after the group flush that covers it.
+ */
+@Slf4j
+@Component
+public class JournalEventExternalizer extends EventExternalizationSupport {
+
+    private final Journal journal;
+    private final ObjectMapper objectMapper;
+
+    public JournalEventExternalizer(EventExternalizationConfiguration configuration,
+                                    Journal journal,
+                                    ObjectMapper objectMapper) {
+        super(configuration);
+        this.journal = journal;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected CompletableFuture<?> externalize(Object payload, RoutingTarget target) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("target", target.getTarget());
+        envelope.put("key", target.getKey());
+        envelope.put("type", payload.getClass().getSimpleName());
+        envelope.put("externalizedAt", Instant.now());
+        envelope.put("event", payload);
+
+        byte[] record;
+        try {
+            record = objectMapper.writeValueAsBytes(envelope);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return journal.append(record)
+                .whenComplete((sequence, failure) -> {
+                    if (failure != null) {
+                        log.error("Journal append failed: type={} target={}", envelope.get("type"), target.getTarget(), failure);
+                    } else {
+                        log.debug("Event journaled: sequence={} type={} target={}", sequence, envelope.get("type"), target.getTarget());
+                    }
+                });
+    }
+}
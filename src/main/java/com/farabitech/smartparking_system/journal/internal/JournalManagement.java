@@ -0,0 +1,32 @@
+package com.farabitech.smartparking_system.journal.internal;
+
+import com.farabitech.smartparking_system.journal.internal.service.Journal;
+import com.farabitech.smartparking_system.journal.spi.JournalReader;
+import com.farabitech.smartparking_system.journal.spi.JournalSPI;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class JournalManagement implements JournalSPI {
+
+    private final Journal journal;
+
+    public JournalManagement(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    @WithSpan(value = "JournalManagement#openReader", kind = SpanKind.INTERNAL)
+    public JournalReader openReader(long fromSequence) {
+        log.info("Opening journal reader: fromSequence={} lastSequence={}", fromSequence, journal.committedSequence());
+        return journal.openReader(fromSequence);
+    }
+
+    @Override
+    public long lastSequence() {
+        return journal.committedSequence();
+    }
+}
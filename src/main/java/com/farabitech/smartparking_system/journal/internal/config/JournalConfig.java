@@ -0,0 +1,16 @@
+package com.farabitech.smartparking_system.journal.internal.config;
+
+import com.farabitech.smartparking_system.journal.internal.service.Journal;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+class JournalConfig {
+
+    @Bean
+    Journal journal(JournalProperties properties) {
+        return new Journal(properties.directory(), Math.toIntExact(properties.segmentSize().toBytes()), properties.maxBatch());
+    }
+}
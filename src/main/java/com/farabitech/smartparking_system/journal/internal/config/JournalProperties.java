@@ -0,0 +1,20 @@
+package com.farabitech.smartparking_system.journal.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Local event journal, bound from {@code smartparking.journal.*}.
+ *
+ * @param directory   where segment files are kept
+ * @param segmentSize size of each memory-mapped segment file; also the largest possible record
+ * @param maxBatch    most records written per forced flush
+ */
+@ConfigurationProperties("smartparking.journal")
+public record JournalProperties(@DefaultValue("data/journal") Path directory,
+                                @DefaultValue("64MB") DataSize segmentSize,
+                                @DefaultValue("1024") int maxBatch) {
+}
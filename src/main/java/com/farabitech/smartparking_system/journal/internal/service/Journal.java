@@ -0,0 +1,235 @@
+package com.farabitech.smartparking_system.journal.internal.service;
+
+import com.farabitech.smartparking_system.journal.spi.JournalReader;
+import com.farabitech.smartparking_system.journal.spi.exceptions.JournalException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of memory-mapped, fixed-size segment files, named after the sequence of their first record.
+ * <p>
+ * Appends are queued and written by a single writer thread in groups: it takes whatever has queued up (up to
+ * {@code maxBatch} records), copies the records into the mapped segment, forces the written range to disk once,
+ * and only then completes the callers' futures. Under load one {@code msync} covers many records. When a record
+ * does not fit, the segment is forced and the next one started.
+ * <p>
+ * On open, the last segment is scanned and cut back to its last intact record, so a crash mid-write leaves
+ * neither a torn record nor a gap; sequences continue from there.
+ */
+@Slf4j
+public class Journal implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxBatch;
+    private final ConcurrentNavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final Object commits = new Object();
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    private JournalSegment current;
+    private int position;
+    private long nextSequence;
+    private volatile long committedSequence;
+    private volatile boolean open = true;
+
+    public Journal(Path directory, int segmentSize, int maxBatch) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxBatch = maxBatch;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new JournalException("Could not open journal in " + directory, e);
+        }
+        this.writer = Thread.ofPlatform().name("journal-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Queues a record; the future completes with its sequence once it is durable. Records cannot be empty,
+     * a zero length marks the end of a segment's data.
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        PendingAppend append = new PendingAppend(payload, new CompletableFuture<>());
+        if (!open) {
+            append.result.completeExceptionally(new JournalException("Journal is closed"));
+        } else if (payload.length == 0) {
+            append.result.completeExceptionally(new JournalException("Journal records cannot be empty"));
+        } else if (!fitsEmptySegment(payload.length)) {
+            append.result.completeExceptionally(new JournalException(
+                    "Record of " + payload.length + " bytes does not fit a segment of " + segmentSize + " bytes"));
+        } else {
+            queue.add(append);
+        }
+        return append.result;
+    }
+
+    public long committedSequence() {
+        return committedSequence;
+    }
+
+    public JournalReader openReader(long fromSequence) {
+        return new SegmentJournalReader(this, Math.max(1, fromSequence));
+    }
+
+    ConcurrentNavigableMap<Long, Path> segments() {
+        return segments;
+    }
+
+    /**
+     * Waits until a record at or after {@code sequence} is durable or the timeout elapses.
+     */
+    void awaitCommitted(long sequence, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (commits) {
+            long remaining;
+            while (committedSequence < sequence && open && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(commits, remaining);
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalSegment::isSegment)
+                    .forEach(path -> segments.put(JournalSegment.baseSequence(path), path));
+        }
+        if (segments.isEmpty()) {
+            startSegment(1);
+            committedSequence = 0;
+            return;
+        }
+
+        long base = segments.lastKey();
+        current = JournalSegment.openForWrite(directory, base, segmentSize);
+        position = 0;
+        long sequence = base;
+        int length;
+        while ((length = current.validRecordLength(position, sequence, crc)) >= 0) {
+            position += JournalSegment.HEADER_BYTES + length;
+            sequence++;
+        }
+        // anything after the last intact record is a torn write; clear it so it cannot resurface
+        current.zero(position);
+        current.force(position, current.capacity());
+        nextSequence = sequence;
+        committedSequence = sequence - 1;
+        log.info("Journal opened: directory={} segments={} lastSequence={}", directory, segments.size(), committedSequence);
+    }
+
+    private void startSegment(long baseSequence) throws IOException {
+        if (current != null) {
+            current.close();
+        }
+        current = JournalSegment.openForWrite(directory, baseSequence, segmentSize);
+        segments.put(baseSequence, current.path());
+        position = 0;
+        nextSequence = baseSequence;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatch);
+        try {
+            while (open || !queue.isEmpty()) {
+                PendingAppend first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<PendingAppend> batch) {
+        long[] sequences = new long[batch.size()];
+        JournalSegment startedIn = current;
+        int startedAt = position;
+        long firstSequence = nextSequence;
+        try {
+            int flushedFrom = position;
+            for (int i = 0; i < batch.size(); i++) {
+                byte[] payload = batch.get(i).payload;
+                if (!current.fits(position, payload.length)) {
+                    current.force(flushedFrom, position);
+                    startSegment(nextSequence);
+                    flushedFrom = 0;
+                }
+                sequences[i] = nextSequence;
+                position = current.write(position, nextSequence++, payload, crc);
+            }
+            // group commit: one force for the whole batch
+            current.force(flushedFrom, position);
+        } catch (IOException | RuntimeException e) {
+            // anything escaping here would end the writer thread and leave every later append hanging
+            JournalException failure = new JournalException("Journal write failed", e);
+            batch.forEach(append -> append.result.completeExceptionally(failure));
+            log.error("Journal write failed: records={}", batch.size(), e);
+            rewind(startedIn, startedAt, firstSequence);
+            return;
+        }
+
+        synchronized (commits) {
+            committedSequence = sequences[sequences.length - 1];
+            commits.notifyAll();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(sequences[i]);
+        }
+    }
+
+    /**
+     * Clears what a failed batch wrote into the current segment, so that the next batch reuses its sequences
+     * instead of making its records readable when it commits. Records it left in an earlier segment stay.
+     */
+    private void rewind(JournalSegment startedIn, int startedAt, long firstSequence) {
+        int from = current == startedIn ? startedAt : 0;
+        try {
+            current.zero(from);
+            current.force(from, position);
+            position = from;
+            nextSequence = current == startedIn ? firstSequence : current.baseSequence();
+        } catch (RuntimeException e) {
+            log.error("Journal rewind failed: position={} nextSequence={}", position, nextSequence, e);
+        }
+    }
+
+    private boolean fitsEmptySegment(int payloadLength) {
+        return (long) JournalSegment.HEADER_BYTES + payloadLength <= segmentSize;
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        open = false;
+        writer.join();
+        synchronized (commits) {
+            commits.notifyAll();
+        }
+        current.close();
+        log.info("Journal closed: lastSequence={}", committedSequence);
+    }
+
+    private record PendingAppend(byte[] payload, CompletableFuture<Long> result) {
+    }
+}
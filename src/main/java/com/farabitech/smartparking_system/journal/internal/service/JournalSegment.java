@@ -0,0 +1,127 @@
+package com.farabitech.smartparking_system.journal.internal.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped segment file.
+ * <p>
+ * Record layout: {@code int length | int crc32 | long sequence | byte[length] payload}, with the CRC over
+ * sequence and payload. The length is written last, so a reader never sees a record whose length is set
+ * but whose body is not. A zero length marks the end of the data; files are zero-filled when created.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    static final String SUFFIX = ".segment";
+
+    private final Path path;
+    private final long baseSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(Path path, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSequence = baseSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment openForWrite(Path directory, long baseSequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(baseSequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(path, baseSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    static JournalSegment openForRead(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new JournalSegment(path, baseSequence(path), channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%020d%s", baseSequence, SUFFIX);
+    }
+
+    static long baseSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static boolean isSegment(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    boolean fits(int position, int payloadLength) {
+        return (long) position + HEADER_BYTES + payloadLength <= buffer.capacity();
+    }
+
+    /**
+     * Writes a record at {@code position} and returns the position after it.
+     */
+    int write(int position, long sequence, byte[] payload, CRC32 crc) {
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + HEADER_BYTES, payload);
+        crc.reset();
+        crc.update(buffer.slice(position + 8, Long.BYTES + payload.length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        return position + HEADER_BYTES + payload.length;
+    }
+
+    /**
+     * Length of the valid record at {@code position}, or {@code -1} at the end of the data or on a torn or
+     * corrupt record.
+     */
+    int validRecordLength(int position, long expectedSequence, CRC32 crc) {
+        if ((long) position + HEADER_BYTES > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || !fits(position, length) || buffer.getLong(position + 8) != expectedSequence) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(buffer.slice(position + 8, Long.BYTES + length));
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? length : -1;
+    }
+
+    byte[] payload(int position, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    void zero(int from) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int position = from; position < buffer.capacity(); position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, buffer.capacity() - position));
+        }
+    }
+
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
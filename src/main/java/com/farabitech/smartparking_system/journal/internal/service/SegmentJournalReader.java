@@ -0,0 +1,109 @@
+package com.farabitech.smartparking_system.journal.internal.service;
+
+import com.farabitech.smartparking_system.journal.spi.JournalReader;
+import com.farabitech.smartparking_system.journal.spi.dto.JournalRecord;
+import com.farabitech.smartparking_system.journal.spi.exceptions.JournalException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a {@link Journal} through its own read-only mappings, never past the last durable record.
+ */
+class SegmentJournalReader implements JournalReader {
+
+    private final Journal journal;
+    private final CRC32 crc = new CRC32();
+
+    private long nextSequence;
+    private JournalSegment segment;
+    private int position;
+
+    SegmentJournalReader(Journal journal, long fromSequence) {
+        this.journal = journal;
+        this.nextSequence = fromSequence;
+    }
+
+    @Override
+    public long position() {
+        return nextSequence;
+    }
+
+    @Override
+    public int poll(int maxRecords, Consumer<JournalRecord> consumer) {
+        int read = 0;
+        long committed = journal.committedSequence();
+        try {
+            while (read < maxRecords && nextSequence <= committed) {
+                if (segment == null) {
+                    seek(nextSequence);
+                }
+                int length = segment.validRecordLength(position, nextSequence, crc);
+                if (length < 0) {
+                    // end of this segment's data, the record has to be at the start of the next one
+                    Map.Entry<Long, Path> next = journal.segments().higherEntry(segment.baseSequence());
+                    if (next == null || next.getKey() != nextSequence) {
+                        throw new JournalException("Journal record " + nextSequence + " is missing or corrupt in "
+                                + segment.path());
+                    }
+                    openSegment(next.getValue());
+                    continue;
+                }
+                consumer.accept(new JournalRecord(nextSequence, segment.payload(position, length)));
+                position += JournalSegment.HEADER_BYTES + length;
+                nextSequence++;
+                read++;
+            }
+        } catch (IOException e) {
+            throw new JournalException("Could not read journal segment", e);
+        }
+        return read;
+    }
+
+    @Override
+    public int poll(int maxRecords, Duration timeout, Consumer<JournalRecord> consumer) throws InterruptedException {
+        int read = poll(maxRecords, consumer);
+        if (read > 0) {
+            return read;
+        }
+        journal.awaitCommitted(nextSequence, timeout.toNanos());
+        return poll(maxRecords, consumer);
+    }
+
+    private void seek(long sequence) throws IOException {
+        Map.Entry<Long, Path> containing = journal.segments().floorEntry(sequence);
+        if (containing == null) {
+            throw new JournalException("Journal record " + sequence + " is no longer available");
+        }
+        openSegment(containing.getValue());
+        for (long skipped = segment.baseSequence(); skipped < sequence; skipped++) {
+            int length = segment.validRecordLength(position, skipped, crc);
+            if (length < 0) {
+                throw new JournalException("Journal record " + skipped + " is missing or corrupt in " + segment.path());
+            }
+            position += JournalSegment.HEADER_BYTES + length;
+        }
+    }
+
+    private void openSegment(Path path) throws IOException {
+        close();
+        segment = JournalSegment.openForRead(path);
+        position = 0;
+    }
+
+    @Override
+    public void close() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                throw new JournalException("Could not close journal segment", e);
+            }
+            segment = null;
+        }
+    }
+}
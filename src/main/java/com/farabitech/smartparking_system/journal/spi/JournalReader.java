@@ -0,0 +1,32 @@
+package com.farabitech.smartparking_system.journal.spi;
+
+import com.farabitech.smartparking_system.journal.spi.dto.JournalRecord;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * A cursor over the journal that follows it as it grows. Not thread-safe; one reader per consumer.
+ */
+public interface JournalReader extends AutoCloseable {
+
+    /**
+     * Sequence of the next record this reader will return.
+     */
+    long position();
+
+    /**
+     * Hands up to {@code maxRecords} durable records to {@code consumer} without waiting.
+     *
+     * @return number of records read
+     */
+    int poll(int maxRecords, Consumer<JournalRecord> consumer);
+
+    /**
+     * Like {@link #poll(int, Consumer)}, but waits up to {@code timeout} for a record if none is available.
+     */
+    int poll(int maxRecords, Duration timeout, Consumer<JournalRecord> consumer) throws InterruptedException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,17 @@
+package com.farabitech.smartparking_system.journal.spi;
+
+/**
+ * Read access to the local event journal, where {@code @Externalized} module events are appended.
+ */
+public interface JournalSPI {
+
+    /**
+     * Opens a reader positioned at {@code fromSequence}; {@code 1} replays the whole journal.
+     */
+    JournalReader openReader(long fromSequence);
+
+    /**
+     * Sequence of the last record that is durable on disk, {@code 0} while the journal is empty.
+     */
+    long lastSequence();
+}
@@ -0,0 +1,10 @@
+package com.farabitech.smartparking_system.journal.spi.dto;
+
+/**
+ * One journal entry.
+ *
+ * @param sequence position in the journal, starting at 1 and without gaps
+ * @param payload  the externalized event as UTF-8 JSON
+ */
+public record JournalRecord(long sequence, byte[] payload) {
+}
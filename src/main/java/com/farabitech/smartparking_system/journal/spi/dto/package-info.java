@@ -0,0 +1,4 @@
+@NamedInterface("journal-spi-dto")
+package com.farabitech.smartparking_system.journal.spi.dto;
+
+import org.springframework.modulith.NamedInterface;
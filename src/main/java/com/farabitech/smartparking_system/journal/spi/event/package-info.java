@@ -0,0 +1,4 @@
+@NamedInterface("journal-spi-event")
+package com.farabitech.smartparking_system.journal.spi.event;
+
+import org.springframework.modulith.NamedInterface;
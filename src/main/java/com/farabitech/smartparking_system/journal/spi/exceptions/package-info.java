@@ -0,0 +1,4 @@
+@NamedInterface("journal-spi-exception")
+package com.farabitech.smartparking_system.journal.spi.exceptions;
+
+import org.springframework.modulith.NamedInterface;
@@ -0,0 +1,4 @@
+@NamedInterface("journal-spi")
+package com.farabitech.smartparking_system.journal.spi;
+
+import org.springframework.modulith.NamedInterface;
@@ -7,32 +7,37 @@ import io.opentelemetry.instrumentation.annotations.WithSpan;
 import org.springframework.modulith.events.ApplicationModuleListener;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
 import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import com.farabitech.smartparking_system.notification.internal.service.NotificationService;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
 
 @Slf4j
 @Service
 public class NotificationEventListener {
 
+    private final NotificationService notificationService;
+
+    public NotificationEventListener(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
     @ApplicationModuleListener
     @WithSpan(value = "NotificationEventListener#notifyOnVehicleEntry", kind = SpanKind.CONSUMER)
     public void notifyOnVehicleEntry(VehicleEnteredEvent event) {
 
-        log.info("Notification event received: vehicle={} entryTime={}",
+        log.info(LogMarkers.HIGH_VOLUME, "Notification event received: vehicle={} entryTime={}",
                 event.vehicleNumber(),
                 event.entryTime());
 
-        // Logic to send notification to the user
-        System.out.println("📩 Notification: Vehicle " + event.vehicleNumber() +
-                " entered at " + event.entryTime() + ". Welcome!");
+        notificationService.notifyEntry(event);
     }
 
     @ApplicationModuleListener
     @WithSpan(value = "NotificationEventListener#notifyOnVehicleExit", kind = SpanKind.CONSUMER)
     public void notifyOnVehicleExit(VehicleExitedEvent event) {
-        log.info("Notification event received: vehicle={} exitTime={}",
+        log.info(LogMarkers.HIGH_VOLUME, "Notification event received: vehicle={} exitTime={}",
                 event.vehicleNumber(),
                 event.exitTime());
 
-        // Logic to send notification to the user
-        System.out.println("📩 Notification: Vehicle " + event.vehicleNumber() + " has exited. Thank you for visiting!");
+        notificationService.notifyExit(event);
     }
 }
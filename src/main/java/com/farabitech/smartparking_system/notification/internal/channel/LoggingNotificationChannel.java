@@ -0,0 +1,27 @@
+package com.farabitech.smartparking_system.notification.internal.channel;
+
+import com.farabitech.smartparking_system.notification.internal.model.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
+
+import java.util.List;
+
+/**
+ * Local stand-in for a real channel: logs every notification.
+ */
+@Slf4j
+@Component
+public class LoggingNotificationChannel implements NotificationChannel {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void send(List<Notification> batch) {
+        log.info("Sending notification batch: channel={} size={}", name(), batch.size());
+        batch.forEach(notification -> log.info(LogMarkers.HIGH_VOLUME, "📩 Notification: {}", notification.message()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.farabitech.smartparking_system.notification.internal.channel;
+
+import com.farabitech.smartparking_system.notification.internal.model.Notification;
+
+import java.util.List;
+
+/**
+ * A way of reaching vehicle owners (SMS, email, push, ...). Every channel bean receives every notification.
+ * <p>
+ * Sends happen on the channel's own worker thread, one batch at a time, within the channel's configured rate
+ * limit. A send that throws counts the whole batch as failed; channels retry internally if they want to.
+ */
+public interface NotificationChannel {
+
+    String name();
+
+    void send(List<Notification> batch);
+}
@@ -0,0 +1,48 @@
+package com.farabitech.smartparking_system.notification.internal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Notification dispatch tuning, bound from {@code smartparking.notification.*}.
+ *
+ * @param queueCapacity   notifications accepted but not yet handed to the channels
+ * @param coalesceWindow  how long a notification is held so that an exit following the entry of the same
+ *                        vehicle is sent as a single message; {@code 0} sends right away
+ * @param offerTimeout    how long a listener waits for queue space before failing, which leaves its event
+ *                        publication incomplete so that it is retried
+ * @param flushInterval   longest wait before a partial batch is sent
+ * @param channelDefaults limits of channels without an entry in {@code channels}
+ * @param channels        limits per channel name
+ */
+@ConfigurationProperties("smartparking.notification")
+public record NotificationProperties(@DefaultValue("10000") int queueCapacity,
+                                     @DefaultValue("2s") Duration coalesceWindow,
+                                     @DefaultValue("5s") Duration offerTimeout,
+                                     @DefaultValue("200ms") Duration flushInterval,
+                                     @DefaultValue ChannelLimits channelDefaults,
+                                     Map<String, ChannelLimits> channels) {
+
+    public NotificationProperties {
+        channels = channels == null ? Map.of() : Map.copyOf(channels);
+    }
+
+    public ChannelLimits limitsFor(String channel) {
+        return channels.getOrDefault(channel, channelDefaults);
+    }
+
+    /**
+     * @param batchSize      most notifications per send, at most {@code burst}
+     * @param ratePerSecond  sustained notifications per second, {@code 0} for unlimited
+     * @param burst          notifications that may be sent at once after an idle period
+     * @param outboxCapacity notifications waiting for this channel before dispatch to all channels blocks
+     */
+    public record ChannelLimits(@DefaultValue("100") int batchSize,
+                                @DefaultValue("50") double ratePerSecond,
+                                @DefaultValue("100") int burst,
+                                @DefaultValue("1000") int outboxCapacity) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.farabitech.smartparking_system.notification.internal.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message to a vehicle owner.
+ *
+ * @param createdNanos {@link System#nanoTime()} when the notification was created, for delivery latency
+ */
+public record Notification(String vehicleNumber,
+                           Type type,
+                           LocalDateTime entryTime,
+                           LocalDateTime exitTime,
+                           long createdNanos) {
+
+    public enum Type {
+        ENTRY,
+        EXIT,
+        /** an entry and the following exit, coalesced */
+        VISIT
+    }
+
+    public static Notification entry(String vehicleNumber, LocalDateTime entryTime) {
+        return new Notification(vehicleNumber, Type.ENTRY, entryTime, null, System.nanoTime());
+    }
+
+    public static Notification exit(String vehicleNumber, LocalDateTime entryTime, LocalDateTime exitTime) {
+        return new Notification(vehicleNumber, Type.EXIT, entryTime, exitTime, System.nanoTime());
+    }
+
+    /**
+     * This entry and the exit that followed it as one visit, as old as this notification.
+     */
+    public Notification visit(Notification exit) {
+        return new Notification(vehicleNumber, Type.VISIT, entryTime, exit.exitTime(), createdNanos);
+    }
+
+    public String message() {
+        return switch (type) {
+            case ENTRY -> "Vehicle " + vehicleNumber + " entered at " + entryTime + ". Welcome!";
+            case EXIT -> "Vehicle " + vehicleNumber + " has exited. Thank you for visiting!";
+            case VISIT -> "Vehicle " + vehicleNumber + " parked from " + entryTime + " to " + exitTime
+                    + ". Thank you for visiting!";
+        };
+    }
+}
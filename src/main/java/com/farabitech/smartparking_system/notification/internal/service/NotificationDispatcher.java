@@ -0,0 +1,260 @@
+package com.farabitech.smartparking_system.notification.internal.service;
+
+import com.farabitech.smartparking_system.notification.internal.channel.NotificationChannel;
+import com.farabitech.smartparking_system.notification.internal.config.NotificationProperties;
+import com.farabitech.smartparking_system.notification.internal.config.NotificationProperties.ChannelLimits;
+import com.farabitech.smartparking_system.notification.internal.model.Notification;
+import com.farabitech.smartparking_system.notification.internal.model.Notification.Type;
+import com.farabitech.smartparking_system.notification.spi.exceptions.NotificationRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers notifications to every {@link NotificationChannel} without holding up the listeners that raise them.
+ * <p>
+ * {@link #submit(Notification)} puts a notification on a bounded queue and returns. A dispatcher thread
+ * holds each notification for the coalescing window, so that an entry followed by the exit of the same
+ * vehicle (or a duplicate from a republished event) goes out as one message, and then hands it to one
+ * worker per channel. Workers send in batches and within the channel's rate limit.
+ * <p>
+ * Backpressure runs back to front: a slow channel fills its outbox, which blocks dispatch, which fills
+ * the queue, which makes {@link #submit(Notification)} wait and eventually fail. The failing listener's
+ * event publication then stays incomplete and is retried instead of piling up in memory. Notifications
+ * still in memory when the application stops are flushed, ignoring the window; a crash loses them.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final NotificationProperties properties;
+    private final BlockingQueue<Notification> queue;
+    /** held for coalescing, keyed by vehicle, oldest first; dispatcher thread only */
+    private final Map<String, Notification> pending = new LinkedHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final List<ChannelWorker> workers = new ArrayList<>();
+    private final Counter coalesced;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private volatile boolean dispatching;
+    private Thread dispatcher;
+
+    public NotificationDispatcher(NotificationProperties properties,
+                                  List<NotificationChannel> channels,
+                                  MeterRegistry registry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        channels.forEach(channel -> workers.add(new ChannelWorker(channel, properties.limitsFor(channel.name()), registry)));
+
+        Gauge.builder("notification.queue.size", queue, BlockingQueue::size)
+                .description("Notifications waiting for dispatch").register(registry);
+        Gauge.builder("notification.pending", pendingCount, AtomicInteger::get)
+                .description("Notifications held for coalescing").register(registry);
+        this.coalesced = Counter.builder("notification.coalesced")
+                .description("Notifications merged into another one").register(registry);
+        this.rejected = Counter.builder("notification.rejected")
+                .description("Notifications refused because the queue stayed full").register(registry);
+    }
+
+    public void submit(Notification notification) {
+        if (!running) {
+            rejected.increment();
+            throw NotificationRejectedException.notRunning(notification.vehicleNumber());
+        }
+        boolean accepted;
+        try {
+            accepted = queue.offer(notification, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            log.warn("Notification queue full: capacity={} vehicleNumber={}", properties.queueCapacity(), notification.vehicleNumber());
+            throw NotificationRejectedException.queueFull(notification.vehicleNumber());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatching = true;
+        workers.forEach(ChannelWorker::start);
+        dispatcher = Thread.ofVirtual().name("notification-dispatcher").start(this::dispatch);
+        log.info("Notification dispatcher started: channels={} queueCapacity={} coalesceWindow={}",
+                workers.stream().map(worker -> worker.channel.name()).toList(),
+                properties.queueCapacity(), properties.coalesceWindow());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            dispatcher.join(STOP_TIMEOUT_MILLIS);
+            dispatching = false;
+            for (ChannelWorker worker : workers) {
+                worker.thread.join(STOP_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Notification dispatcher stopped: undelivered={}",
+                queue.size() + pending.size() + workers.stream().mapToInt(worker -> worker.outbox.size()).sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatch() {
+        List<Notification> drained = new ArrayList<>();
+        long windowNanos = properties.coalesceWindow().toNanos();
+        try {
+            while (running || !queue.isEmpty() || !pending.isEmpty()) {
+                Notification first = queue.poll(properties.flushInterval().toNanos(), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    drained.add(first);
+                    queue.drainTo(drained, Math.max(0, properties.queueCapacity() - pending.size()));
+                }
+                for (Notification notification : drained) {
+                    hold(notification);
+                }
+                drained.clear();
+                // on shutdown everything still held is due
+                release(System.nanoTime() - windowNanos, !running);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void hold(Notification notification) throws InterruptedException {
+        Notification held = pending.get(notification.vehicleNumber());
+        if (held == null) {
+            pending.put(notification.vehicleNumber(), notification);
+        } else if (held.type() == Type.ENTRY && notification.type() == Type.EXIT) {
+            pending.put(notification.vehicleNumber(), held.visit(notification));
+            coalesced.increment();
+        } else if (held.type() == notification.type() || held.type() == Type.VISIT && notification.type() == Type.EXIT) {
+            // a duplicate, e.g. from a republished event; keeps its place in line
+            coalesced.increment();
+        } else {
+            // the vehicle is back: the previous visit has to go out first
+            pending.remove(notification.vehicleNumber());
+            deliver(held);
+            pending.put(notification.vehicleNumber(), notification);
+        }
+        pendingCount.set(pending.size());
+    }
+
+    private void release(long heldBefore, boolean all) throws InterruptedException {
+        Iterator<Notification> oldestFirst = pending.values().iterator();
+        while (oldestFirst.hasNext()) {
+            Notification notification = oldestFirst.next();
+            if (!all && notification.createdNanos() - heldBefore > 0) {
+                break;
+            }
+            oldestFirst.remove();
+            deliver(notification);
+        }
+        pendingCount.set(pending.size());
+    }
+
+    private void deliver(Notification notification) throws InterruptedException {
+        for (ChannelWorker worker : workers) {
+            worker.outbox.put(notification);
+        }
+    }
+
+    private final class ChannelWorker implements Runnable {
+
+        private final NotificationChannel channel;
+        private final int batchSize;
+        private final BlockingQueue<Notification> outbox;
+        private final TokenBucket rateLimit;
+        private final Timer latency;
+        private final Counter sent;
+        private final Counter failed;
+        private Thread thread;
+
+        private ChannelWorker(NotificationChannel channel, ChannelLimits limits, MeterRegistry registry) {
+            this.channel = channel;
+            this.batchSize = Math.max(1, Math.min(limits.batchSize(), limits.burst()));
+            this.outbox = new ArrayBlockingQueue<>(limits.outboxCapacity());
+            this.rateLimit = new TokenBucket(limits.ratePerSecond(), limits.burst());
+
+            Gauge.builder("notification.channel.outbox", outbox, BlockingQueue::size)
+                    .tag("channel", channel.name())
+                    .description("Notifications waiting for this channel").register(registry);
+            this.latency = Timer.builder("notification.delivery.latency")
+                    .tag("channel", channel.name())
+                    .description("Time from a notification being raised to being sent")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.sent = Counter.builder("notification.delivered").tag("channel", channel.name()).tag("outcome", "sent")
+                    .register(registry);
+            this.failed = Counter.builder("notification.delivered").tag("channel", channel.name()).tag("outcome", "failed")
+                    .register(registry);
+        }
+
+        private void start() {
+            thread = Thread.ofVirtual().name("notification-" + channel.name()).start(this);
+        }
+
+        @Override
+        public void run() {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            try {
+                while (dispatching || !outbox.isEmpty()) {
+                    Notification first = outbox.poll(properties.flushInterval().toNanos(), TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    outbox.drainTo(batch, batchSize - 1);
+                    rateLimit.acquire(batch.size());
+                    send(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void send(List<Notification> batch) {
+            try {
+                channel.send(batch);
+                long now = System.nanoTime();
+                batch.forEach(notification -> latency.record(now - notification.createdNanos(), TimeUnit.NANOSECONDS));
+                sent.increment(batch.size());
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                log.error("Notification batch failed: channel={} size={}", channel.name(), batch.size(), e);
+            }
+        }
+    }
+}
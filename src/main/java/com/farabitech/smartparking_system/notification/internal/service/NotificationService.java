@@ -1,5 +1,8 @@
 package com.farabitech.smartparking_system.notification.internal.service;
 
+import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import com.farabitech.smartparking_system.notification.internal.model.Notification;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -7,5 +10,17 @@ import org.springframework.stereotype.Service;
 @Service
 public class NotificationService {
 
+    private final NotificationDispatcher dispatcher;
 
+    public NotificationService(NotificationDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public void notifyEntry(VehicleEnteredEvent event) {
+        dispatcher.submit(Notification.entry(event.vehicleNumber(), event.entryTime()));
+    }
+
+    public void notifyExit(VehicleExitedEvent event) {
+        dispatcher.submit(Notification.exit(event.vehicleNumber(), event.entryTime(), event.exitTime()));
+    }
 }
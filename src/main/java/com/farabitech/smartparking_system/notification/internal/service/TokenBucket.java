@@ -0,0 +1,46 @@
+package com.farabitech.smartparking_system.notification.internal.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter for a single sender: {@code ratePerSecond} permits per second on average, up to {@code burst}
+ * at once after an idle period. A rate of {@code 0} or less means unlimited.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private double available;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.permitsPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.available = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes {@code permits}, sleeping until they have accrued.
+     */
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits, System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes {@code permits}, going into debt if necessary, and returns how long the caller has to wait
+     * for the debt to be paid off.
+     */
+    synchronized long reserve(int permits, long now) {
+        if (permitsPerNano <= 0) {
+            return 0;
+        }
+        available = Math.min(burst, available + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        available -= permits;
+        return available >= 0 ? 0 : (long) Math.ceil(-available / permitsPerNano);
+    }
+}
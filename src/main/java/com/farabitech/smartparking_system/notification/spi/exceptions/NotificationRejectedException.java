@@ -0,0 +1,15 @@
+package com.farabitech.smartparking_system.notification.spi.exceptions;
+
+public class NotificationRejectedException extends RuntimeException {
+    public NotificationRejectedException(String message) {
+        super(message);
+    }
+
+    public static NotificationRejectedException queueFull(String vehicleNumber) {
+        return new NotificationRejectedException("Notification queue is full, rejected notification for vehicleNumber " + vehicleNumber);
+    }
+
+    public static NotificationRejectedException notRunning(String vehicleNumber) {
+        return new NotificationRejectedException("Notification dispatcher is not running, rejected notification for vehicleNumber " + vehicleNumber);
+    }
+}
@@ -0,0 +1,64 @@
+package com.farabitech.smartparking_system;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application for JMH benchmarks: no web server, no OTLP export, quiet logging, and a
+ * private in-memory H2 database and journal directory per benchmark state.
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... properties) {
+        Path journal = journalDirectory(database);
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "smartparking.journal.directory=" + journal,
+                "otel.sdk.disabled=true",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(SmartparkingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(new String[0]))
+                .listeners(deleteOnClose(journal))
+                .run();
+    }
+
+    /**
+     * A fresh journal directory, so that a run neither replays records of an earlier one nor writes into
+     * {@code data/journal} of the working directory.
+     */
+    public static Path journalDirectory(String name) {
+        try {
+            return Files.createTempDirectory("smartparking-journal-" + name + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ApplicationListener<ContextClosedEvent> deleteOnClose(Path directory) {
+        return event -> {
+            try {
+                FileSystemUtils.deleteRecursively(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.farabitech.smartparking_system.allocation.internal.layout;
+
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidLayoutException;
+import com.farabitech.smartparking_system.allocation.spi.dto.LayoutFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FacilityLayoutParserTest {
+
+    private final FacilityLayoutParser parser = new FacilityLayoutParser(new ObjectMapper());
+
+    @Test
+    void csvJoinsLevelZoneAndSlot() {
+        FacilityLayout layout = parser.parse("""
+                # north garage
+                facility,level,zone,slot
+                north,L1,A,001
+                north,L1,A,002
+                north,,,EV-1
+                main,,,A1
+                """, LayoutFormat.CSV);
+
+        assertThat(layout.slotCodes()).containsOnlyKeys("north", "main");
+        assertThat(layout.slotCodes().get("north")).containsExactly("L1-A-001", "L1-A-002", "EV-1");
+        assertThat(layout.size()).isEqualTo(4);
+    }
+
+    @Test
+    void yamlNumbersSlotsPerZone() {
+        FacilityLayout layout = parser.parse("""
+                facilities:
+                  - id: north
+                    levels:
+                      - name: L1
+                        zones:
+                          - { name: A, slots: 2 }
+                      - name: L2
+                        zones:
+                          - { name: B, slots: 1 }
+                  - id: kiosk
+                    zones:
+                      - { name: K, slots: 1000 }
+                  - id: closed
+                """, LayoutFormat.YAML);
+
+        assertThat(layout.slotCodes().get("north")).containsExactly("L1-A-001", "L1-A-002", "L2-B-001");
+        assertThat(layout.slotCodes().get("kiosk")).hasSize(1000);
+        assertThat(layout.slotCodes().get("kiosk").get(999)).isEqualTo("K-1000");
+        assertThat(layout.slotCodes().get("closed")).isEqualTo(List.of());
+    }
+
+    @Test
+    void rejectsDuplicatesAndMalformedInput() {
+        assertThatThrownBy(() -> parser.parse("facility,level,zone,slot\nnorth,L1,A,1\nnorth,L1,A,1\n", LayoutFormat.CSV))
+                .isInstanceOf(InvalidLayoutException.class)
+                .hasMessageContaining("listed twice");
+        assertThatThrownBy(() -> parser.parse("north,L1,A,1\n", LayoutFormat.CSV))
+                .isInstanceOf(InvalidLayoutException.class)
+                .hasMessageContaining("header");
+        assertThatThrownBy(() -> parser.parse("facility,level,zone,slot\nnorth,L1,A\n", LayoutFormat.CSV))
+                .hasMessageContaining("Line 2");
+        assertThatThrownBy(() -> parser.parse("facilities: [", LayoutFormat.YAML))
+                .isInstanceOf(InvalidLayoutException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties;
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties.AllocationMode;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry/exit round trips through the facility writers with a fixed number of busy gates spread over
+ * 1..8 facilities. With one facility every gate queues behind the same writer; with a facility per gate
+ * nothing is shared, so throughput should grow close to linearly with the facility count until the
+ * cores run out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacilityShardBenchmark {
+
+    private static final int GATES = 8;
+    private static final int ROUND_TRIPS_PER_GATE = 2_000;
+    private static final int SLOTS_PER_FACILITY = 1_000;
+
+    @Param({"1", "2", "4", "8"})
+    int facilities;
+
+    FacilityShards shards;
+    ExecutorService gates;
+    List<Callable<Integer>> traffic;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> facilityIds = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        for (int f = 0; f < facilities; f++) {
+            String facilityId = "F" + f;
+            facilityIds.add(facilityId);
+            for (int i = 0; i < SLOTS_PER_FACILITY; i++) {
+                slots.add(new Slot((long) slots.size() + 1, "Z" + (i % 10) + "-" + i, true, null, facilityId));
+            }
+        }
+        shards = new FacilityShards(
+                new AllocationProperties(AllocationMode.SEQUENTIAL, 1, 0, facilityIds, null, Map.of()), new SimpleMeterRegistry());
+        shards.rebuild(slots);
+
+        gates = Executors.newFixedThreadPool(GATES);
+        traffic = new ArrayList<>(GATES);
+        for (int g = 0; g < GATES; g++) {
+            FacilityShard shard = shards.shard(facilityIds.get(g % facilities));
+            String[] vehicles = new String[ROUND_TRIPS_PER_GATE];
+            for (int i = 0; i < vehicles.length; i++) {
+                vehicles[i] = "G" + g + "-" + i;
+            }
+            traffic.add(() -> roundTrips(shard, vehicles));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gates.shutdownNow();
+        shards.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GATES * ROUND_TRIPS_PER_GATE)
+    public int entryAndExit() throws Exception {
+        int allocated = 0;
+        for (Future<Integer> gate : gates.invokeAll(traffic)) {
+            allocated += gate.get();
+        }
+        return allocated;
+    }
+
+    private static int roundTrips(FacilityShard shard, String[] vehicles) {
+        int allocated = 0;
+        for (String vehicle : vehicles) {
+            if (shard.call(index -> index.allocate(vehicle)).isPresent()) {
+                allocated++;
+            }
+            shard.call(index -> index.release(vehicle));
+        }
+        return allocated;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FacilityShardBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
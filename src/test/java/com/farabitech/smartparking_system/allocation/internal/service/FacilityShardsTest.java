@@ -0,0 +1,151 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties;
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties.AllocationMode;
+import com.farabitech.smartparking_system.allocation.internal.config.ReservationProperties;
+import com.farabitech.smartparking_system.allocation.internal.model.Reservation;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.internal.repository.ReservationRepository;
+import com.farabitech.smartparking_system.allocation.internal.repository.SlotRepository;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.UnknownFacilityException;
+import com.farabitech.smartparking_system.allocation.spi.dto.ReservationStatus;
+import com.farabitech.smartparking_system.allocation.spi.event.SlotStateChangedEvent;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleEnteredEvent;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FacilityShardsTest {
+
+    private final FacilityShards shards = new FacilityShards(
+            new AllocationProperties(AllocationMode.SEQUENTIAL, 1, 3, List.of(Facilities.DEFAULT, "north", "south"), null, Map.of()),
+            new SimpleMeterRegistry());
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final SlotRepository slotRepository = mock(SlotRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationService reservationService = new ReservationService(reservationRepository, shards,
+            new ReservationProperties(Duration.ofHours(24), Duration.ofMinutes(15), Duration.ofMinutes(5)));
+    private final SlotAllocationService service = new SlotAllocationService(
+            slotRepository, shards, new OccupancyTracker(new SimpleMeterRegistry()), published::add, reservationService);
+
+    @BeforeEach
+    void claimsSucceed() {
+        when(slotRepository.claim(any(), any())).thenReturn(1);
+        when(slotRepository.free(any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void shutdown() {
+        shards.destroy();
+    }
+
+    @Test
+    void eventsAreAllocatedInTheirFacility() {
+        shards.rebuild(List.of(
+                new Slot(1L, "A1", true, null),
+                new Slot(2L, "A1", true, null, "north"),
+                new Slot(3L, "A1", true, null, "south")));
+
+        service.handleVehicleEntry(entered("N-1", "north"));
+        service.handleVehicleEntry(entered("S-1", "south"));
+        service.handleVehicleEntry(entered("M-1", null));
+
+        assertThat(occupant("north")).isEqualTo("N-1");
+        assertThat(occupant("south")).isEqualTo("S-1");
+        assertThat(occupant(Facilities.DEFAULT)).isEqualTo("M-1");
+        assertThat(published.stream().map(event -> ((SlotStateChangedEvent) event).facilityId()).toList())
+                .containsExactly("north", "south", Facilities.DEFAULT);
+
+        service.handleVehicleExit(new VehicleExitedEvent("N-1", LocalDateTime.now(), LocalDateTime.now(), "north", "G1"));
+
+        assertThat(occupant("north")).isNull();
+        assertThat(occupant("south")).isEqualTo("S-1");
+    }
+
+    @Test
+    void aFullFacilityDoesNotBorrowSlotsFromAnother() {
+        shards.rebuild(List.of(new Slot(1L, "A1", true, null, "north"), new Slot(2L, "A1", true, null, "south")));
+
+        service.handleVehicleEntry(entered("N-1", "north"));
+
+        assertThatThrownBy(() -> service.handleVehicleEntry(entered("N-2", "north")))
+                .hasMessageContaining("No available slots");
+        assertThat(occupant("south")).isNull();
+    }
+
+    @Test
+    void aReservedVehicleGetsItsSlotWhichOthersDoNot() {
+        shards.rebuild(List.of(new Slot(1L, "A1", true, null, "north"), new Slot(2L, "A2", true, null, "north")));
+        LocalDateTime now = LocalDateTime.now();
+        ReservationCalendar.Booking booking = new ReservationCalendar.Booking(1L, "A1", "R-1", now.plusMinutes(10), now.plusHours(2));
+        shards.shard("north").call(index -> shards.shard("north").reservations().add(booking));
+
+        // the booking starts within the hold-ahead window, so A1 is kept for R-1
+        service.handleVehicleEntry(entered("N-1", "north"));
+        assertThatThrownBy(() -> service.handleVehicleEntry(entered("N-2", "north")))
+                .hasMessageContaining("No available slots");
+        service.handleVehicleEntry(entered("R-1", "north"));
+
+        List<String> occupants = shards.shard("north").call(index -> index.slots().stream().map(SlotIndex.IndexedSlot::occupant).toList());
+        assertThat(occupants).containsExactly("R-1", "N-1");
+        verify(reservationRepository).claim(booking.slotId(), booking.from());
+    }
+
+    @Test
+    void aClaimedReservationStillHoldsItsSlotAfterARestart() {
+        shards.rebuild(List.of(new Slot(1L, "A1", true, null, "north"), new Slot(2L, "A2", true, null, "north")));
+        LocalDateTime now = LocalDateTime.now();
+        // R-1 entered, was given A1 and has left again before the restart
+        when(reservationRepository.findByStatusInAndEndsAtAfter(any(), any())).thenReturn(List.of(
+                new Reservation(7L, "north", 1L, "A1", "R-1", now.minusHours(1), now.plusHours(1), ReservationStatus.CLAIMED)));
+
+        reservationService.load();
+
+        service.handleVehicleEntry(entered("N-1", "north"));
+        assertThatThrownBy(() -> service.handleVehicleEntry(entered("N-2", "north")))
+                .hasMessageContaining("No available slots");
+    }
+
+    @Test
+    void indexWorkRunsOnTheFacilityWriter() {
+        String north = shards.shard("north").call(index -> Thread.currentThread().getName());
+        String unset = shards.shard(null).call(index -> Thread.currentThread().getName());
+
+        assertThat(north).isEqualTo("allocation-north");
+        assertThat(unset).isEqualTo("allocation-" + Facilities.DEFAULT);
+    }
+
+    @Test
+    void slotTableFacilitiesGetAShardAndUnknownOnesAreRejected() {
+        shards.rebuild(List.of(new Slot(1L, "A1", true, null, "east")));
+
+        assertThat(shards.shard("east").index().freeSlots()).isEqualTo(1);
+        assertThatThrownBy(() -> service.handleVehicleEntry(entered("W-1", "west")))
+                .isInstanceOf(UnknownFacilityException.class);
+    }
+
+    private String occupant(String facilityId) {
+        // queued behind any release still in flight on the writer
+        return shards.shard(facilityId).call(index -> index.slots().get(0).occupant());
+    }
+
+    private static VehicleEnteredEvent entered(String vehicleNumber, String facilityId) {
+        return new VehicleEnteredEvent(vehicleNumber, LocalDateTime.now(), facilityId, "G1");
+    }
+}
@@ -0,0 +1,78 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearestGateStrategyTest {
+
+    private final SlotIndex index = new SlotIndex(new NearestGateStrategy(Map.of("G1", "L1-A-001", "G2", "L2-B-010")));
+
+    @Test
+    void entriesGetTheFreeSlotNearestToTheirGate() {
+        index.rebuild(layout());
+
+        assertThat(allocate("V-1", "G1")).isEqualTo("L1-A-001");
+        assertThat(allocate("V-2", "G1")).isEqualTo("L1-A-002");
+        assertThat(allocate("V-3", "G2")).isEqualTo("L2-B-010");
+        assertThat(allocate("V-4", "G2")).isEqualTo("L2-B-009");
+        // further along the same zone before the next zone over
+        assertThat(allocate("V-5", "G2")).isEqualTo("L2-B-008");
+        assertThat(allocate("V-6", "G1")).isEqualTo("L1-A-003");
+        // unknown gates fill in slot table order
+        assertThat(allocate("V-7", null)).isEqualTo("L1-A-004");
+    }
+
+    @Test
+    void aReleasedSlotIsNearestAgainAndTakenSlotsAreSkippedByOtherGates() {
+        index.rebuild(layout());
+
+        assertThat(allocate("V-1", "G1")).isEqualTo("L1-A-001");
+        index.release("V-1");
+        assertThat(allocate("V-2", "G1")).isEqualTo("L1-A-001");
+
+        // claimed without the strategy, so G2's queue still lists it until it comes up
+        index.claim(20L, "R-1");
+        for (int i = 0; i < 20; i++) {
+            assertThat(allocate("G2-" + i, "G2").startsWith("L2-")).isEqualTo(true);
+        }
+        assertThat(allocate("V-3", "G2")).isEqualTo("L1-B-009");
+        assertThat(index.freeSlots()).isEqualTo(40 - 23);
+    }
+
+    @Test
+    void distanceRanksLevelThenZoneThenNumber() {
+        long[] anchor = NearestGateStrategy.coordinates("L1-A-001");
+
+        assertThat(NearestGateStrategy.distance(anchor, NearestGateStrategy.coordinates("L1-A-050"))
+                < NearestGateStrategy.distance(anchor, NearestGateStrategy.coordinates("L1-B-001"))).isEqualTo(true);
+        assertThat(NearestGateStrategy.distance(anchor, NearestGateStrategy.coordinates("L1-Z-120"))
+                < NearestGateStrategy.distance(anchor, NearestGateStrategy.coordinates("L2-A-001"))).isEqualTo(true);
+        assertThat(NearestGateStrategy.distance(NearestGateStrategy.coordinates("A1"), NearestGateStrategy.coordinates("A7"))
+                < NearestGateStrategy.distance(NearestGateStrategy.coordinates("A1"), NearestGateStrategy.coordinates("B1"))).isEqualTo(true);
+    }
+
+    private String allocate(String vehicleNumber, String gateId) {
+        return index.allocate(vehicleNumber, gateId, null).orElseThrow().slotCode();
+    }
+
+    /**
+     * L1-A-001..010, L1-B-001..010, L2-A-001..010, L2-B-001..010.
+     */
+    private static List<Slot> layout() {
+        List<Slot> slots = new ArrayList<>();
+        for (String level : List.of("L1", "L2")) {
+            for (String zone : List.of("A", "B")) {
+                for (int i = 1; i <= 10; i++) {
+                    slots.add(new Slot((long) slots.size() + 1, level + "-" + zone + "-" + String.format("%03d", i), true, null));
+                }
+            }
+        }
+        return slots;
+    }
+}
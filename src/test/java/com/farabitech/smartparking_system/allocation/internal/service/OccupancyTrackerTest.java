@@ -0,0 +1,87 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.spi.dto.OccupancyDTO;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancyTrackerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OccupancyTracker tracker = new OccupancyTracker(registry);
+
+    @Test
+    void rebuildCountsSlotsPerFacilityAndZone() {
+        tracker.rebuild(List.of(
+                new Slot(1L, "A1", true, null),
+                new Slot(2L, "A2", false, "V-1"),
+                new Slot(3L, "L2-B-001", false, null),
+                new Slot(4L, "L2-B-002", true, null),
+                new Slot(5L, "A1", false, "V-2", "north")));
+
+        OccupancyDTO occupancy = tracker.snapshot();
+
+        assertThat(occupancy.totalSlots()).isEqualTo(5);
+        assertThat(occupancy.occupiedSlots()).isEqualTo(3);
+        assertThat(occupancy.freeSlots()).isEqualTo(2);
+        assertThat(occupancy.facilities()).containsOnlyKeys(Facilities.DEFAULT, "north");
+        OccupancyDTO.FacilityOccupancy main = occupancy.facilities().get(Facilities.DEFAULT);
+        assertThat(main.zones()).containsOnlyKeys("A", "L2-B");
+        assertThat(main.zones().get("L2-B")).isEqualTo(new OccupancyDTO.ZoneOccupancy(2, 1, 1));
+        assertThat(occupancy.facilities().get("north").occupiedSlots()).isEqualTo(1);
+        assertThat(registry.get("allocation.occupancy.slots")
+                .tag("facility", Facilities.DEFAULT).tag("zone", "A").tag("state", "free").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void concurrentEntriesAndExitsBalanceOut() throws Exception {
+        List<Slot> slots = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            slots.add(new Slot((long) i, (char) ('A' + i % 4) + String.valueOf(i), true, null));
+        }
+        tracker.rebuild(slots);
+
+        int threads = 8;
+        int rounds = 100_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String zone = String.valueOf((char) ('A' + t % 4));
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < rounds; i++) {
+                    tracker.occupied(Facilities.DEFAULT, zone);
+                    tracker.freed(Facilities.DEFAULT, zone);
+                }
+                // every thread leaves one car parked
+                tracker.occupied(Facilities.DEFAULT, zone);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        OccupancyDTO occupancy = tracker.snapshot();
+        assertThat(occupancy.totalSlots()).isEqualTo(1_000);
+        assertThat(occupancy.occupiedSlots()).isEqualTo(threads);
+        assertThat(occupancy.facilities().get(Facilities.DEFAULT).zones().get("A").occupiedSlots()).isEqualTo(2);
+        assertThat(registry.get("allocation.occupancy.facility")
+                .tag("facility", Facilities.DEFAULT).tag("state", "free").gauge().value())
+                .isEqualTo(1_000.0 - threads);
+    }
+}
@@ -0,0 +1,125 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Which slots are free between T1 and T2" over a month of bookings: the {@link ReservationCalendar}
+ * against a scan of every booking, which is what a query on the reservation table without a usable
+ * index comes down to. Windows are two hours long and start anywhere in the month.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationCalendarBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final int DAYS = 30;
+    private static final int WINDOWS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Bookings {
+
+        @Param({"2000"})
+        int slots;
+
+        @Param({"100000"})
+        int bookings;
+
+        SlotIndex index;
+        ReservationCalendar calendar;
+        List<ReservationCalendar.Booking> all;
+        LocalDateTime[] windows;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<Slot> rows = new ArrayList<>(slots);
+            for (int i = 0; i < slots; i++) {
+                rows.add(new Slot((long) i + 1, "Z" + (i % 20) + "-" + i, true, null));
+            }
+            index = new SlotIndex();
+            index.rebuild(rows);
+
+            // random 30 minute to 8 hour bookings, retried until the calendar takes them without overlap
+            Random random = new Random(42);
+            calendar = new ReservationCalendar();
+            all = new ArrayList<>(bookings);
+            while (all.size() < bookings) {
+                long slotId = 1 + random.nextInt(slots);
+                LocalDateTime from = START.plusMinutes(15L * random.nextInt(DAYS * 24 * 4));
+                LocalDateTime to = from.plusMinutes(30L + 15L * random.nextInt(31));
+                ReservationCalendar.Booking booking = new ReservationCalendar.Booking(
+                        slotId, "Z" + (slotId - 1) % 20 + "-" + (slotId - 1), "V-" + all.size(), from, to);
+                if (calendar.add(booking)) {
+                    all.add(booking);
+                }
+            }
+
+            windows = new LocalDateTime[WINDOWS];
+            for (int i = 0; i < WINDOWS; i++) {
+                windows[i] = START.plusMinutes(random.nextInt(DAYS * 24 * 60));
+            }
+        }
+
+        LocalDateTime nextWindow() {
+            return windows[next++ & (WINDOWS - 1)];
+        }
+    }
+
+    @Benchmark
+    public int calendar(Bookings state) {
+        LocalDateTime from = state.nextWindow();
+        return state.calendar.availableSlots(state.index.slots(), from, from.plus(Duration.ofHours(2))).size();
+    }
+
+    @Benchmark
+    public int scan(Bookings state) {
+        LocalDateTime from = state.nextWindow();
+        LocalDateTime to = from.plus(Duration.ofHours(2));
+        Set<Long> booked = new HashSet<>();
+        for (ReservationCalendar.Booking booking : state.all) {
+            if (booking.from().isBefore(to) && booking.to().isAfter(from)) {
+                booked.add(booking.slotId());
+            }
+        }
+        int available = 0;
+        for (SlotIndex.IndexedSlot slot : state.index.slots()) {
+            if (!booked.contains(slot.id())) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReservationCalendarBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.spi.Exceptions.InvalidReservationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationCalendarTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    private final SlotIndex index = new SlotIndex();
+    private final ReservationCalendar calendar = new ReservationCalendar();
+
+    @Test
+    void availabilityOnlyExcludesSlotsBookedWithinTheWindow() {
+        index.rebuild(List.of(new Slot(1L, "A1", true, null), new Slot(2L, "A2", true, null), new Slot(3L, "A3", true, null)));
+        calendar.add(new ReservationCalendar.Booking(1L, "A1", "V-1", NINE, NINE.plusHours(8)));
+        calendar.add(new ReservationCalendar.Booking(2L, "A2", "V-2", NINE.plusHours(1), NINE.plusHours(2)));
+
+        assertThat(codes(NINE.plusMinutes(30), NINE.plusHours(1))).containsExactly("A2", "A3");
+        assertThat(codes(NINE.plusMinutes(30), NINE.plusMinutes(61))).containsExactly("A3");
+        assertThat(codes(NINE.plusHours(8), NINE.plusHours(9))).containsExactly("A1", "A2", "A3");
+        assertThat(codes(NINE.minusHours(1), NINE)).containsExactly("A1", "A2", "A3");
+    }
+
+    @Test
+    void bookingTakesTheFirstFreeSlotAndRejectsOverlapsOfTheSameVehicle() {
+        index.rebuild(List.of(new Slot(1L, "A1", true, null), new Slot(2L, "A2", true, null)));
+
+        ReservationCalendar.Booking first = calendar.book(index.slots(), "V-1", NINE, NINE.plusHours(2)).orElseThrow();
+        ReservationCalendar.Booking second = calendar.book(index.slots(), "V-2", NINE.plusHours(1), NINE.plusHours(3)).orElseThrow();
+
+        assertThat(first.slotCode()).isEqualTo("A1");
+        assertThat(second.slotCode()).isEqualTo("A2");
+        assertThat(calendar.book(index.slots(), "V-3", NINE.plusMinutes(90), NINE.plusHours(4)).isPresent()).isEqualTo(false);
+        assertThatThrownBy(() -> calendar.book(index.slots(), "V-1", NINE.plusHours(1), NINE.plusHours(5)))
+                .isInstanceOf(InvalidReservationException.class);
+    }
+
+    @Test
+    void aSlotIsHeldFromAheadOfTheBookingUntilItEnds() {
+        calendar.add(new ReservationCalendar.Booking(1L, "A1", "V-1", NINE, NINE.plusHours(1)));
+        Duration ahead = Duration.ofMinutes(15);
+
+        assertThat(calendar.held(1L, NINE.minusMinutes(16), ahead)).isEqualTo(false);
+        assertThat(calendar.held(1L, NINE.minusMinutes(15), ahead)).isEqualTo(true);
+        assertThat(calendar.held(1L, NINE.plusMinutes(59), ahead)).isEqualTo(true);
+        assertThat(calendar.held(1L, NINE.plusHours(1), ahead)).isEqualTo(false);
+        assertThat(calendar.bookingOf("V-1", NINE.minusMinutes(10), ahead).isPresent()).isEqualTo(true);
+
+        assertThat(calendar.prune(NINE.plusHours(1))).isEqualTo(1);
+        assertThat(calendar.size()).isEqualTo(0);
+    }
+
+    private List<String> codes(LocalDateTime from, LocalDateTime to) {
+        return calendar.availableSlots(index.slots(), from, to).stream().map(SlotIndex.IndexedSlot::slotCode).toList();
+    }
+}
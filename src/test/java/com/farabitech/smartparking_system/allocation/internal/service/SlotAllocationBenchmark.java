@@ -0,0 +1,177 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.BenchmarkContexts;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import com.farabitech.smartparking_system.allocation.internal.repository.SlotRepository;
+import com.farabitech.smartparking_system.common.facility.Facilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares allocating and freeing a slot through {@link SlotIndex} with the original
+ * {@code findFirstByAvailableTrue()} / {@code findByVehicleNumber()} repository path.
+ * Half of the facility is occupied so the repository query has to skip past taken rows.
+ * The nearest-gate variant hands out slots from per-gate priority queues for three gates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotAllocationBenchmark {
+
+    private static final String VEHICLE = "BENCH-1";
+    private static final String[] GATES = {"G1", "G2", "G3"};
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        @Param({"10000", "100000"})
+        int slots;
+
+        SlotIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = new SlotIndex();
+            index.rebuild(halfOccupied(slots));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GateState {
+
+        @Param({"10000", "100000"})
+        int slots;
+
+        SlotIndex index;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = new SlotIndex(new NearestGateStrategy(
+                    Map.of("G1", "Z0-0", "G2", "Z10-" + slots / 2, "G3", "Z19-" + (slots - 1))));
+            index.rebuild(halfOccupied(slots));
+        }
+
+        String nextGate() {
+            return GATES[next++ % GATES.length];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RepositoryState {
+
+        @Param({"10000", "100000"})
+        int slots;
+
+        ConfigurableApplicationContext context;
+        SlotRepository repository;
+        SlotIndex index;
+        TransactionTemplate tx;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContexts.start("slot-bench-" + slots);
+
+            repository = context.getBean(SlotRepository.class);
+            tx = context.getBean(TransactionTemplate.class);
+
+            List<Object[]> rows = new ArrayList<>(slots);
+            for (Slot slot : halfOccupied(slots)) {
+                rows.add(new Object[]{slot.getId(), slot.getSlotCode(), slot.isAvailable(), slot.getVehicleNumber(), slot.getFacilityId()});
+            }
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            jdbc.update("delete from Slot");
+            // the pooled sequence leaves the id column without a default; nothing else inserts slots here
+            jdbc.batchUpdate("insert into Slot (id, slotCode, available, vehicleNumber, facilityId, version) " +
+                    "values (?, ?, ?, ?, ?, 0)", rows);
+            FacilityShards shards = context.getBean(FacilityShards.class);
+            shards.rebuild(repository.findAll());
+            index = shards.shard(Facilities.DEFAULT).index();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String indexAllocateAndFree(IndexState state) {
+        SlotIndex.IndexedSlot slot = state.index.allocate(VEHICLE).orElseThrow();
+        state.index.release(VEHICLE);
+        return slot.slotCode();
+    }
+
+    @Benchmark
+    public String nearestGateAllocateAndFree(GateState state) {
+        SlotIndex.IndexedSlot slot = state.index.allocate(VEHICLE, state.nextGate(), null).orElseThrow();
+        state.index.release(VEHICLE);
+        return slot.slotCode();
+    }
+
+    @Benchmark
+    public String indexWithWriteBack(RepositoryState state) {
+        return state.tx.execute(status -> {
+            SlotIndex.IndexedSlot slot = state.index.allocate(VEHICLE).orElseThrow();
+            state.repository.claim(slot.id(), VEHICLE);
+            state.repository.free(slot.id(), VEHICLE);
+            state.index.release(VEHICLE);
+            return slot.slotCode();
+        });
+    }
+
+    @Benchmark
+    public String repositoryAllocateAndFree(RepositoryState state) {
+        return state.tx.execute(status -> {
+            Slot slot = state.repository.findFirstByAvailableTrue().orElseThrow();
+            slot.setAvailable(false);
+            slot.setVehicleNumber(VEHICLE);
+            state.repository.save(slot);
+
+            Slot held = state.repository.findByVehicleNumber(VEHICLE).orElseThrow();
+            held.setAvailable(true);
+            held.setVehicleNumber(null);
+            state.repository.save(held);
+            return held.getSlotCode();
+        });
+    }
+
+    static List<Slot> halfOccupied(int count) {
+        List<Slot> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean available = i >= count / 2;
+            slots.add(new Slot((long) i + 1, "Z" + (i % 20) + "-" + i, available, available ? null : "P-" + i));
+        }
+        return slots;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotAllocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.config.AllocationProperties.AllocationMode;
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SlotIndexConcurrencyTest {
+
+    private static final int SLOTS = 20_000;
+    private static final int ZONES = 10;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8, 16})
+    void concurrentEntriesNeverShareASlot(int threads) throws Exception {
+        SlotIndex index = new SlotIndex(AllocationMode.STRIPED, 4);
+        index.rebuild(freeSlots());
+
+        Map<Long, String> owners = new ConcurrentHashMap<>();
+        List<String> doubleAllocations = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                int allocated = 0;
+                for (int i = 0; ; i++) {
+                    String vehicle = "T" + thread + "-" + i;
+                    var slot = index.allocate(vehicle);
+                    if (slot.isEmpty()) {
+                        return allocated;
+                    }
+                    String previous = owners.putIfAbsent(slot.get().id(), vehicle);
+                    if (previous != null) {
+                        doubleAllocations.add(slot.get().slotCode() + ": " + previous + " / " + vehicle);
+                    }
+                    allocated++;
+                }
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(30, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+
+        log.info("threads={} allocations={} allocations/sec={}",
+                threads, total, (long) (total / (elapsed / 1_000_000_000.0)));
+
+        assertThat(doubleAllocations).isEmpty();
+        assertThat(total).isEqualTo(SLOTS);
+        assertThat(owners).hasSize(SLOTS);
+        assertThat(index.freeSlots()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 8})
+    void churnKeepsEverySlotAccountedFor(int threads) throws Exception {
+        SlotIndex index = new SlotIndex(AllocationMode.STRIPED, 4);
+        index.rebuild(freeSlots());
+
+        Map<Long, String> held = new ConcurrentHashMap<>();
+        List<String> violations = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    String vehicle = "C" + thread + "-" + (i % 64);
+                    var current = index.allocationOf(vehicle);
+                    if (current.isPresent()) {
+                        held.remove(current.get().id(), vehicle);
+                        index.release(vehicle);
+                    } else {
+                        index.allocate(vehicle).ifPresent(slot -> {
+                            if (held.putIfAbsent(slot.id(), vehicle) != null) {
+                                violations.add(slot.slotCode());
+                            }
+                        });
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(violations).isEmpty();
+        assertThat(index.freeSlots() + held.size()).isEqualTo(SLOTS);
+    }
+
+    private static List<Slot> freeSlots() {
+        List<Slot> slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new Slot((long) i + 1, "Z" + (i % ZONES) + "-" + i, true, null));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,46 @@
+package com.farabitech.smartparking_system.allocation.internal.service;
+
+import com.farabitech.smartparking_system.allocation.internal.model.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotIndexTest {
+
+    @Test
+    void anExitWithAnEqualVehicleNumberFreesTheSlot() {
+        SlotIndex index = new SlotIndex();
+        index.rebuild(List.of(freeSlot(1L, "A1"), freeSlot(2L, "A2")));
+
+        String entered = "ABC-123";
+        SlotIndex.IndexedSlot slot = index.allocate(entered).orElseThrow();
+
+        // the exit arrives in another request, with its own copy of the vehicle number
+        assertThat(index.release(new String(entered)).isPresent()).isTrue();
+        assertThat(slot.occupant()).isNull();
+        assertThat(index.allocationOf(entered).isPresent()).isFalse();
+        assertThat(index.freeSlots()).isEqualTo(2);
+    }
+
+    @Test
+    void anotherVehicleCannotFreeTheSlot() {
+        SlotIndex index = new SlotIndex();
+        index.rebuild(List.of(freeSlot(1L, "A1")));
+
+        SlotIndex.IndexedSlot slot = index.allocate("ABC-123").orElseThrow();
+
+        assertThat(index.release("XYZ-789").isPresent()).isFalse();
+        assertThat(slot.occupant()).isEqualTo("ABC-123");
+        assertThat(index.freeSlots()).isZero();
+    }
+
+    private static Slot freeSlot(Long id, String slotCode) {
+        Slot slot = new Slot();
+        slot.setId(id);
+        slot.setSlotCode(slotCode);
+        slot.setAvailable(true);
+        return slot;
+    }
+}
@@ -0,0 +1,155 @@
+package com.farabitech.smartparking_system.billing.internal.rollup;
+
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.internal.service.Cents;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueRollupDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares range queries over randomly compacted buckets with a brute-force sum over the raw records.
+ */
+class RevenueRangeQueryTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int MINUTES = 120 * 24 * 60;
+
+    private final Random random = new Random(42);
+    private final List<Invoice> invoices = new ArrayList<>();
+    private final Map<RevenueBucket.Key, RevenueBucket> buckets = new HashMap<>();
+
+    @Test
+    void rangeQueriesMatchBruteForce() {
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 500; i++) {
+                record(ORIGIN.plusMinutes(random.nextInt(MINUTES)).plusSeconds(random.nextInt(60)),
+                        random.nextInt(20_000) / 100.0);
+            }
+            // late invoices after a compaction start fresh hour buckets next to the compacted ones
+            LocalDateTime cutoff = ORIGIN.plusMinutes(random.nextInt(MINUTES));
+            compact(RevenueGranularity.HOUR, RevenueGranularity.DAY, RevenueBuckets.truncate(cutoff, RevenueGranularity.DAY));
+            if (random.nextBoolean()) {
+                compact(RevenueGranularity.DAY, RevenueGranularity.MONTH, RevenueBuckets.truncate(cutoff, RevenueGranularity.MONTH));
+            }
+
+            for (int q = 0; q < 200; q++) {
+                LocalDateTime from = randomTime();
+                LocalDateTime to = randomTime();
+                if (!from.isBefore(to)) {
+                    continue;
+                }
+                RevenueGranularity granularity = q % 4 == 3 ? null : RevenueGranularity.values()[q % 3];
+                assertMatchesBruteForce(from, to, granularity);
+            }
+        }
+        assertThat(buckets.values()).extracting(RevenueBucket::granularity)
+                .contains(RevenueGranularity.HOUR, RevenueGranularity.DAY, RevenueGranularity.MONTH);
+    }
+
+    @Test
+    void alignedRangeIsAnsweredFromBucketsAlone() {
+        for (int i = 0; i < 1_000; i++) {
+            record(ORIGIN.plusMinutes(random.nextInt(MINUTES)), random.nextInt(20_000) / 100.0);
+        }
+        compact(RevenueGranularity.HOUR, RevenueGranularity.DAY, ORIGIN.plusMonths(3));
+        compact(RevenueGranularity.DAY, RevenueGranularity.MONTH, ORIGIN.plusMonths(2));
+
+        LocalDateTime from = ORIGIN;
+        LocalDateTime to = ORIGIN.plusMonths(3).plusDays(5);
+        RevenueRollupDTO rollup = query(from, to, RevenueGranularity.MONTH, (a, b, sink) -> {
+            throw new AssertionError("raw scan of [" + a + ", " + b + ")");
+        });
+
+        assertThat(rollup.periods()).hasSize(4);
+        assertThat(Cents.of(rollup.totalAmount())).isEqualTo(bruteForce(from, to, null).get(null)[1]);
+    }
+
+    private void assertMatchesBruteForce(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity) {
+        RevenueRollupDTO rollup = query(from, to, granularity, this::scan);
+        Map<LocalDateTime, long[]> expected = bruteForce(from, to, granularity);
+
+        long[] total = expected.values().stream()
+                .reduce(new long[2], (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+        assertThat(rollup.invoiceCount()).as("count %s..%s %s", from, to, granularity).isEqualTo(total[0]);
+        assertThat(Cents.of(rollup.totalAmount())).as("amount %s..%s %s", from, to, granularity).isEqualTo(total[1]);
+
+        if (granularity != null) {
+            Map<LocalDateTime, List<Long>> actual = new TreeMap<>();
+            rollup.periods().forEach(period ->
+                    actual.put(period.start(), List.of(period.invoiceCount(), Cents.of(period.totalAmount()))));
+            Map<LocalDateTime, List<Long>> brute = new TreeMap<>();
+            expected.forEach((start, totals) -> brute.put(start, List.of(totals[0], totals[1])));
+            assertThat(actual).as("periods %s..%s %s", from, to, granularity).isEqualTo(brute);
+        }
+    }
+
+    private RevenueRollupDTO query(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity,
+                                   RevenueRangeQuery.RawRecords raw) {
+        List<RevenueBucket> overlapping = buckets.values().stream()
+                .filter(bucket -> bucket.start().isBefore(to) && bucket.getBucketEnd().isAfter(from))
+                .toList();
+        return new RevenueRangeQuery(from, to, granularity).evaluate(overlapping, raw);
+    }
+
+    private Map<LocalDateTime, long[]> bruteForce(LocalDateTime from, LocalDateTime to, RevenueGranularity granularity) {
+        Map<LocalDateTime, long[]> periods = granularity == null ? new HashMap<>() : new TreeMap<>();
+        for (Invoice invoice : invoices) {
+            if (!invoice.time().isBefore(from) && invoice.time().isBefore(to)) {
+                LocalDateTime period = granularity == null ? null : RevenueBuckets.truncate(invoice.time(), granularity);
+                long[] totals = periods.computeIfAbsent(period, k -> new long[2]);
+                totals[0]++;
+                totals[1] += Cents.of(invoice.amount());
+            }
+        }
+        return periods;
+    }
+
+    private void record(LocalDateTime time, double amount) {
+        invoices.add(new Invoice(time, amount));
+        add(RevenueBuckets.key(time, RevenueGranularity.HOUR), 1, Cents.of(amount));
+    }
+
+    private void compact(RevenueGranularity granularity, RevenueGranularity into, LocalDateTime before) {
+        List<RevenueBucket> compacted = buckets.values().stream()
+                .filter(bucket -> bucket.granularity() == granularity && !bucket.getBucketEnd().isAfter(before))
+                .toList();
+        RevenueBuckets.fold(compacted, into).forEach((key, totals) -> add(key, totals[0], totals[1]));
+        compacted.forEach(bucket -> buckets.remove(bucket.getKey()));
+    }
+
+    private void add(RevenueBucket.Key key, long count, long cents) {
+        RevenueBucket bucket = buckets.computeIfAbsent(key, k -> RevenueBuckets.bucket(k, 0, 0));
+        bucket.setInvoiceCount(bucket.getInvoiceCount() + count);
+        bucket.setAmountCents(bucket.getAmountCents() + cents);
+    }
+
+    private void scan(LocalDateTime from, LocalDateTime to, RevenueRangeQuery.RecordSink sink) {
+        invoices.stream()
+                .filter(invoice -> !invoice.time().isBefore(from) && invoice.time().isBefore(to))
+                .forEach(invoice -> sink.accept(invoice.time(), Cents.of(invoice.amount())));
+    }
+
+    private LocalDateTime randomTime() {
+        LocalDateTime time = ORIGIN.minusDays(3).plusMinutes(random.nextInt(MINUTES + 6 * 24 * 60));
+        // bias towards aligned edges, where bucket and raw coverage meet
+        return switch (random.nextInt(4)) {
+            case 0 -> RevenueBuckets.truncate(time, RevenueGranularity.HOUR);
+            case 1 -> RevenueBuckets.truncate(time, RevenueGranularity.DAY);
+            case 2 -> RevenueBuckets.truncate(time, RevenueGranularity.MONTH);
+            default -> time;
+        };
+    }
+
+    private record Invoice(LocalDateTime time, double amount) {
+    }
+}
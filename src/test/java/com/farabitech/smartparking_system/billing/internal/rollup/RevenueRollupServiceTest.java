@@ -0,0 +1,111 @@
+package com.farabitech.smartparking_system.billing.internal.rollup;
+
+import com.farabitech.smartparking_system.billing.internal.config.RollupProperties;
+import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.model.RevenueBucket;
+import com.farabitech.smartparking_system.billing.internal.repository.RevenueBucketRepository;
+import com.farabitech.smartparking_system.billing.internal.service.AggregateRows;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueGranularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevenueRollupServiceTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 10, 5, 14, 0);
+
+    private final Map<RevenueBucket.Key, RevenueBucket> buckets = new ConcurrentHashMap<>();
+    /** runs once, right before the next empty bucket is inserted */
+    private Runnable beforeInsert;
+
+    private final RevenueBucketRepository bucketRepository = mock(RevenueBucketRepository.class);
+    private final RevenueRollupService service = new RevenueRollupService(bucketRepository, null,
+            new RollupProperties(Duration.ofDays(2), Duration.ofDays(62), Duration.ofHours(1)),
+            new AggregateRows(new NoTransactions()));
+
+    /**
+     * The update and insert statements of {@link RevenueBucketRepository}, against {@link #buckets}.
+     */
+    @BeforeEach
+    void actOnBuckets() {
+        when(bucketRepository.add(any(), anyLong(), anyLong()))
+                .thenAnswer(call -> add(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        when(bucketRepository.insertEmpty(anyString(), any(), any())).thenAnswer(call -> {
+            Runnable concurrently = beforeInsert;
+            beforeInsert = null;
+            if (concurrently != null) {
+                concurrently.run();
+            }
+            RevenueBucket.Key key = new RevenueBucket.Key(RevenueGranularity.valueOf(call.getArgument(0)),
+                    call.getArgument(1));
+            if (buckets.putIfAbsent(key, new RevenueBucket(key, call.getArgument(2), 0, 0)) != null) {
+                throw new DataIntegrityViolationException("duplicate key " + key);
+            }
+            return 1;
+        });
+    }
+
+    @Test
+    void theFirstInvoiceOfAnHourLosingTheInsertRaceIsStillCounted() {
+        RevenueBucket.Key key = RevenueBuckets.key(HOUR, RevenueGranularity.HOUR);
+        // another listener creates the bucket and adds its invoice between this one's update and insert
+        beforeInsert = () -> {
+            buckets.put(key, RevenueBuckets.bucket(key, 0, 0));
+            add(key, 1, 700);
+        };
+
+        service.record(new BillingRecord(null, "ABC-123", 3.0, HOUR.plusMinutes(20)));
+        service.record(new BillingRecord(null, "XYZ-789", 1.25, HOUR.plusMinutes(59)));
+
+        RevenueBucket bucket = buckets.get(key);
+        assertThat(bucket.getInvoiceCount()).isEqualTo(3L);
+        assertThat(bucket.getAmountCents()).isEqualTo(1125L);
+        assertThat(bucket.getBucketEnd()).isEqualTo(HOUR.plusHours(1));
+        assertThat(buckets).hasSize(1);
+    }
+
+    private int add(RevenueBucket.Key key, long count, long cents) {
+        RevenueBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        bucket.setInvoiceCount(bucket.getInvoiceCount() + count);
+        bucket.setAmountCents(bucket.getAmountCents() + cents);
+        return 1;
+    }
+
+    private static final class NoTransactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
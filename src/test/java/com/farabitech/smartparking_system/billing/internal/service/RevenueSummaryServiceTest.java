@@ -0,0 +1,154 @@
+package com.farabitech.smartparking_system.billing.internal.service;
+
+import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.model.RevenueDaySummary;
+import com.farabitech.smartparking_system.billing.internal.repository.RevenueDaySummaryRepository;
+import com.farabitech.smartparking_system.billing.spi.dto.RevenueSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevenueSummaryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 5);
+
+    /** the day table: one row per day */
+    private final Map<LocalDate, RevenueDaySummary> rows = new ConcurrentHashMap<>();
+    /** runs once, right before the next empty row is inserted */
+    private Runnable beforeInsert;
+
+    private final RevenueDaySummaryRepository summaryRepository = mock(RevenueDaySummaryRepository.class);
+    private final RevenueSummaryService service = new RevenueSummaryService(summaryRepository, null,
+            new AggregateRows(new NoTransactions()));
+
+    /**
+     * The update and insert statements of {@link RevenueDaySummaryRepository}, against {@link #rows}.
+     */
+    @BeforeEach
+    void actOnRows() {
+        when(summaryRepository.addInvoice(any(), anyLong()))
+                .thenAnswer(call -> add(call.getArgument(0), call.getArgument(1)));
+        when(summaryRepository.insertEmpty(any())).thenAnswer(call -> {
+            Runnable concurrently = beforeInsert;
+            beforeInsert = null;
+            if (concurrently != null) {
+                concurrently.run();
+            }
+            LocalDate day = call.getArgument(0);
+            if (rows.putIfAbsent(day, new RevenueDaySummary(day, 0, 0, 0, 0)) != null) {
+                throw new DataIntegrityViolationException("duplicate key " + day);
+            }
+            return 1;
+        });
+        when(summaryRepository.findAll()).thenAnswer(call -> new ArrayList<>(rows.values()));
+    }
+
+    @Test
+    void foldsEveryInvoiceIntoItsDay() {
+        service.record(invoice(DAY.atTime(8, 0), 4.0));
+        service.record(invoice(DAY.atTime(9, 30), 1.5));
+        service.record(invoice(DAY.atTime(23, 59), 10.0));
+        service.record(invoice(DAY.plusDays(1).atTime(0, 1), 2.0));
+
+        RevenueDaySummary day = rows.get(DAY);
+        assertThat(day.getInvoiceCount()).isEqualTo(3L);
+        assertThat(day.getTotalCents()).isEqualTo(1550L);
+        assertThat(day.getMinCents()).isEqualTo(150L);
+        assertThat(day.getMaxCents()).isEqualTo(1000L);
+        assertThat(rows).hasSize(2);
+
+        assertThat(service.summary(DAY)).isEqualTo(new RevenueSummaryDTO(3, 15.5, 1.5, 10.0));
+        assertThat(service.summary()).isEqualTo(new RevenueSummaryDTO(4, 17.5, 1.5, 10.0));
+    }
+
+    @Test
+    void addsUpCentsSoTheTotalIsExact() {
+        for (int i = 0; i < 10; i++) {
+            service.record(invoice(DAY.atTime(8, i), 0.1));
+        }
+
+        assertThat(rows.get(DAY).getTotalCents()).isEqualTo(100L);
+        // ten doubles of 0.1 add up to 0.9999999999999999
+        assertThat(service.summary(DAY).totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void theFirstInvoiceOfADayLosingTheInsertRaceIsStillCounted() {
+        // another listener creates the row and adds its invoice between this one's update and insert
+        beforeInsert = () -> {
+            rows.put(DAY, new RevenueDaySummary(DAY, 0, 0, 0, 0));
+            add(DAY, 700);
+        };
+
+        service.record(invoice(DAY.atTime(12, 0), 3.0));
+
+        RevenueDaySummary day = rows.get(DAY);
+        assertThat(day.getInvoiceCount()).isEqualTo(2L);
+        assertThat(day.getTotalCents()).isEqualTo(1000L);
+        assertThat(day.getMinCents()).isEqualTo(300L);
+        assertThat(day.getMaxCents()).isEqualTo(700L);
+    }
+
+    @Test
+    void aDayRowLeftEmptyByARolledBackInvoiceIsNotCountedOnReload() {
+        rows.put(DAY, new RevenueDaySummary(DAY, 0, 0, 0, 0));
+        rows.put(DAY.plusDays(1), new RevenueDaySummary(DAY.plusDays(1), 2, 600, 200, 400));
+
+        service.load();
+
+        assertThat(service.summary()).isEqualTo(new RevenueSummaryDTO(2, 6.0, 2.0, 4.0));
+        assertThat(service.summary(DAY)).isEqualTo(new RevenueSummaryDTO(0, 0.0, null, null));
+    }
+
+    private static BillingRecord invoice(LocalDateTime billingTime, double amount) {
+        return new BillingRecord(null, "ABC-123", amount, billingTime);
+    }
+
+    private int add(LocalDate day, long cents) {
+        RevenueDaySummary row = rows.get(day);
+        if (row == null) {
+            return 0;
+        }
+        boolean first = row.getInvoiceCount() == 0;
+        row.setMinCents(first ? cents : Math.min(row.getMinCents(), cents));
+        row.setMaxCents(first ? cents : Math.max(row.getMaxCents(), cents));
+        row.setInvoiceCount(row.getInvoiceCount() + 1);
+        row.setTotalCents(row.getTotalCents() + cents);
+        return 1;
+    }
+
+    private static final class NoTransactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
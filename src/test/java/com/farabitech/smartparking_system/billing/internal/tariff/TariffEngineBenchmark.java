@@ -0,0 +1,93 @@
+package com.farabitech.smartparking_system.billing.internal.tariff;
+
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Band;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Pass;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.VehicleClassTariff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bills one million synthetic sessions (up to three days long, a third of them motorcycles and a tenth
+ * pass holders) per invocation, with the default flat tariff and a banded tariff with daily caps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TariffEngineBenchmark {
+
+    private static final int SESSIONS = 1_000_000;
+
+    @Param({"default", "banded"})
+    public String tariff;
+
+    private TariffEngine engine;
+    private final String[] vehicles = new String[SESSIONS];
+    private final LocalDateTime[] entries = new LocalDateTime[SESSIONS];
+    private final LocalDateTime[] exits = new LocalDateTime[SESSIONS];
+
+    @Setup
+    public void setUp() {
+        List<Pass> passes = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            passes.add(new Pass("P-" + i, "2025-01-01", "2025-12-31"));
+        }
+        engine = new TariffEngine(tariff.equals("default") ? TariffCompiler.DEFAULT_TARIFF : new TariffDTO("standard",
+                Map.of("standard", new VehicleClassTariff(4, 2, 30, 10, List.of(
+                                new Band(List.of(), "07:00", "19:00", 6),
+                                new Band(List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), "00:00", "00:00", 2),
+                                new Band(List.of(DayOfWeek.FRIDAY), "22:00", "03:00", 9))),
+                        "motorcycle", new VehicleClassTariff(1.5, 0, 10, 0, List.of())),
+                Map.of("M-", "motorcycle"),
+                passes));
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 6, 0, 0);
+        for (int i = 0; i < SESSIONS; i++) {
+            int kind = random.nextInt(30);
+            vehicles[i] = kind < 3 ? "P-" + random.nextInt(1_000) : kind < 13 ? "M-" + i : "C-" + i;
+            entries[i] = base.plusSeconds(random.nextInt(300 * 86_400));
+            exits[i] = entries[i].plusSeconds(random.nextInt(3 * 86_400));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSIONS)
+    public double billSessions() {
+        double total = 0;
+        for (int i = 0; i < SESSIONS; i++) {
+            total += engine.price(vehicles[i], entries[i], exits[i]);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TariffEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
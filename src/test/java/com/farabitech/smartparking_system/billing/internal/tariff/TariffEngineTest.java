@@ -0,0 +1,122 @@
+package com.farabitech.smartparking_system.billing.internal.tariff;
+
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Band;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.Pass;
+import com.farabitech.smartparking_system.billing.spi.dto.TariffDTO.VehicleClassTariff;
+import com.farabitech.smartparking_system.billing.spi.exceptions.InvalidTariffException;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TariffEngineTest {
+
+    private static final LocalDateTime YEAR_START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final TariffDTO BANDED = new TariffDTO("standard",
+            Map.of("standard", new VehicleClassTariff(4, 2, 30, 10, List.of(
+                            new Band(List.of(), "07:00", "19:00", 6),
+                            new Band(List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), "00:00", "00:00", 2),
+                            new Band(List.of(DayOfWeek.FRIDAY), "22:00", "03:00", 9))),
+                    "motorcycle", new VehicleClassTariff(1.5, 0, 0, 0, List.of())),
+            Map.of("M-", "motorcycle"),
+            List.of(new Pass("P-1", "2025-03-01", "2025-03-31")));
+
+    @Test
+    void defaultTariffBillsFiftyPerHourWithTwentyMinimum() {
+        TariffEngine engine = new TariffEngine(TariffCompiler.DEFAULT_TARIFF);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            LocalDateTime entry = YEAR_START.plusSeconds(random.nextInt(365 * 86_400)).plusNanos(random.nextInt(1_000_000_000));
+            LocalDateTime exit = entry.plusSeconds(random.nextInt(5 * 86_400)).plusNanos(random.nextInt(1_000_000_000));
+            double expected = Math.max(20, Duration.between(entry, exit).toMinutes() / 60.0 * 50);
+
+            assertThat(engine.price("V-" + i, entry, exit)).isCloseTo(expected, within(0.0051));
+        }
+    }
+
+    @Test
+    void compiledTariffMatchesMinuteByMinuteEvaluation() {
+        TariffEngine engine = new TariffEngine(BANDED);
+        SplittableRandom random = new SplittableRandom(7);
+        String[] vehicles = {"A-1", "M-7", "P-1"};
+
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime entry = YEAR_START.plusSeconds(random.nextInt(365 * 86_400));
+            LocalDateTime exit = entry.plusSeconds(random.nextInt(20 * 86_400));
+            String vehicle = vehicles[random.nextInt(vehicles.length)];
+
+            assertThat(engine.price(vehicle, entry, exit))
+                    .as("%s from %s to %s", vehicle, entry, exit)
+                    .isCloseTo(bruteForce(vehicle, entry, exit), within(0.011));
+        }
+    }
+
+    @Test
+    void reloadSwapsTariffAndRejectsInvalidOnes() {
+        TariffEngine engine = new TariffEngine(TariffCompiler.DEFAULT_TARIFF);
+        LocalDateTime entry = LocalDateTime.of(2025, 6, 2, 10, 0);
+
+        engine.reload(BANDED);
+        assertThat(engine.price("A-1", entry, entry.plusHours(1))).isEqualTo(6);
+
+        assertThatThrownBy(() -> engine.reload(new TariffDTO("missing", BANDED.vehicleClasses(), Map.of(), List.of())))
+                .isInstanceOf(InvalidTariffException.class);
+        assertThat(engine.tariff()).isEqualTo(BANDED);
+    }
+
+    /**
+     * {@link #BANDED} evaluated the obvious way, one minute at a time.
+     */
+    private static double bruteForce(String vehicle, LocalDateTime entry, LocalDateTime exit) {
+        if (vehicle.equals("P-1") && !entry.toLocalDate().isBefore(LocalDate.of(2025, 3, 1))
+                && !exit.toLocalDate().isAfter(LocalDate.of(2025, 3, 31))) {
+            return 0;
+        }
+        boolean motorcycle = vehicle.startsWith("M-");
+        long minutes = Duration.between(entry, exit).toMinutes();
+        if (!motorcycle && minutes < 10) {
+            return 0;
+        }
+
+        Map<LocalDate, Double> days = new TreeMap<>();
+        LocalDateTime start = entry.withSecond(0).withNano(0);
+        for (long i = 0; i < minutes; i++) {
+            LocalDateTime minute = start.plusMinutes(i);
+            days.merge(minute.toLocalDate(), hourlyRate(motorcycle, minute) / 60, Double::sum);
+        }
+        double total = 0;
+        for (double day : days.values()) {
+            total += motorcycle ? day : Math.min(30, day);
+        }
+        return Math.round(Math.max(motorcycle ? 0 : 2, total) * 100) / 100.0;
+    }
+
+    private static double hourlyRate(boolean motorcycle, LocalDateTime minute) {
+        if (motorcycle) {
+            return 1.5;
+        }
+        DayOfWeek day = minute.getDayOfWeek();
+        int minuteOfDay = minute.getHour() * 60 + minute.getMinute();
+        double rate = minuteOfDay >= 7 * 60 && minuteOfDay < 19 * 60 ? 6 : 4;
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            rate = 2;
+        }
+        if (day == DayOfWeek.FRIDAY && minuteOfDay >= 22 * 60 || day == DayOfWeek.SATURDAY && minuteOfDay < 3 * 60) {
+            rate = 9;
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,108 @@
+package com.farabitech.smartparking_system.config.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListenerLagInterceptorTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final EventPublishTimes times = new EventPublishTimes(beanFactory, 100);
+    private final GateDisplay display;
+
+    ListenerLagInterceptorTest() {
+        beanFactory.registerBeanDefinition("gateDisplay", new RootBeanDefinition(GateDisplay.class));
+        beanFactory.registerSingleton("publishTimes", times);
+        beanFactory.registerSingleton("properties", Binder.get(new StandardEnvironment())
+                .bindOrCreate("smartparking.listeners", ListenerExecutionProperties.class));
+        beanFactory.registerSingleton("registry", registry);
+        times.afterSingletonsInstantiated();
+
+        ProxyFactory proxy = new ProxyFactory(beanFactory.getBean(GateDisplay.class));
+        proxy.setProxyTargetClass(true);
+        proxy.addAdvisor(new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ApplicationModuleListener.class),
+                new ListenerLagInterceptor(beanFactory.getBeanProvider(EventPublishTimes.class),
+                        beanFactory.getBeanProvider(ListenerExecutionProperties.class),
+                        beanFactory.getBeanProvider(MeterRegistry.class))));
+        display = (GateDisplay) proxy.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recordsLagFromPublicationUntilEveryListenerIsDone() {
+        Arrived event = new Arrived("ABC-123");
+        publishAndComplete(event, TransactionSynchronization.STATUS_COMMITTED);
+
+        display.show(event);
+        assertThat(times.tracked()).isEqualTo(1);
+        assertThatThrownBy(() -> display.fail(event)).isInstanceOf(IllegalStateException.class);
+        assertThat(times.tracked()).isEqualTo(0);
+
+        Timer started = registry.get("listener.lag.start").tags("listener", "GateDisplay#show", "event", "Arrived").timer();
+        Timer succeeded = registry.get("listener.lag.completion").tags("listener", "GateDisplay#show", "outcome", "success").timer();
+        Timer failed = registry.get("listener.lag.completion").tags("listener", "GateDisplay#fail", "outcome", "failure").timer();
+        assertThat(started.count()).isEqualTo(1L);
+        assertThat(succeeded.count()).isEqualTo(1L);
+        assertThat(failed.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void forgetsEventsOfRolledBackTransactionsAndCountsUnknownOnes() {
+        Arrived rolledBack = new Arrived("XYZ-9");
+        publishAndComplete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(times.tracked()).isEqualTo(0);
+
+        // an equal record is still another publication, e.g. one resubmitted from the registry
+        display.show(new Arrived("XYZ-9"));
+        double untracked = registry.get("listener.lag.untracked").tags("listener", "GateDisplay#show").counter().count();
+        assertThat(untracked).isEqualTo(1.0);
+    }
+
+    private void publishAndComplete(Object event, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        times.onApplicationEvent(new PayloadApplicationEvent<>(this, event));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    record Arrived(String vehicleNumber) {
+    }
+
+    static class GateDisplay {
+
+        @ApplicationModuleListener
+        public void show(Arrived event) {
+        }
+
+        @ApplicationModuleListener
+        public void fail(Arrived event) {
+            throw new IllegalStateException("display offline");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.farabitech.smartparking_system.config.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.farabitech.smartparking_system.common.logging.LogMarkers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One per-vehicle log line ("slot allocated") from four threads, the way the listener path writes it:
+ * <ul>
+ *     <li>{@code stdout} – the former {@code System.out.println} with string concatenation</li>
+ *     <li>{@code sync} – logback writing on the calling thread</li>
+ *     <li>{@code async} – logback through {@link CountingAsyncAppender}, as configured in {@code logback-spring.xml}</li>
+ *     <li>{@code async-sampled} – the same with {@link ModuleSamplingFilter} keeping 10% of the module's events</li>
+ * </ul>
+ * Output goes to a discarding stream, so only formatting and contention are measured; a real console makes
+ * the synchronous variants slower still. Events the async buffer dropped are printed after the trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingPipelineBenchmark {
+
+    private static final String LOGGER = "com.farabitech.smartparking_system.allocation.internal.service.SlotAllocationService";
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"stdout", "sync", "async", "async-sampled"})
+    String pipeline;
+
+    PrintStream stdout;
+    LoggerContext context;
+    Logger logger;
+    CountingAsyncAppender async;
+    final AtomicLong vehicles = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stdout = new PrintStream(OutputStream.nullOutputStream(), false);
+        if (pipeline.equals("stdout")) {
+            return;
+        }
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        logger = context.getLogger(LOGGER);
+        logger.setAdditive(false);
+        if (pipeline.equals("sync")) {
+            logger.addAppender(console);
+            return;
+        }
+        async = new CountingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_CONSOLE");
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(console);
+        async.start();
+        logger.addAppender(async);
+        if (pipeline.equals("async-sampled")) {
+            ModuleSamplingFilter filter = new ModuleSamplingFilter(Map.of("allocation", 0.1));
+            filter.setContext(context);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (async != null) {
+            System.out.printf("%s: discarded=%d overflowed=%d%n", pipeline, async.discarded(), async.overflowed());
+        }
+        if (context != null) {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void slotAllocated() {
+        String vehicleNumber = "V-" + vehicles.incrementAndGet();
+        if (logger == null) {
+            stdout.println("🅿️ Allocated Slot " + "A-017" + " to vehicle " + vehicleNumber);
+        } else {
+            logger.info(LogMarkers.HIGH_VOLUME, "Slot allocated: slotCode={} vehicleNumber={} facilityId={}",
+                    "A-017", vehicleNumber, "main");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.farabitech.smartparking_system.config.persistence;
+
+import com.farabitech.smartparking_system.BenchmarkContexts;
+import com.farabitech.smartparking_system.billing.internal.model.BillingRecord;
+import com.farabitech.smartparking_system.billing.internal.repository.BillingRecordRepository;
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput (rows/ms) of a burst written in one transaction, the shape of slot seeding and
+ * batched entries/billing. {@code idAllocationSize=1, batchSize=1} is roughly the old
+ * {@code IDENTITY} behaviour: one id round-trip and one insert statement per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"1", "50"})
+    public int idAllocationSize;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private final AtomicLong vehicles = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private ParkingEntryRepository entries;
+    private BillingRecordRepository billingRecords;
+    private TransactionTemplate transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("insert-bench-" + idAllocationSize + "-" + batchSize,
+                "smartparking.persistence.id-allocation-size=" + idAllocationSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        entries = context.getBean(ParkingEntryRepository.class);
+        billingRecords = context.getBean(BillingRecordRepository.class);
+        transactions = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ParkingEntry> insertParkingEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ParkingEntry> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new ParkingEntry(null, "I-" + vehicles.incrementAndGet(), now, null, true));
+        }
+        return transactions.execute(status -> entries.saveAll(batch));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BillingRecord> insertBillingRecords() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BillingRecord> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new BillingRecord(null, "I-" + vehicles.incrementAndGet(), 20, now));
+        }
+        return transactions.execute(status -> billingRecords.saveAll(batch));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InsertThroughputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of tracing one entry request shaped like the real one (controller, {@code EntryManagement}, two JDBC
+ * statements) at each sampling level, with the production processor chain in front of an in-memory exporter:
+ * <ul>
+ *     <li>{@code sampling=off} – no-op tracer, the floor</li>
+ *     <li>{@code sampling=0|0.01|0.1|1} – {@link ParentBasedRatioSampler} ratio; with {@code tail=true} unsampled
+ *         spans are recorded and buffered by {@link TailSamplingSpanProcessor}, with {@code tail=false} they are
+ *         not recorded at all</li>
+ *     <li>{@code dropInternal=entry} – the {@code EntryManagement} span is filtered out of the export</li>
+ * </ul>
+ * Spans exported per operation are printed after each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracingOverheadBenchmark {
+
+    @Param({"off", "0", "0.01", "0.1", "1"})
+    String sampling;
+
+    @Param({"true", "false"})
+    boolean tail;
+
+    @Param({"", "entry"})
+    String dropInternal;
+
+    SdkTracerProvider provider;
+    Tracer tracer;
+    final CountingExporter exporter = new CountingExporter();
+    final LongAdder requests = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (sampling.equals("off")) {
+            tracer = TracerProvider.noop().get("benchmark");
+            return;
+        }
+        TracingProperties.Tail tailProperties =
+                new TracingProperties.Tail(tail, Duration.ofMillis(500), 10_000, Duration.ofSeconds(30));
+        InternalSpanFilter filter = new InternalSpanFilter(dropInternal.isEmpty() ? List.of() : List.of(dropInternal));
+        SpanExporter filtered = filter.wrap(exporter);
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
+                .setSampler(new ParentBasedRatioSampler(Double.parseDouble(sampling), tail))
+                .addSpanProcessor(BatchSpanProcessor.builder(filtered).build());
+        if (filter.isActive()) {
+            builder.addSpanProcessor(filter);
+        }
+        if (tail) {
+            TailSamplingSpanProcessor tailProcessor = new TailSamplingSpanProcessor(tailProperties);
+            tailProcessor.exportTo(filtered);
+            builder.addSpanProcessor(tailProcessor);
+        }
+        provider = builder.build();
+        tracer = provider.get("benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (provider != null) {
+            provider.forceFlush().join(10, TimeUnit.SECONDS);
+            provider.close();
+        }
+        System.out.printf("sampling=%s tail=%s dropInternal=%s: %.3f spans exported per request%n",
+                sampling, tail, dropInternal, exporter.spans.sum() / (double) Math.max(1, requests.sum()));
+    }
+
+    @Benchmark
+    public void entryRequest() {
+        requests.increment();
+        Span server = tracer.spanBuilder("EntryController#entry").setSpanKind(SpanKind.SERVER)
+                .setAttribute("code.namespace", "com.farabitech.smartparking_system.gateway.internal.controller.EntryController")
+                .setAttribute("code.function", "entry")
+                .startSpan();
+        try (Scope ignored = server.makeCurrent()) {
+            Span internal = tracer.spanBuilder("EntryManagement#vehicleEntry").setSpanKind(SpanKind.INTERNAL)
+                    .setAttribute("code.namespace", "com.farabitech.smartparking_system.entry.internal.EntryManagement")
+                    .setAttribute("code.function", "vehicleEntry")
+                    .startSpan();
+            try (Scope alsoIgnored = internal.makeCurrent()) {
+                statement("INSERT PARKING_ENTRY");
+                statement("INSERT EVENT_PUBLICATION");
+            }
+            internal.end();
+        }
+        server.end();
+    }
+
+    private void statement(String name) {
+        tracer.spanBuilder(name).setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.system", "h2")
+                .startSpan()
+                .end();
+    }
+
+    /** Keeps nothing but the count, so the trial does not grow the heap. */
+    static final class CountingExporter implements SpanExporter {
+
+        final LongAdder spans = new LongAdder();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.add(batch.size());
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TracingOverheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.farabitech.smartparking_system.config.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracingPipelineTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private SdkTracerProvider provider;
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void unsampledTracesAreKeptOnlyWhenSlowOrFailed() {
+        Tracer tracer = tracer(0.0, List.of());
+
+        request(tracer, "fast", 10, false);
+        assertThat(names()).isEmpty();
+
+        request(tracer, "slow", 600, false);
+        request(tracer, "failed", 10, true);
+        List<String> names = names();
+        assertThat(names).containsExactly("slow-child", "slow", "failed-child", "failed");
+    }
+
+    @Test
+    void sampledTracesBypassTheTailBuffer() {
+        Tracer tracer = tracer(1.0, List.of());
+
+        request(tracer, "fast", 10, false);
+
+        List<String> names = names();
+        assertThat(names).containsExactly("fast-child", "fast");
+    }
+
+    @Test
+    void droppedInternalSpansHandTheirChildrenToTheirParent() {
+        Tracer tracer = tracer(1.0, List.of("entry"));
+
+        Span server = tracer.spanBuilder("EntryController#entry").setSpanKind(SpanKind.SERVER).startSpan();
+        try (Scope ignored = server.makeCurrent()) {
+            Span internal = tracer.spanBuilder("EntryManagement#vehicleEntry").setSpanKind(SpanKind.INTERNAL)
+                    .setAttribute("code.namespace", "com.farabitech.smartparking_system.entry.internal.EntryManagement")
+                    .startSpan();
+            try (Scope alsoIgnored = internal.makeCurrent()) {
+                tracer.spanBuilder("INSERT ParkingEntry").setSpanKind(SpanKind.CLIENT).startSpan().end();
+            }
+            internal.end();
+        }
+        server.end();
+
+        flush();
+        Map<String, SpanData> byName = exported.stream().collect(Collectors.toMap(SpanData::getName, Function.identity()));
+        assertThat(byName).containsOnlyKeys("EntryController#entry", "INSERT ParkingEntry");
+        String parentSpanId = byName.get("INSERT ParkingEntry").getParentSpanId();
+        assertThat(parentSpanId).isEqualTo(byName.get("EntryController#entry").getSpanId());
+    }
+
+    private Tracer tracer(double ratio, List<String> dropInternal) {
+        TracingProperties.Tail tail = new TracingProperties.Tail(true, Duration.ofMillis(500), 1000, Duration.ofSeconds(30));
+        InternalSpanFilter filter = new InternalSpanFilter(dropInternal);
+        SpanExporter exporter = filter.wrap(new CollectingExporter());
+        TailSamplingSpanProcessor tailProcessor = new TailSamplingSpanProcessor(tail);
+        tailProcessor.exportTo(exporter);
+        provider = SdkTracerProvider.builder()
+                .setClock(clock)
+                .setSampler(new ParentBasedRatioSampler(ratio, true))
+                .addSpanProcessor(filter)
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .addSpanProcessor(tailProcessor)
+                .build();
+        return provider.get("test");
+    }
+
+    private void request(Tracer tracer, String name, long childMillis, boolean fail) {
+        Span root = tracer.spanBuilder(name).setSpanKind(SpanKind.SERVER).startSpan();
+        try (Scope ignored = root.makeCurrent()) {
+            Span child = tracer.spanBuilder(name + "-child").startSpan();
+            clock.advance(childMillis);
+            if (fail) {
+                child.setStatus(StatusCode.ERROR);
+            }
+            child.end();
+        }
+        root.end();
+    }
+
+    private List<String> names() {
+        flush();
+        return exported.stream().map(SpanData::getName).toList();
+    }
+
+    /** kept traces are exported in the background */
+    private void flush() {
+        assertThat(provider.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+    }
+
+    private final class CollectingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    private static final class MutableClock implements Clock {
+
+        private long nanos = 1_000_000_000L;
+
+        void advance(long millis) {
+            nanos += millis * 1_000_000L;
+        }
+
+        @Override
+        public long now() {
+            return nanos;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+    }
+}
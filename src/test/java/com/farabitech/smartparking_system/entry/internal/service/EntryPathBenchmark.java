@@ -0,0 +1,102 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.BenchmarkContexts;
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entry hot path against H2: persisting a {@link ParkingEntry} on its own, and a full
+ * entry + exit through {@link EntryService}/{@link ExitService} until every module listener
+ * (allocation, billing, notification) has completed its event publication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntryPathBenchmark {
+
+    private static final String INCOMPLETE_PUBLICATIONS =
+            "select count(*) from events.EVENT_PUBLICATION where COMPLETION_DATE is null";
+    /** a failing listener leaves its publication incomplete for good */
+    private static final long LISTENER_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong vehicles = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private ParkingEntryRepository repository;
+    private EntryService entryService;
+    private ExitService exitService;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("entry-bench");
+        repository = context.getBean(ParkingEntryRepository.class);
+        entryService = context.getBean(EntryService.class);
+        exitService = context.getBean(ExitService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ParkingEntry persistParkingEntry() {
+        return repository.save(new ParkingEntry(null, "P-" + vehicles.incrementAndGet(), LocalDateTime.now(), null, true));
+    }
+
+    @Benchmark
+    public long entryAndExitThroughListeners() {
+        String vehicleNumber = "E-" + vehicles.incrementAndGet();
+        entryService.vehicleEntry(vehicleNumber, null, null);
+        awaitListeners();
+        exitService.vehicleExit(vehicleNumber, null, null);
+        return awaitListeners();
+    }
+
+    private long awaitListeners() {
+        long deadline = System.nanoTime() + LISTENER_TIMEOUT_NANOS;
+        long polls = 0;
+        while (jdbc.queryForObject(INCOMPLETE_PUBLICATIONS, Long.class) > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Event publications still incomplete after "
+                        + TimeUnit.NANOSECONDS.toSeconds(LISTENER_TIMEOUT_NANOS) + "s");
+            }
+            polls++;
+            LockSupport.parkNanos(50_000);
+        }
+        return polls;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntryPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExitServiceTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private final ParkingEntryRepository repository = mock(ParkingEntryRepository.class);
+    private final ExitService exitService = new ExitService(repository, events::add,
+            new ActiveSessionIndex(repository, new SimpleMeterRegistry()));
+
+    @Test
+    void aBatchExitOnlyPublishesTheEntriesItClosedItself() {
+        when(repository.findByVehicleNumberInAndActiveTrue(anyList())).thenReturn(List.of(
+                parked(1L, "ABC-123"), parked(2L, "XYZ-789")));
+        when(repository.close(eq(1L), any(), eq("G2"))).thenReturn(1);
+        // closed by a single exit between this batch reading and closing it
+        when(repository.close(eq(2L), any(), eq("G2"))).thenReturn(0);
+
+        List<BatchItemResult> results = exitService.vehicleExits(List.of("ABC-123", "XYZ-789"), null, "G2");
+
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(results.get(1).success()).isFalse();
+        assertThat(events).hasSize(1);
+        assertThat(((VehicleExitedEvent) events.get(0)).vehicleNumber()).isEqualTo("ABC-123");
+    }
+
+    private static ParkingEntry parked(Long id, String vehicleNumber) {
+        return new ParkingEntry(id, vehicleNumber, LocalDateTime.now().minusHours(1), null, true, "main", "G1", null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.BenchmarkContexts;
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.dto.IngestionTicketDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gate traffic from 16 concurrent requests against H2: every car entering and leaving through
+ * {@link EntryService}/{@link ExitService}, one transaction per operation, against the same visits
+ * submitted to {@link GateIngestion} and group committed, each request waiting for its exit ticket
+ * the way a client long-polling the ticket would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class GateIngestionBenchmark {
+
+    @Param({"0ms", "5ms"})
+    String linger;
+
+    private final AtomicLong vehicles = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EntryService entryService;
+    private ExitService exitService;
+    private GateIngestion ingestion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("ingestion-bench-" + linger,
+                "smartparking.entry.ingestion.linger=" + linger);
+        entryService = context.getBean(EntryService.class);
+        exitService = context.getBean(ExitService.class);
+        ingestion = context.getBean(GateIngestion.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void commitPerOperation() {
+        String vehicleNumber = "S-" + vehicles.incrementAndGet();
+        entryService.vehicleEntry(vehicleNumber, null, "G1");
+        exitService.vehicleExit(vehicleNumber, null, "G1");
+    }
+
+    @Benchmark
+    public IngestionTicketDTO groupCommit() {
+        String vehicleNumber = "A-" + vehicles.incrementAndGet();
+        ingestion.submit(GateOperation.ENTRY, vehicleNumber, null, "G1");
+        IngestionTicket exit = ingestion.submit(GateOperation.EXIT, vehicleNumber, null, "G1");
+        return exit.getResult().join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GateIngestionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
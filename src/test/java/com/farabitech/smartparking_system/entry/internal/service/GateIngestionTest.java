@@ -0,0 +1,140 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.entry.internal.config.IngestionProperties;
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.dto.TicketStatus;
+import com.farabitech.smartparking_system.entry.spi.exceptions.IngestionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GateIngestionTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GateIngestion ingestion;
+
+    @AfterEach
+    void stop() {
+        ingestion.stop();
+    }
+
+    @Test
+    void commitsOperationsArrivingWithinTheLingerTimeTogether() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        ingestion = start(writer, new IngestionProperties(100, 500, Duration.ofMillis(200), Duration.ofMinutes(5)));
+
+        List<IngestionTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tickets.add(ingestion.submit(GateOperation.ENTRY, "V-" + i, null, "G1"));
+        }
+        assertThat(tickets.get(0).getState().status()).isEqualTo(TicketStatus.PENDING);
+        for (IngestionTicket ticket : tickets) {
+            assertThat(ticket.getResult().get(5, TimeUnit.SECONDS).status()).isEqualTo(TicketStatus.ACCEPTED);
+        }
+
+        assertThat(writer.batches).hasSize(1);
+        assertThat(writer.batches.get(0)).hasSize(20);
+        assertThat(ingestion.find(tickets.get(7).getId()).get().getState().status()).isEqualTo(TicketStatus.ACCEPTED);
+        assertThat(registry.get("entry.ingestion.batch.size").summary().max()).isEqualTo(20.0);
+        assertThat(registry.get("entry.ingestion.latency").tag("outcome", "accepted").timer().count()).isEqualTo(20L);
+    }
+
+    @Test
+    void aFailingBatchIsRetriedOneOperationAtATime() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        ingestion = start(writer, new IngestionProperties(100, 500, Duration.ofMillis(200), Duration.ofMinutes(5)));
+
+        IngestionTicket good = ingestion.submit(GateOperation.ENTRY, "A-1", null, null);
+        IngestionTicket bad = ingestion.submit(GateOperation.EXIT, "BAD", null, null);
+        IngestionTicket other = ingestion.submit(GateOperation.EXIT, "B-2", null, null);
+
+        assertThat(good.getResult().get(5, TimeUnit.SECONDS).status()).isEqualTo(TicketStatus.ACCEPTED);
+        assertThat(bad.getResult().get(5, TimeUnit.SECONDS).status()).isEqualTo(TicketStatus.REJECTED);
+        assertThat(bad.getState().error()).isEqualTo("constraint violated");
+        assertThat(other.getResult().get(5, TimeUnit.SECONDS).status()).isEqualTo(TicketStatus.ACCEPTED);
+        // the batch, then each operation on its own
+        assertThat(writer.batches).hasSize(4);
+    }
+
+    @Test
+    void aSecondOperationOnTheSameVehicleGoesIntoTheNextCommit() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        ingestion = start(writer, new IngestionProperties(100, 500, Duration.ofMillis(200), Duration.ofMinutes(5)));
+
+        IngestionTicket entry = ingestion.submit(GateOperation.ENTRY, "A-1", null, null);
+        IngestionTicket other = ingestion.submit(GateOperation.ENTRY, "B-2", null, null);
+        IngestionTicket exit = ingestion.submit(GateOperation.EXIT, "A-1", null, null);
+        IngestionTicket last = ingestion.submit(GateOperation.ENTRY, "C-3", null, null);
+
+        for (IngestionTicket ticket : List.of(entry, other, exit, last)) {
+            assertThat(ticket.getResult().get(5, TimeUnit.SECONDS).status()).isEqualTo(TicketStatus.ACCEPTED);
+        }
+        assertThat(writer.batches).containsExactly(List.of("A-1", "B-2"), List.of("A-1", "C-3"));
+    }
+
+    @Test
+    void refusesSubmissionsOnceTheQueueIsFull() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        writer.blocked = new CountDownLatch(1);
+        ingestion = start(writer, new IngestionProperties(2, 1, Duration.ZERO, Duration.ofMinutes(5)));
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 10; i++) {
+                ingestion.submit(GateOperation.ENTRY, "V-" + i, null, null);
+            }
+        }).isInstanceOf(IngestionRejectedException.class).hasMessageContaining("queue is full");
+        writer.blocked.countDown();
+
+        assertThat(registry.get("entry.ingestion.refused").counter().count()).isEqualTo(1.0);
+    }
+
+    private GateIngestion start(IngestionWriter writer, IngestionProperties properties) {
+        GateIngestion started = new GateIngestion(writer, properties, registry);
+        started.start();
+        return started;
+    }
+
+    /**
+     * Accepts everything, except that a batch holding {@code BAD} fails as a whole and {@code BAD} on
+     * its own is rejected.
+     */
+    private static final class RecordingWriter extends IngestionWriter {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch blocked;
+
+        private RecordingWriter() {
+            super(null, null, null);
+        }
+
+        @Override
+        public List<BatchItemResult> commit(List<IngestionTicket> tickets) {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<String> vehicleNumbers = tickets.stream().map(IngestionTicket::getVehicleNumber).toList();
+            batches.add(vehicleNumbers);
+            if (vehicleNumbers.contains("BAD")) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return vehicleNumbers.stream().map(BatchItemResult::ok).toList();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.farabitech.smartparking_system.entry.internal.service;
+
+import com.farabitech.smartparking_system.entry.internal.model.IngestionTicket;
+import com.farabitech.smartparking_system.entry.internal.model.ParkingEntry;
+import com.farabitech.smartparking_system.entry.internal.repository.ParkingEntryRepository;
+import com.farabitech.smartparking_system.entry.spi.dto.BatchItemResult;
+import com.farabitech.smartparking_system.entry.spi.dto.GateOperation;
+import com.farabitech.smartparking_system.entry.spi.event.VehicleExitedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionWriterTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private final ParkingEntryRepository repository = mock(ParkingEntryRepository.class);
+    private final IngestionWriter writer = new IngestionWriter(repository, events::add,
+            new ActiveSessionIndex(repository, new SimpleMeterRegistry()));
+
+    @Test
+    void refusesABatchWithTwoOperationsOnTheSameVehicle() {
+        assertThatThrownBy(() -> writer.commit(List.of(
+                ticket(GateOperation.ENTRY, "ABC-123", null),
+                ticket(GateOperation.EXIT, "ABC-123", null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ABC-123");
+
+        // nothing written or published, so allocation never sees the exit ahead of the slot it frees
+        assertThat(events).isEmpty();
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void anExitReportedForAnotherFacilityIsAcceptedLikeASynchronousOne() {
+        when(repository.findByVehicleNumberInAndActiveTrue(anyList())).thenReturn(List.of(parked(1L, "ABC-123", "north")));
+        when(repository.close(eq(1L), any(), eq("G1"))).thenReturn(1);
+
+        List<BatchItemResult> results = writer.commit(List.of(ticket(GateOperation.EXIT, "ABC-123", "south")));
+
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(events).hasSize(1);
+        VehicleExitedEvent exited = (VehicleExitedEvent) events.get(0);
+        assertThat(exited.vehicleNumber()).isEqualTo("ABC-123");
+        assertThat(exited.facilityId()).isEqualTo("north");
+    }
+
+    @Test
+    void anExitWhoseEntryWasClosedConcurrentlyIsRejected() {
+        when(repository.findByVehicleNumberInAndActiveTrue(anyList())).thenReturn(List.of(parked(1L, "ABC-123", "main")));
+        // a synchronous exit closed the entry between this batch reading and closing it
+        when(repository.close(eq(1L), any(), any())).thenReturn(0);
+
+        List<BatchItemResult> results = writer.commit(List.of(ticket(GateOperation.EXIT, "ABC-123", null)));
+
+        assertThat(results.get(0).success()).isFalse();
+        assertThat(results.get(0).error()).contains("ABC-123");
+        assertThat(events).isEmpty();
+    }
+
+    private static ParkingEntry parked(Long id, String vehicleNumber, String facilityId) {
+        return new ParkingEntry(id, vehicleNumber, LocalDateTime.now().minusHours(1), null, true, facilityId, "G1", null);
+    }
+
+    private static IngestionTicket ticket(GateOperation operation, String vehicleNumber, String facilityId) {
+        return new IngestionTicket(operation, vehicleNumber, facilityId, "G1");
+    }
+}
@@ -0,0 +1,211 @@
+package com.farabitech.smartparking_system.gateway.internal.service;
+
+import com.farabitech.smartparking_system.allocation.spi.AllocationSPI;
+import com.farabitech.smartparking_system.allocation.spi.dto.SlotStateDTO;
+import com.farabitech.smartparking_system.gateway.internal.config.SlotStreamProperties;
+import com.farabitech.smartparking_system.gateway.internal.config.SlotStreamProperties.LagPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotStateFeedTest {
+
+    /** what a snapshot returns */
+    private static final List<SlotStateDTO> SNAPSHOT = List.of(state("A1", true), state("B1", false));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SlotStateFeed feed;
+
+    @AfterEach
+    void stop() {
+        feed.stop();
+    }
+
+    @Test
+    void resumesAfterTheLastEventIdWhileTheRingStillHoldsIt() throws Exception {
+        feed = start(LagPolicy.RESYNC);
+        feed.publish(state("A1", true));
+        feed.publish(state("B1", true));
+        feed.publish(state("C1", true));
+
+        RecordingEmitter emitter = subscribe(1L);
+
+        Event event = emitter.next();
+        assertThat(event.name()).isEqualTo(SlotStateFeed.CHANGES_EVENT);
+        assertThat(event.id()).isEqualTo("3");
+        assertThat(event.states()).containsExactly(state("B1", true), state("C1", true));
+    }
+
+    @Test
+    void startsWithASnapshotWhenTheLastEventIdIsNoLongerInTheRing() throws Exception {
+        feed = start(LagPolicy.RESYNC);
+        for (int i = 0; i < 10; i++) {
+            feed.publish(state("A" + i, true));
+        }
+
+        Event behind = subscribe(2L).next();
+        assertThat(behind.name()).isEqualTo(SlotStateFeed.SNAPSHOT_EVENT);
+        assertThat(behind.id()).isEqualTo("10");
+        assertThat(behind.states()).isEqualTo(SNAPSHOT);
+
+        // an id from before a restart, ahead of this feed
+        Event ahead = subscribe(42L).next();
+        assertThat(ahead.name()).isEqualTo(SlotStateFeed.SNAPSHOT_EVENT);
+        assertThat(ahead.id()).isEqualTo("10");
+    }
+
+    @Test
+    void sendsOnlyTheLatestStateOfEachSlot() throws Exception {
+        feed = start(LagPolicy.RESYNC);
+        feed.publish(state("A1", true));
+        feed.publish(state("B1", true));
+        feed.publish(state("A1", false));
+
+        Event event = subscribe(0L).next();
+
+        assertThat(event.id()).isEqualTo("3");
+        assertThat(event.states()).containsExactly(state("A1", false), state("B1", true));
+        assertThat(registry.get("gateway.slots.stream.coalesced").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void resyncsASubscriberThatFellAWholeBufferBehind() throws Exception {
+        feed = start(LagPolicy.RESYNC);
+        RecordingEmitter emitter = fallBehind();
+
+        Event resync = emitter.next();
+        assertThat(resync.name()).isEqualTo(SlotStateFeed.SNAPSHOT_EVENT);
+        assertThat(resync.id()).isEqualTo("10");
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(registry.get("gateway.slots.stream.lagged").tag("action", "resync").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void dropsASubscriberThatFellAWholeBufferBehind() throws Exception {
+        feed = start(LagPolicy.DROP);
+        RecordingEmitter emitter = fallBehind();
+
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.events).isEmpty();
+        assertThat(feed.subscriberCount()).isEqualTo(0);
+        assertThat(registry.get("gateway.slots.stream.lagged").tag("action", "drop").counter().count()).isEqualTo(1.0);
+    }
+
+    /**
+     * Holds the first send of a new subscriber while ten changes go into a ring of four.
+     */
+    private RecordingEmitter fallBehind() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.sending = new CountDownLatch(1);
+        emitter.release = new CountDownLatch(1);
+        feed.subscribe(null, emitter);
+
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            feed.publish(state("A" + i, true));
+        }
+        emitter.release.countDown();
+
+        Event snapshot = emitter.next();
+        assertThat(snapshot.name()).isEqualTo(SlotStateFeed.SNAPSHOT_EVENT);
+        assertThat(snapshot.id()).isEqualTo("0");
+        return emitter;
+    }
+
+    private RecordingEmitter subscribe(Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        assertThat(feed.subscribe(lastEventId, emitter).isPresent()).isTrue();
+        return emitter;
+    }
+
+    private SlotStateFeed start(LagPolicy lagPolicy) {
+        AllocationSPI allocationSPI = mock(AllocationSPI.class);
+        when(allocationSPI.getSlotStates()).thenReturn(SNAPSHOT);
+        SlotStateFeed started = new SlotStateFeed(allocationSPI,
+                new SlotStreamProperties(4, Duration.ZERO, Duration.ofMillis(50), 10, 2, lagPolicy), registry);
+        started.start();
+        return started;
+    }
+
+    private static SlotStateDTO state(String slotCode, boolean occupied) {
+        return new SlotStateDTO("main", slotCode, "A", occupied);
+    }
+
+    private record Event(String name, String id, List<SlotStateDTO> states) {
+    }
+
+    /**
+     * Keeps the named events sent to it, skipping heartbeats.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        /** counted down when the first send starts, which then waits for {@link #release} */
+        private volatile CountDownLatch sending;
+        private volatile CountDownLatch release;
+        private volatile boolean held;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void send(SseEventBuilder builder) throws IOException {
+            if (sending != null && !held) {
+                held = true;
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            List<SlotStateDTO> states = new ArrayList<>();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof Collection<?> collection) {
+                    states.addAll((Collection<SlotStateDTO>) collection);
+                } else {
+                    text.append(data.getData());
+                }
+            }
+            String name = null;
+            String id = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, id, states));
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        private Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return event;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.farabitech.smartparking_system.journal.internal.service;
+
+import com.farabitech.smartparking_system.journal.spi.JournalReader;
+import com.farabitech.smartparking_system.journal.spi.dto.JournalRecord;
+import com.farabitech.smartparking_system.journal.spi.exceptions.JournalException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class JournalTest {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentAppendsAreDurableAndReplayInOrder() throws Exception {
+        int threads = 8;
+        int perThread = 25_000;
+        List<CompletableFuture<Long>> appends = new ArrayList<>();
+
+        long started = System.nanoTime();
+        try (Journal journal = new Journal(directory, SEGMENT_SIZE, 1024);
+             ExecutorService writers = Executors.newFixedThreadPool(threads)) {
+            List<Future<List<CompletableFuture<Long>>>> submitted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                submitted.add(writers.submit(() -> {
+                    List<CompletableFuture<Long>> own = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        own.add(journal.append(payload(thread + "-" + i)));
+                    }
+                    return own;
+                }));
+            }
+            for (var future : submitted) {
+                appends.addAll(future.get());
+            }
+            CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            log.info("Journal throughput: records={} seconds={} recordsPerSecond={} segments={}",
+                    appends.size(), seconds, (long) (appends.size() / seconds), journal.segments().size());
+
+            assertThat(journal.committedSequence()).isEqualTo((long) threads * perThread);
+            assertThat(journal.segments().size()).isGreaterThan(1);
+        }
+
+        // replay from a freshly opened journal, across segment boundaries
+        try (Journal reopened = new Journal(directory, SEGMENT_SIZE, 1024);
+             JournalReader reader = reopened.openReader(1)) {
+            List<JournalRecord> records = new ArrayList<>();
+            while (reader.poll(10_000, records::add) > 0) {
+                // keep reading
+            }
+            assertThat(records).hasSize(threads * perThread);
+            for (int i = 0; i < records.size(); i++) {
+                assertThat(records.get(i).sequence()).isEqualTo(i + 1);
+            }
+            assertThat(records).extracting(record -> new String(record.payload(), StandardCharsets.UTF_8))
+                    .contains("{\"id\":\"0-0\"}", "{\"id\":\"7-24999\"}");
+        }
+    }
+
+    @Test
+    void recoversFromATornWriteMidSegment() throws Exception {
+        try (Journal journal = new Journal(directory, SEGMENT_SIZE, 16)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.append(payload(String.valueOf(i))).get();
+            }
+        }
+
+        // crash mid-record: length and part of the body made it to disk, the rest did not
+        Path segment = directory.resolve(JournalSegment.fileName(1));
+        long torn = lastRecordEnd(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer partial = ByteBuffer.allocate(JournalSegment.HEADER_BYTES + 4);
+            partial.putInt(64).putInt(0xCAFEBABE).putLong(101).putInt(0x7B226964);
+            channel.write(partial.flip(), torn);
+        }
+
+        try (Journal recovered = new Journal(directory, SEGMENT_SIZE, 16)) {
+            assertThat(recovered.committedSequence()).isEqualTo(100);
+            assertThat(recovered.append(payload("after-crash")).get()).isEqualTo(101);
+
+            try (JournalReader reader = recovered.openReader(99)) {
+                List<JournalRecord> tail = new ArrayList<>();
+                reader.poll(10, Duration.ofSeconds(1), tail::add);
+                assertThat(tail).extracting(JournalRecord::sequence).containsExactly(99L, 100L, 101L);
+                assertThat(new String(tail.get(2).payload(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":\"after-crash\"}");
+            }
+        }
+    }
+
+    @Test
+    void tailingReaderWaitsForNewRecords() throws Exception {
+        try (Journal journal = new Journal(directory, SEGMENT_SIZE, 16);
+             JournalReader reader = journal.openReader(1)) {
+            List<JournalRecord> records = new ArrayList<>();
+            assertThat(reader.poll(10, records::add)).isZero();
+
+            CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)
+                    .execute(() -> journal.append(payload("late")));
+            assertThat(reader.poll(10, Duration.ofSeconds(5), records::add)).isEqualTo(1);
+            assertThat(reader.position()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void rejectsAnEmptyRecord() throws Exception {
+        try (Journal journal = new Journal(directory, SEGMENT_SIZE, 16)) {
+            assertThatThrownBy(() -> journal.append(new byte[0]).get())
+                    .hasCauseInstanceOf(JournalException.class);
+
+            // a zero length would have ended the segment's data for readers and recovery
+            assertThat(journal.append(payload("after-empty")).get()).isEqualTo(1);
+        }
+    }
+
+    private static long lastRecordEnd(Path segment) throws Exception {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int position = 0;
+            int length;
+            while (position + JournalSegment.HEADER_BYTES <= buffer.capacity() && (length = buffer.getInt(position)) > 0) {
+                position += JournalSegment.HEADER_BYTES + length;
+            }
+            return position;
+        }
+    }
+
+    private static byte[] payload(String id) {
+        return ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
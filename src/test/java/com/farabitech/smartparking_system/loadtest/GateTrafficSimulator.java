@@ -0,0 +1,259 @@
+package com.farabitech.smartparking_system.loadtest;
+
+import com.farabitech.smartparking_system.BenchmarkContexts;
+import com.farabitech.smartparking_system.SmartparkingSystemApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays synthetic gate traffic against an in-process instance of the application and reports
+ * HTTP latency and event-completion lag percentiles.
+ * <p>
+ * Arrivals are a Poisson process whose rate is multiplied during periodic rush-hour windows;
+ * every car that gets in leaves again after a log-normally distributed dwell time. The invoice
+ * summary is polled at a fixed rate alongside. Event lag is read from the
+ * {@code event_publication} table (publication to completion) once the run has drained.
+ * <p>
+ * Requests are sent asynchronously and their latency is measured from the time they were planned for,
+ * not from when they went out: when the server stalls, the requests piling up behind the stall count
+ * with their full wait instead of silently being sent late (coordinated omission).
+ * <p>
+ * Everything runs locally against H2, no collector or broker needed:
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.args="--duration=PT2M --rate=50 --slots=2000 --slo.entry.p99=25"
+ * </pre>
+ * Options ({@code --name=value}, durations in ISO-8601):
+ * {@code duration}, {@code rate} (arrivals/sec), {@code rush.every}, {@code rush.length},
+ * {@code rush.multiplier}, {@code dwell.mean}, {@code dwell.sigma}, {@code slots},
+ * {@code report.rate} (invoice summary polls/sec), {@code out} (report directory), {@code seed} and
+ * {@code slo.<endpoint>.<p50|p99|p999>} thresholds in milliseconds, which fail the run when exceeded.
+ * Dwell times are real time, so pick a short {@code dwell.mean} for short runs.
+ */
+public class GateTrafficSimulator {
+
+    private static final String[] ENDPOINTS = {"entry", "exit", "invoices"};
+
+    private final Map<String, String> options;
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Histogram eventLag = new ConcurrentHistogram(3);
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong vehicles = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    private HttpClient http;
+    private String baseUrl;
+
+    GateTrafficSimulator(Map<String, String> options) {
+        this.options = options;
+        for (String endpoint : ENDPOINTS) {
+            latencies.put(endpoint, new ConcurrentHistogram(3));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        System.exit(new GateTrafficSimulator(options).run() ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        Duration duration = Duration.parse(option("duration", "PT1M"));
+        double rate = Double.parseDouble(option("rate", "20"));
+        Duration rushEvery = Duration.parse(option("rush.every", "PT30S"));
+        Duration rushLength = Duration.parse(option("rush.length", "PT10S"));
+        double rushMultiplier = Double.parseDouble(option("rush.multiplier", "4"));
+        Duration dwellMean = Duration.parse(option("dwell.mean", "PT15S"));
+        double dwellSigma = Double.parseDouble(option("dwell.sigma", "0.5"));
+        double reportRate = Double.parseDouble(option("report.rate", "1"));
+        int slots = Integer.parseInt(option("slots", "1000"));
+        SplittableRandom random = new SplittableRandom(Long.parseLong(option("seed", "42")));
+
+        try (ConfigurableApplicationContext context = start(slots);
+             ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2)) {
+
+            http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            long reportPeriod = (long) (1_000_000_000L / reportRate);
+            long reportsFrom = System.nanoTime();
+            AtomicLong reports = new AtomicLong();
+            scheduler.scheduleAtFixedRate(() -> send("invoices", "GET", "/reporting/invoices",
+                            reportsFrom + reports.getAndIncrement() * reportPeriod),
+                    0, reportPeriod, TimeUnit.NANOSECONDS);
+
+            long started = System.nanoTime();
+            long end = started + duration.toNanos();
+            long next = started;
+            while (next < end) {
+                long elapsed = next - started;
+                boolean rush = elapsed % rushEvery.toNanos() < rushLength.toNanos();
+                double currentRate = rush ? rate * rushMultiplier : rate;
+                // exponential inter-arrival times make the arrivals a Poisson process
+                next += (long) (-Math.log(1 - random.nextDouble()) / currentRate * 1_000_000_000L);
+
+                long dwellNanos = (long) (dwellMean.toNanos()
+                        * Math.exp(dwellSigma * gaussian(random) - dwellSigma * dwellSigma / 2));
+                long arrival = next;
+                scheduler.schedule(() -> arrive(scheduler, arrival, dwellNanos), arrival - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+
+            // let arrivals, the cars still parked and the listeners behind them drain
+            scheduler.schedule(() -> { }, end - System.nanoTime(), TimeUnit.NANOSECONDS).get();
+            long drainUntil = System.nanoTime() + dwellMean.toNanos() * 4;
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            while (System.nanoTime() < drainUntil && (inFlight.get() > 0 || incomplete(jdbc) > 0)) {
+                Thread.sleep(200);
+            }
+            scheduler.shutdownNow();
+
+            recordEventLag(jdbc);
+            return report(duration, incomplete(jdbc));
+        }
+    }
+
+    private void arrive(ScheduledExecutorService scheduler, long arrival, long dwellNanos) {
+        String vehicleNumber = "SIM-" + vehicles.incrementAndGet();
+        send("entry", "POST", "/parking/entry?vehicleNumber=" + vehicleNumber, arrival).thenAccept(entered -> {
+            if (entered) {
+                long departure = System.nanoTime() + dwellNanos;
+                scheduler.schedule(() -> send("exit", "POST", "/parking/exit?vehicleNumber=" + vehicleNumber, departure),
+                        dwellNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Sends without blocking the schedule; the latency counts from {@code plannedNanos}.
+     */
+    private CompletableFuture<Boolean> send(String endpoint, String method, String path, long plannedNanos) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        inFlight.incrementAndGet();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).handle((response, error) -> {
+            inFlight.decrementAndGet();
+            if (response == null) {
+                failures.incrementAndGet();
+                return false;
+            }
+            latencies.get(endpoint).recordValue(Math.max(0, System.nanoTime() - plannedNanos) / 1_000);
+            if (response.statusCode() >= 400) {
+                failures.incrementAndGet();
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private ConfigurableApplicationContext start(int slots) {
+        Path journal = BenchmarkContexts.journalDirectory("loadtest");
+        return new SpringApplicationBuilder(SmartparkingSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "smartparking.journal.directory=" + journal,
+                        "otel.sdk.disabled=true",
+                        "logging.level.root=WARN",
+                        "smartparking.allocation.initial-slots=" + slots)
+                .listeners(BenchmarkContexts.deleteOnClose(journal))
+                .run();
+    }
+
+    private static long incomplete(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select count(*) from events.EVENT_PUBLICATION where COMPLETION_DATE is null", Long.class);
+    }
+
+    private void recordEventLag(JdbcTemplate jdbc) {
+        jdbc.query("select PUBLICATION_DATE, COMPLETION_DATE from events.EVENT_PUBLICATION where COMPLETION_DATE is not null",
+                row -> {
+                    Timestamp published = row.getTimestamp(1);
+                    Timestamp completed = row.getTimestamp(2);
+                    long micros = Duration.between(published.toInstant(), completed.toInstant()).toNanos() / 1_000;
+                    eventLag.recordValue(Math.max(0, micros));
+                });
+    }
+
+    private boolean report(Duration duration, long incompleteEvents) throws IOException {
+        Path out = Path.of(option("out", "target/loadtest"));
+        Files.createDirectories(out);
+
+        PrintStream console = System.out;
+        console.printf("%nGate traffic simulation: duration=%s vehicles=%d failures=%d incompleteEvents=%d%n",
+                duration, vehicles.get(), failures.get(), incompleteEvents);
+        console.printf("%-10s %10s %10s %10s %10s %10s%n", "series", "count", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        Map<String, Histogram> all = new LinkedHashMap<>(latencies);
+        all.put("eventLag", eventLag);
+
+        boolean withinSlo = true;
+        for (Map.Entry<String, Histogram> series : all.entrySet()) {
+            Histogram histogram = series.getValue();
+            console.printf("%-10s %10d %10.2f %10.2f %10.2f %10.2f%n", series.getKey(), histogram.getTotalCount(),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(out.resolve(series.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+
+            for (String percentile : new String[]{"p50", "p99", "p999"}) {
+                String slo = options.get("slo." + series.getKey() + "." + percentile);
+                if (slo == null) {
+                    continue;
+                }
+                double actual = millis(histogram, switch (percentile) {
+                    case "p50" -> 50;
+                    case "p99" -> 99;
+                    default -> 99.9;
+                });
+                if (actual > Double.parseDouble(slo)) {
+                    console.printf("SLO violated: %s %s = %.2f ms > %s ms%n", series.getKey(), percentile, actual, slo);
+                    withinSlo = false;
+                }
+            }
+        }
+        console.printf("HDR percentile distributions written to %s%n", out.toAbsolutePath());
+        return withinSlo;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller, SplittableRandom has no nextGaussian()
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,128 @@
+package com.farabitech.smartparking_system.notification.internal.service;
+
+import com.farabitech.smartparking_system.notification.internal.channel.NotificationChannel;
+import com.farabitech.smartparking_system.notification.internal.config.NotificationProperties;
+import com.farabitech.smartparking_system.notification.internal.config.NotificationProperties.ChannelLimits;
+import com.farabitech.smartparking_system.notification.internal.model.Notification;
+import com.farabitech.smartparking_system.notification.internal.model.Notification.Type;
+import com.farabitech.smartparking_system.notification.spi.exceptions.NotificationRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class NotificationDispatcherTest {
+
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2025, 6, 2, 9, 0);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void stop() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void coalescesEntryAndExitOfTheSameVehicleWithinTheWindow() {
+        RecordingChannel channel = new RecordingChannel();
+        dispatcher = start(properties(1000, Duration.ofSeconds(30), new ChannelLimits(10, 0, 10, 100)), channel);
+
+        dispatcher.submit(Notification.entry("A-1", ENTRY_TIME));
+        dispatcher.submit(Notification.entry("B-2", ENTRY_TIME));
+        dispatcher.submit(Notification.exit("A-1", ENTRY_TIME, ENTRY_TIME.plusMinutes(5)));
+        dispatcher.submit(Notification.exit("A-1", ENTRY_TIME, ENTRY_TIME.plusMinutes(5)));
+        dispatcher.stop();
+
+        assertThat(channel.sent()).extracting(Notification::vehicleNumber, Notification::type)
+                .containsExactly(
+                        tuple("A-1", Type.VISIT),
+                        tuple("B-2", Type.ENTRY));
+        assertThat(registry.get("notification.coalesced").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void sendsInBatchesWithinTheRateLimit() {
+        RecordingChannel channel = new RecordingChannel();
+        dispatcher = start(properties(1000, Duration.ZERO, new ChannelLimits(20, 200, 20, 1000)), channel);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            dispatcher.submit(Notification.entry("V-" + i, ENTRY_TIME));
+        }
+        dispatcher.stop();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        assertThat(channel.sent()).hasSize(100);
+        assertThat(channel.batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(20));
+        // 20 at once, the other 80 at 200/s
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+        assertThat(registry.get("notification.delivered").tag("outcome", "sent").counter().count()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsOnceTheQueueStaysFull() throws InterruptedException {
+        RecordingChannel channel = new RecordingChannel();
+        channel.blocked = new CountDownLatch(1);
+        dispatcher = start(properties(2, Duration.ZERO, new ChannelLimits(1, 0, 1, 1)), channel);
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 100; i++) {
+                dispatcher.submit(Notification.entry("V-" + i, ENTRY_TIME));
+            }
+        }).isInstanceOf(NotificationRejectedException.class);
+        assertThat(registry.get("notification.rejected").counter().count()).isEqualTo(1);
+
+        channel.blocked.countDown();
+    }
+
+    private NotificationDispatcher start(NotificationProperties properties, NotificationChannel channel) {
+        NotificationDispatcher started = new NotificationDispatcher(properties, List.of(channel), registry);
+        started.start();
+        return started;
+    }
+
+    private static NotificationProperties properties(int queueCapacity, Duration coalesceWindow, ChannelLimits limits) {
+        return new NotificationProperties(queueCapacity, coalesceWindow, Duration.ofMillis(50), Duration.ofMillis(10),
+                limits, Map.of());
+    }
+
+    private static final class RecordingChannel implements NotificationChannel {
+
+        private final List<List<Notification>> batches = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void send(List<Notification> batch) {
+            if (blocked != null) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(List.copyOf(batch));
+            batchSizes.add(batch.size());
+        }
+
+        List<Notification> sent() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}